@@ -0,0 +1,680 @@
+/* ALLOCATION TRACES
+ * Written: 18 October 2026
+ *
+ * A compact binary format for recording the sequence of allocations and frees made against an allocator, so that a
+ * workload captured from a real program can be replayed later as a repeatable benchmark.  A trace file consists of an
+ * eight-byte header (the magic number 0x464C5452, "FLTR", followed by a format version) and a sequence of fixed-width,
+ * nine-byte records, all big-endian:
+ *
+ *     ALLOCATE  0x01  numBytes      startAddress   (startAddress is -1 if the allocation failed)
+ *     FREE      0x02  startAddress  numBytes
+ *
+ * A Recorder wraps any allocator and appends a record for every call made through it.  replay() streams a trace from a
+ * memory-mapped file into any other allocator, translating each recorded address to the address the new allocator
+ * returned for the same allocation, and reports the throughput achieved and the fragmentation of the allocator at the
+ * end of the trace.  Run the main method to replay a trace file against every allocator in FreeListBenchmark.
+ *
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AllocationTrace {
+    /** The first four bytes of every trace file. */
+    static final int MAGIC = 0x464C5452;
+    /** The version of the trace format written by this class. */
+    static final int VERSION = 1;
+    /** The number of bytes preceding the first record. */
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+    /** The number of bytes in each record. */
+    static final int RECORD_BYTES = 1 + 2 * Integer.BYTES;
+    /** Opcode of a record of an allocation. */
+    static final byte ALLOCATE = 1;
+    /** Opcode of a record of a free. */
+    static final byte FREE = 2;
+    /** The number of records mapped and decoded at a time during replay, so that traces may exceed 2 GiB. */
+    private static final int RECORDS_PER_WINDOW = 1 << 20;
+    /** Decoded kind of an allocation whose replayed address must be remembered in its slot. */
+    private static final byte TRACKED_ALLOCATE = 1;
+    /** Decoded kind of an allocation that failed in the recording, so is freed as soon as it is replayed. */
+    private static final byte UNTRACKED_ALLOCATE = 2;
+    /** Decoded kind of a free of part of the allocation remembered in its slot. */
+    private static final byte TRACKED_FREE = 3;
+    /** Decoded kind of a free of memory that no live range of a recorded allocation covers. */
+    private static final byte UNTRACKED_FREE = 4;
+
+    private AllocationTrace() {
+    }
+
+    /**
+     * An allocator that forwards every call to another allocator and appends a record of it to a trace file.
+     * Allocations that fail are recorded before the exception is rethrown; frees that are rejected are not recorded.
+     */
+    public static final class Recorder implements Allocator, Closeable {
+        /** The allocator whose calls are being recorded. */
+        private final Allocator allocator;
+        /** The trace file being written. */
+        private final DataOutputStream out;
+
+        /**
+         * Recorder constructor.  Creates or truncates the specified trace file and writes its header.
+         *
+         * @param allocator The allocator to which calls are forwarded.
+         * @param path      The trace file to write.
+         * @throws IOException If the trace file cannot be created.
+         */
+        public Recorder(Allocator allocator, Path path) throws IOException {
+            this.allocator = allocator;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+            this.out.writeInt(MAGIC);
+            this.out.writeInt(VERSION);
+        }
+
+        @Override
+        public int allocate(int numBytes) {
+            int startAddress;
+            try {
+                startAddress = this.allocator.allocate(numBytes);
+            } catch (NoSuchElementException e) {
+                write(ALLOCATE, numBytes, -1);
+                throw e;
+            }
+            write(ALLOCATE, numBytes, startAddress);
+            return startAddress;
+        }
+
+        @Override
+        public void free(int startAddress, int numBytes) {
+            this.allocator.free(startAddress, numBytes);
+            write(FREE, startAddress, numBytes);
+        }
+
+        @Override
+        public void forEachFreeBlock(BlockVisitor visitor) {
+            this.allocator.forEachFreeBlock(visitor);
+        }
+
+        @Override
+        public int freeBytes() {
+            return this.allocator.freeBytes();
+        }
+
+        @Override
+        public int largestFreeBlock() {
+            return this.allocator.largestFreeBlock();
+        }
+
+        /**
+         * Flush any buffered records and close the trace file.
+         *
+         * @throws IOException If the trace file cannot be written.
+         */
+        @Override
+        public void close() throws IOException {
+            this.out.close();
+        }
+
+        /**
+         * @return A string representation of the free blocks in the recorded allocator.
+         */
+        public String toString() {
+            return this.allocator.toString();
+        }
+
+        /**
+         * Append a record to the trace file.
+         *
+         * @param opcode The kind of call being recorded.
+         * @param first  The first operand of the record.
+         * @param second The second operand of the record.
+         * @throws IllegalStateException If the trace file cannot be written.
+         */
+        private void write(byte opcode, int first, int second) {
+            try {
+                this.out.writeByte(opcode);
+                this.out.writeInt(first);
+                this.out.writeInt(second);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not write to allocation trace", e);
+            }
+        }
+    }
+
+    /**
+     * The outcome of replaying a trace.
+     */
+    public static final class Result {
+        /** The number of records replayed. */
+        private final long operations;
+        /** The number of allocations that failed during replay. */
+        private final long failedAllocations;
+        /** The number of frees skipped because the allocation they freed failed during replay. */
+        private final long skippedFrees;
+        /** The time spent replaying the trace, in nanoseconds. */
+        private final long elapsedNanos;
+        /** The fragmentation of the allocator at the end of the trace. */
+        private final double fragmentation;
+
+        private Result(long operations, long failedAllocations, long skippedFrees, long elapsedNanos,
+                       double fragmentation) {
+            this.operations = operations;
+            this.failedAllocations = failedAllocations;
+            this.skippedFrees = skippedFrees;
+            this.elapsedNanos = elapsedNanos;
+            this.fragmentation = fragmentation;
+        }
+
+        /**
+         * @return The number of records replayed.
+         */
+        public long getOperations() {
+            return this.operations;
+        }
+
+        /**
+         * @return The number of allocations that failed during replay, including those that also failed when recorded.
+         */
+        public long getFailedAllocations() {
+            return this.failedAllocations;
+        }
+
+        /**
+         * @return The number of frees skipped because the allocation they freed failed during replay, or because no
+         *         live recorded allocation covers the freed range, as when part of it was already freed.
+         */
+        public long getSkippedFrees() {
+            return this.skippedFrees;
+        }
+
+        /**
+         * @return The time spent replaying the trace, in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+
+        /**
+         * @return The number of records replayed per second.
+         */
+        public double getThroughput() {
+            return this.elapsedNanos == 0 ? 0 : this.operations * 1e9 / this.elapsedNanos;
+        }
+
+        /**
+         * @return The fragmentation of the allocator at the end of the trace, as defined by
+         *         <code>FreeListMXBean.getFragmentation()</code>.
+         */
+        public double getFragmentation() {
+            return this.fragmentation;
+        }
+
+        /**
+         * @return A summary of the replay.
+         */
+        public String toString() {
+            return String.format("Ops: %d; Mops/s: %.2f; Failed: %d; Skipped: %d; Fragmentation: %.3f",
+                    this.operations, getThroughput() / 1e6, this.failedAllocations, this.skippedFrees,
+                    this.fragmentation);
+        }
+    }
+
+    /**
+     * Replay a trace file against an allocator.  The file is mapped into memory a window at a time.  Since the
+     * allocator need not place blocks where the recorded one did, each recorded allocation is given a slot in an array
+     * of replayed addresses, and each free is resolved to the slot and offset of the allocation it belongs to; a free
+     * of memory whose allocation failed during replay is skipped.  The ranges of each allocation that are still live
+     * are tracked individually, so a free of part of an allocation leaves the rest of it translatable even once the
+     * freed part has been reallocated.  Resolution depends only on the recorded addresses,
+     * so each window is decoded into primitive arrays before it is replayed, and only the replay of the decoded
+     * records, which makes no calls but those to the allocator, is timed.
+     *
+     * @param path      The trace file to replay.
+     * @param allocator The allocator against which to replay the trace.
+     * @return The outcome of the replay.
+     * @throws IOException              If the trace file cannot be read.
+     * @throws IllegalArgumentException If the file is not an allocation trace, or the trace frees memory that the
+     *                                  allocator rejects.
+     */
+    public static Result replay(Path path, Allocator allocator) throws IOException {
+        LiveRanges live = new LiveRanges();
+        byte[] kinds = new byte[RECORDS_PER_WINDOW];
+        int[] lengths = new int[RECORDS_PER_WINDOW];
+        int[] slots = new int[RECORDS_PER_WINDOW];
+        int[] offsets = new int[RECORDS_PER_WINDOW];
+        long operations = 0;
+        long failedAllocations = 0;
+        long skippedFrees = 0;
+        long elapsed = 0;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES || (fileSize - HEADER_BYTES) % RECORD_BYTES != 0) {
+                throw new IllegalArgumentException("Not an allocation trace: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IllegalArgumentException("Not an allocation trace: " + path);
+            }
+
+            for (long position = HEADER_BYTES; position < fileSize; ) {
+                long windowSize = Math.min(fileSize - position, (long) RECORDS_PER_WINDOW * RECORD_BYTES);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+                int records = 0;
+                while (window.hasRemaining()) {
+                    byte opcode = window.get();
+                    int first = window.getInt();
+                    int second = window.getInt();
+                    if (opcode == ALLOCATE) {
+                        lengths[records] = first;
+                        if (second >= 0) {
+                            kinds[records] = TRACKED_ALLOCATE;
+                            slots[records] = live.allocate(second, first);
+                        } else {
+                            kinds[records] = UNTRACKED_ALLOCATE;
+                        }
+                    } else if (opcode == FREE) {
+                        lengths[records] = second;
+                        int slot = live.free(first, second);
+                        if (slot < 0) {
+                            kinds[records] = UNTRACKED_FREE;
+                        } else {
+                            kinds[records] = TRACKED_FREE;
+                            slots[records] = slot;
+                            offsets[records] = first - live.recordedAddresses[slot];
+                        }
+                    } else {
+                        throw new IllegalArgumentException("Unknown record in allocation trace: " + opcode);
+                    }
+                    records++;
+                }
+
+                int[] replayedAddresses = live.replayedAddresses;
+                long start = System.nanoTime();
+                for (int i = 0; i < records; i++) {
+                    byte kind = kinds[i];
+                    if (kind == TRACKED_ALLOCATE || kind == UNTRACKED_ALLOCATE) {
+                        int replayed;
+                        try {
+                            replayed = allocator.allocate(lengths[i]);
+                        } catch (NoSuchElementException e) {
+                            failedAllocations++;
+                            replayed = -1;
+                        }
+                        if (kind == TRACKED_ALLOCATE) {
+                            replayedAddresses[slots[i]] = replayed;
+                        } else if (replayed >= 0) {
+                            // The recording never used this memory, so return it to keep the allocators in step
+                            allocator.free(replayed, lengths[i]);
+                        }
+                    } else {
+                        int replayed = kind == TRACKED_FREE ? replayedAddresses[slots[i]] : -1;
+                        if (replayed < 0) {
+                            skippedFrees++;
+                        } else {
+                            allocator.free(replayed + offsets[i], lengths[i]);
+                        }
+                    }
+                }
+                elapsed += System.nanoTime() - start;
+                operations += records;
+                position += windowSize;
+            }
+        }
+        return new Result(operations, failedAllocations, skippedFrees, elapsed, fragmentation(allocator));
+    }
+
+    /**
+     * The ranges of recorded allocations that are still live, by recorded address, used to resolve each free in a
+     * trace to the allocation it belongs to.  Each allocation is given a slot in the arrays below, which is recycled
+     * once none of its memory remains live, since no later free can then resolve to it.  Resolution depends only on
+     * recorded addresses, so it happens outside the timed part of a replay.
+     */
+    private static final class LiveRanges {
+        /** Live ranges by recorded starting address, each packed as (slot, length).  Ranges never overlap. */
+        private final TreeMap<Integer, Long> ranges = new TreeMap<>();
+        /** The replayed address of the allocation in each slot, written during the timed part of a replay. */
+        int[] replayedAddresses = new int[16];
+        /** The recorded address of the allocation in each slot. */
+        int[] recordedAddresses = new int[16];
+        /** The number of live ranges of the allocation in each slot. */
+        private int[] rangeCounts = new int[16];
+        /** Slots whose allocations have no live ranges left, reused before new slots are taken. */
+        private int[] freeSlots = new int[16];
+        private int freeSlotCount;
+        private int slotCount;
+
+        /**
+         * Record an allocation, forgetting any live ranges of earlier allocations that its memory overlaps, since the
+         * recorded allocator must have freed that memory in the meantime.
+         *
+         * @param recordedAddress The recorded starting address of the allocation.
+         * @param length          The length of the allocation.
+         * @return The slot assigned to the allocation.
+         */
+        int allocate(int recordedAddress, int length) {
+            remove(recordedAddress, recordedAddress + length);
+            int slot = this.freeSlotCount > 0 ? this.freeSlots[--this.freeSlotCount] : this.slotCount++;
+            if (this.slotCount > this.replayedAddresses.length) {
+                this.replayedAddresses = Arrays.copyOf(this.replayedAddresses, 2 * this.slotCount);
+                this.recordedAddresses = Arrays.copyOf(this.recordedAddresses, 2 * this.slotCount);
+                this.rangeCounts = Arrays.copyOf(this.rangeCounts, 2 * this.slotCount);
+            }
+            this.recordedAddresses[slot] = recordedAddress;
+            this.rangeCounts[slot] = 0;
+            add(recordedAddress, recordedAddress + length, slot);
+            return slot;
+        }
+
+        /**
+         * Record a free, removing the freed memory from the live range containing it.
+         *
+         * @param recordedAddress The recorded starting address of the freed memory.
+         * @param length          The length of the freed memory.
+         * @return The slot of the allocation containing the freed memory, or -1 if no single live range contains it.
+         */
+        int free(int recordedAddress, int length) {
+            Map.Entry<Integer, Long> range = this.ranges.floorEntry(recordedAddress);
+            if (range == null || range.getKey() + (int) (long) range.getValue() < recordedAddress + length) {
+                return -1;
+            }
+            int slot = (int) (range.getValue() >> Integer.SIZE);
+            remove(recordedAddress, recordedAddress + length);
+            return slot;
+        }
+
+        /**
+         * Remove an interval of addresses from every live range, splitting any range that extends beyond it.
+         *
+         * @param start The first address to remove.
+         * @param end   The address following the last address to remove.
+         */
+        private void remove(int start, int end) {
+            Map.Entry<Integer, Long> range = this.ranges.lowerEntry(end);
+            while (range != null && range.getKey() + (int) (long) range.getValue() > start) {
+                int rangeStart = range.getKey();
+                int rangeEnd = rangeStart + (int) (long) range.getValue();
+                int slot = (int) (range.getValue() >> Integer.SIZE);
+                this.ranges.remove(rangeStart);
+                this.rangeCounts[slot]--;
+                if (rangeStart < start) {
+                    add(rangeStart, start, slot);
+                }
+                if (rangeEnd > end) {
+                    add(end, rangeEnd, slot);
+                }
+                if (this.rangeCounts[slot] == 0) {
+                    if (this.freeSlotCount == this.freeSlots.length) {
+                        this.freeSlots = Arrays.copyOf(this.freeSlots, 2 * this.freeSlotCount);
+                    }
+                    this.freeSlots[this.freeSlotCount++] = slot;
+                }
+                range = this.ranges.lowerEntry(rangeStart);
+            }
+        }
+
+        /**
+         * Add a live range of the allocation in a slot.
+         *
+         * @param start The first address of the range.
+         * @param end   The address following the last address of the range.
+         * @param slot  The slot of the allocation to which the range belongs.
+         */
+        private void add(int start, int end, int slot) {
+            this.ranges.put(start, (long) slot << Integer.SIZE | (end - start));
+            this.rangeCounts[slot]++;
+        }
+    }
+
+    /**
+     * Compute the fragmentation of an allocator from its free-space queries.
+     *
+     * @param allocator The allocator to examine.
+     * @return 1 minus the ratio of the largest free block to the total free bytes, or 0 if no bytes are free.
+     */
+    static double fragmentation(Allocator allocator) {
+        int freeBytes = allocator.freeBytes();
+        return freeBytes == 0 ? 0.0 : 1.0 - (double) allocator.largestFreeBlock() / freeBytes;
+    }
+
+    /**
+     * Replay a trace file against every allocator in <code>FreeListBenchmark</code>, printing a table of results.
+     *
+     * @param args The path of the trace file and the size of the address space to give each allocator.
+     * @throws IOException If the trace file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: AllocationTrace <trace file> <address space bytes>");
+            return;
+        }
+        Path path = Path.of(args[0]);
+        int numBytes = Integer.parseInt(args[1]);
+
+        System.out.printf("%-20s %s%n", "Allocator", "Result");
+        for (FreeListBenchmark.Subject subject : FreeListBenchmark.Subject.values()) {
+            // Warm up the allocator on the same trace before the measured run
+            replay(path, subject.factory.apply(numBytes));
+            System.out.printf("%-20s %s%n", subject.label, replay(path, subject.factory.apply(numBytes)));
+        }
+    }
+
+
+    @DisplayName("Allocation trace tests")
+    @Tag("FreeListSolution")
+    public static class AllocationTraceTest {
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @TempDir
+        Path directory;
+
+        /**
+         * Record a random workload against the specified allocator.
+         *
+         * @param allocator The allocator to record.
+         * @param path      The trace file to write.
+         * @return The number of records written.
+         */
+        private static int recordWorkload(Allocator allocator, Path path) throws IOException {
+            Random random = new Random(314);
+            int[] starts = new int[16];
+            int[] lengths = new int[16];
+            int records = 0;
+            try (Recorder recorder = new Recorder(allocator, path)) {
+                for (int i = 0; i < 500; i++) {
+                    int slot = random.nextInt(starts.length);
+                    if (lengths[slot] == 0) {
+                        lengths[slot] = 1 + random.nextInt(96);
+                        try {
+                            starts[slot] = recorder.allocate(lengths[slot]);
+                        } catch (NoSuchElementException e) {
+                            lengths[slot] = 0;
+                        }
+                    } else {
+                        // Free the tail of the block first, then the rest, to exercise partial frees
+                        int half = lengths[slot] / 2;
+                        if (half > 0) {
+                            recorder.free(starts[slot] + half, lengths[slot] - half);
+                            records++;
+                        }
+                        recorder.free(starts[slot], half > 0 ? half : lengths[slot]);
+                        lengths[slot] = 0;
+                    }
+                    records++;
+                }
+            }
+            return records;
+        }
+
+        @Test
+        @DisplayName("Replay reproduces the recorded free list")
+        void replaySameAllocator() throws IOException {
+            Path path = directory.resolve("trace.bin");
+            FreeList recorded = new FreeList(MEMORY_SIZE);
+            int records = recordWorkload(recorded, path);
+            assertEquals(HEADER_BYTES + (long) records * RECORD_BYTES, Files.size(path));
+
+            FreeList replayed = new FreeList(MEMORY_SIZE);
+            Result result = replay(path, replayed);
+            assertEquals(records, result.getOperations());
+            assertEquals(0, result.getSkippedFrees());
+            assertEquals(recorded.toString(), replayed.toString());
+            assertEquals(recorded.stats().getFragmentation(), result.getFragmentation(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Replay translates addresses for other allocators")
+        void replayOtherAllocator() throws IOException {
+            Path path = directory.resolve("trace.bin");
+            FreeList recorded = new FreeList(MEMORY_SIZE, FreeList.AllocationPolicy.BEST_FIT);
+            int records = recordWorkload(recorded, path);
+
+            BuddyAllocator replayed = new BuddyAllocator(MEMORY_SIZE);
+            Result result = replay(path, replayed);
+            assertEquals(records, result.getOperations());
+            assertTrue(result.getFragmentation() >= 0.0 && result.getFragmentation() < 1.0);
+        }
+
+        @Test
+        @DisplayName("Replay tracks the rest of a block whose head was freed and reallocated")
+        void replayHeadFirstFrees() throws IOException {
+            Path path = directory.resolve("trace.bin");
+            FreeList recorded = new FreeList(MEMORY_SIZE);
+            try (Recorder recorder = new Recorder(recorded, path)) {
+                assertEquals(0, recorder.allocate(50));
+                recorder.free(0, 10);
+                assertEquals(0, recorder.allocate(10));
+                recorder.free(10, 20);
+                recorder.free(40, 10);
+                recorder.free(30, 10);
+                recorder.free(0, 10);
+            }
+            assertEquals("Size: 5; Blocks: (0, 10), (10, 20), (30, 10), (40, 10), (50, 974)", recorded.toString());
+
+            // Replaying at different addresses exercises the offsets of every remaining range
+            ArrayFreeList offset = new ArrayFreeList(MEMORY_SIZE + 100);
+            offset.allocate(100);
+            Result result = replay(path, offset);
+            assertEquals(7, result.getOperations());
+            assertEquals(0, result.getSkippedFrees());
+            assertEquals("Size: 5; Blocks: (100, 10), (110, 20), (130, 10), (140, 10), (150, 974)", offset.toString());
+
+            FreeList replayed = new FreeList(MEMORY_SIZE);
+            result = replay(path, replayed);
+            assertEquals(0, result.getSkippedFrees());
+            assertEquals(recorded.toString(), replayed.toString());
+        }
+
+        @Test
+        @DisplayName("Failed allocations are recorded and replayed")
+        void failedAllocation() throws IOException {
+            Path path = directory.resolve("trace.bin");
+            try (Recorder recorder = new Recorder(new FreeList(MEMORY_SIZE), path)) {
+                recorder.allocate(MEMORY_SIZE);
+                assertThrows(NoSuchElementException.class, () -> recorder.allocate(1));
+                assertThrows(IllegalArgumentException.class, () -> recorder.free(MEMORY_SIZE, 1));
+                recorder.free(0, 10);
+            }
+            assertEquals(HEADER_BYTES + 3 * RECORD_BYTES, Files.size(path));
+
+            // With more memory, the allocation that failed in the recording succeeds and is returned immediately
+            FreeList replayed = new FreeList(2 * MEMORY_SIZE);
+            Result result = replay(path, replayed);
+            assertEquals(3, result.getOperations());
+            assertEquals(0, result.getFailedAllocations());
+            assertEquals("Size: 3; Blocks: (0, 10), (1024, 1), (1025, 1023)", replayed.toString());
+
+            // With less, the first allocation fails and its free is skipped
+            replayed = new FreeList(MEMORY_SIZE / 2);
+            result = replay(path, replayed);
+            assertEquals(1, result.getFailedAllocations());
+            assertEquals(1, result.getSkippedFrees());
+            assertEquals("Size: 2; Blocks: (0, 1), (1, 511)", replayed.toString());
+        }
+
+        @Test
+        @DisplayName("Replay rejects files that are not traces")
+        void invalidTrace() throws IOException {
+            Path path = directory.resolve("trace.bin");
+            Files.write(path, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+            assertThrows(IllegalArgumentException.class, () -> replay(path, new FreeList(MEMORY_SIZE)));
+            Files.write(path, new byte[] {1, 2, 3});
+            assertThrows(IllegalArgumentException.class, () -> replay(path, new FreeList(MEMORY_SIZE)));
+        }
+
+        @Test
+        @DisplayName("Fragmentation is computed from the free-space queries")
+        void fragmentation() {
+            FreeList list = new FreeList(MEMORY_SIZE);
+            assertEquals(0.0, AllocationTrace.fragmentation(list));
+            list.allocate(MEMORY_SIZE);
+            assertEquals(0.0, AllocationTrace.fragmentation(list));
+            list.free(0, 100);
+            list.free(200, 300);
+            assertEquals(0.25, AllocationTrace.fragmentation(list), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Free-space queries agree with the string representation")
+        void freeSpaceQueries() {
+            Allocator[] allocators = {new FreeList(MEMORY_SIZE), new ArrayFreeList(MEMORY_SIZE),
+                    new ExtentTreeFreeList(MEMORY_SIZE), new BuddyAllocator(MEMORY_SIZE),
+                    new ConcurrentFreeList(MEMORY_SIZE, 2)};
+            for (Allocator allocator : allocators) {
+                int first = allocator.allocate(256);
+                allocator.allocate(256);
+                int third = allocator.allocate(128);
+                allocator.free(first, 256);
+                allocator.free(third, 128);
+
+                String name = allocator.getClass().getSimpleName();
+                StringBuilder blocks = new StringBuilder();
+                int[] largest = {0};
+                allocator.forEachFreeBlock((startAddress, numBytes) -> {
+                    blocks.append(blocks.length() == 0 ? "" : ", ").append("(" + startAddress + ", " + numBytes + ")");
+                    largest[0] = Math.max(largest[0], numBytes);
+                });
+                String description = allocator.toString();
+                assertEquals(description.substring(description.indexOf("Blocks: ") + 8), blocks.toString(), name);
+                assertEquals(MEMORY_SIZE - 256, allocator.freeBytes(), name);
+                assertEquals(largest[0], allocator.largestFreeBlock(), name);
+                assertTrue(largest[0] >= 256, name);
+            }
+        }
+    }
+}
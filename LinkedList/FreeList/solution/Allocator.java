@@ -0,0 +1,91 @@
+/* FREE LIST ALLOCATOR CONTRACT
+ * Written: 18 October 2026
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A manager for a contiguous address space beginning at address 0, from which blocks of memory may be allocated and
+ * to which they may later be freed.  Implementations report their free blocks through
+ * <code>forEachFreeBlock()</code>, and describe them in <code>toString()</code> using the format of
+ * <code>FreeList</code>: <code>Size: 2; Blocks: (0, 256), (768, 256)</code>.
+ *
+ * @see FreeList
+ */
+public interface Allocator {
+    /**
+     * Allocate the specified number of bytes of memory, removing them from the free space.
+     *
+     * @param numBytes The number of bytes to allocate.
+     * @return The starting address of the allocated block.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     * @throws NoSuchElementException   If there is not enough free space to allocate the requested memory.
+     */
+    int allocate(int numBytes);
+
+    /**
+     * Free the specified number of bytes of memory beginning at the specified starting address, returning them to the
+     * free space.  Already free regions of memory may not be freed.
+     *
+     * @param startAddress The address at which to begin freeing memory.
+     * @param numBytes     The number of bytes after the starting address to free.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0, the range lies outside the address space, or
+     *                                  the memory requested to be freed is already free.
+     */
+    void free(int startAddress, int numBytes);
+
+    /**
+     * Pass every free block of this allocator to a visitor, in order of increasing starting address.  Adjacent free
+     * blocks are reported separately if the implementation keeps them separate.  The visitor may not call back into
+     * this allocator.
+     *
+     * @param visitor The visitor to which to pass each free block.
+     */
+    void forEachFreeBlock(BlockVisitor visitor);
+
+    /**
+     * @return The total number of free bytes in this allocator.
+     */
+    default int freeBytes() {
+        int[] total = {0};
+        forEachFreeBlock((startAddress, numBytes) -> total[0] += numBytes);
+        return total[0];
+    }
+
+    /**
+     * @return The length of the largest free block in this allocator, or 0 if no bytes are free.
+     */
+    default int largestFreeBlock() {
+        int[] largest = {0};
+        forEachFreeBlock((startAddress, numBytes) -> largest[0] = Math.max(largest[0], numBytes));
+        return largest[0];
+    }
+
+    /**
+     * A receiver of the free blocks of an allocator.
+     */
+    @FunctionalInterface
+    interface BlockVisitor {
+        /**
+         * Receive a single free block.
+         *
+         * @param startAddress The starting address of the block.
+         * @param numBytes     The length of the block in bytes.
+         */
+        void visit(int startAddress, int numBytes);
+    }
+}
@@ -0,0 +1,618 @@
+/* THREAD-LOCAL ARENAS
+ * Written: 18 October 2026
+ *
+ * An allocator that gives each thread a private arena of chunks obtained from a shared parent allocator, in the style
+ * of jemalloc and tcmalloc.  A chunk is a fixed-size block allocated from the parent and managed by a FreeList owned by
+ * a single thread, so small allocations and frees by that thread never contend for a lock: a chunk's monitor is only
+ * ever taken by its owner and by a thread listing the free blocks of the whole allocator.  The parent, which may be any
+ * Allocator, is only locked when an arena needs a new chunk, returns an empty one, or serves a request too large for a
+ * chunk.  Chunks go back to the parent whole, once every block allocated from them has been freed, so the
+ * parent sees one free per chunk rather than one per block.
+ *
+ * Memory freed by a thread other than the one that allocated it is queued on the owning arena and returned to its
+ * chunk the next time the owner allocates or frees.  Such frees are checked against the chunk before they are queued,
+ * so a free of already-free memory is reported to the thread that made it; one that only fails when applied, such as
+ * a second free of a block whose first free is still queued, is reported by the owner's operation once every other
+ * queued free has been applied.  Threads should call trim() before terminating, as the chunks of a terminated thread
+ * are never returned.
+ *
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ArenaAllocator implements Allocator {
+    /** The shared allocator from which chunks are obtained.  Guarded by its own monitor. */
+    private final Allocator parent;
+    /** The number of bytes in each chunk. */
+    private final int chunkBytes;
+    /** Every chunk currently held by an arena, by starting address. */
+    private final ConcurrentSkipListMap<Integer, Chunk> chunks = new ConcurrentSkipListMap<>();
+    /** Per-thread arenas. */
+    private final ThreadLocal<Arena> arenas = ThreadLocal.withInitial(Arena::new);
+
+    /**
+     * ArenaAllocator constructor.  No chunks are obtained from the parent until a thread first allocates memory.
+     *
+     * @param parent     The shared allocator from which to obtain chunks.  All calls to it are made while holding its
+     *                   monitor, so it need not be thread-safe, but other users of it must lock it likewise.
+     * @param chunkBytes The number of bytes in each chunk.  Requests of more than half this size are served by the
+     *                   parent directly.
+     * @throws IllegalArgumentException If <code>parent</code> is <code>null</code> or <code>chunkBytes</code> &le; 1.
+     */
+    public ArenaAllocator(Allocator parent, int chunkBytes) {
+        if (parent == null) {
+            throw new IllegalArgumentException("ArenaAllocator must have a parent allocator");
+        }
+        if (chunkBytes <= 1) {
+            throw new IllegalArgumentException("Chunks must span at least two bytes");
+        }
+        this.parent = parent;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /**
+     * Allocate the specified number of bytes of memory.  Small requests are served from the calling thread's chunks,
+     * obtaining a new chunk from the parent if none has room; larger requests are passed to the parent.
+     *
+     * @param numBytes The number of bytes to allocate.
+     * @return The starting address of the allocated block.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     * @throws NoSuchElementException   If there is not enough free space to allocate the requested memory.
+     */
+    @Override
+    public int allocate(int numBytes) {
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must allocate at least one byte of memory");
+        }
+        if (numBytes > this.chunkBytes / 2) {
+            synchronized (this.parent) {
+                return this.parent.allocate(numBytes);
+            }
+        }
+
+        Arena arena = this.arenas.get();
+        arena.drainRemoteFrees();
+        // Try the chunk that served the last allocation first, then any other with enough free bytes
+        if (arena.current != null && arena.current.fits(numBytes)) {
+            try {
+                return arena.current.allocate(numBytes);
+            } catch (NoSuchElementException e) {
+                // Too fragmented, fall through to the other chunks
+            }
+        }
+        for (Chunk chunk : arena.chunks) {
+            if (chunk != arena.current && chunk.fits(numBytes)) {
+                try {
+                    int start = chunk.allocate(numBytes);
+                    arena.current = chunk;
+                    return start;
+                } catch (NoSuchElementException e) {
+                    // Too fragmented, try the next chunk
+                }
+            }
+        }
+
+        int base;
+        synchronized (this.parent) {
+            base = this.parent.allocate(this.chunkBytes);
+        }
+        Chunk chunk = new Chunk(arena, base);
+        arena.chunks.add(chunk);
+        arena.current = chunk;
+        this.chunks.put(base, chunk);
+        return chunk.allocate(numBytes);
+    }
+
+    /**
+     * Free the specified number of bytes of memory beginning at the specified starting address.  Memory allocated from
+     * a chunk of the calling thread is returned to it immediately, and the chunk itself is returned to the parent if
+     * it becomes entirely free and is not the thread's only chunk; memory from another thread's chunk is queued for
+     * that thread.  Memory allocated by the parent directly is freed to the parent.
+     *
+     * @param startAddress The address at which to begin freeing memory.
+     * @param numBytes     The number of bytes after the starting address to free.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0, the range spans more than one chunk or both a
+     *                                  chunk and memory outside it, any of the memory in a chunk is already free, or
+     *                                  the parent rejects the free.
+     */
+    @Override
+    public void free(int startAddress, int numBytes) {
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must free a positive number of bytes");
+        }
+
+        Arena arena = this.arenas.get();
+        arena.drainRemoteFrees();
+        Map.Entry<Integer, Chunk> floor = this.chunks.floorEntry(startAddress);
+        Chunk chunk = floor == null || startAddress - floor.getKey() >= this.chunkBytes ? null : floor.getValue();
+        if (chunk == null) {
+            Integer nextChunk = this.chunks.higherKey(startAddress);
+            if (nextChunk != null && nextChunk - startAddress < numBytes) {
+                throw new IllegalArgumentException("Cannot free memory spanning more than one chunk");
+            }
+            synchronized (this.parent) {
+                this.parent.free(startAddress, numBytes);
+            }
+        } else if (startAddress - chunk.base > this.chunkBytes - numBytes) {
+            throw new IllegalArgumentException("Cannot free memory spanning more than one chunk");
+        } else if (chunk.owner == arena) {
+            arena.free(chunk, startAddress, numBytes);
+        } else {
+            // Validate against the chunk now, so that the owner is not left to report another thread's mistake
+            synchronized (chunk) {
+                if (!chunk.released && chunk.list.overlapsFree(startAddress, numBytes)) {
+                    throw new IllegalArgumentException("Cannot free memory that is already free");
+                }
+            }
+            chunk.owner.remoteFrees.getAndUpdate(head -> new RemoteFree(startAddress, numBytes, head));
+        }
+    }
+
+    /**
+     * Return every entirely free chunk of the calling thread's arena to the parent, including its last one.
+     */
+    public void trim() {
+        Arena arena = this.arenas.get();
+        arena.drainRemoteFrees();
+        for (int i = arena.chunks.size() - 1; i >= 0; i--) {
+            Chunk chunk = arena.chunks.get(i);
+            if (chunk.liveBytes == 0) {
+                arena.release(chunk);
+            }
+        }
+    }
+
+    /**
+     * Pass the free blocks of the parent and of every chunk to a visitor, excluding frees queued for another thread.
+     * The parent and each chunk are locked while their blocks are collected, so no list is read while it is being
+     * changed, but the blocks only form a consistent snapshot while no other thread is using this allocator.
+     *
+     * @param visitor The visitor to which to pass each free block.
+     */
+    @Override
+    public void forEachFreeBlock(BlockVisitor visitor) {
+        // Blocks packed as (starting address, length), which sort by address since addresses are non-negative
+        long[][] blocks = {new long[16]};
+        int[] count = {0};
+        BlockVisitor collector = (startAddress, numBytes) -> {
+            if (count[0] == blocks[0].length) {
+                blocks[0] = Arrays.copyOf(blocks[0], 2 * count[0]);
+            }
+            blocks[0][count[0]++] = (long) startAddress << Integer.SIZE | numBytes;
+        };
+        synchronized (this.parent) {
+            this.parent.forEachFreeBlock(collector);
+        }
+        for (Chunk chunk : this.chunks.values()) {
+            synchronized (chunk) {
+                if (!chunk.released) {
+                    chunk.list.forEachFreeBlock(collector);
+                }
+            }
+        }
+
+        Arrays.sort(blocks[0], 0, count[0]);
+        for (int i = 0; i < count[0]; i++) {
+            visitor.visit((int) (blocks[0][i] >> Integer.SIZE), (int) blocks[0][i]);
+        }
+    }
+
+    /**
+     * @return A string representation of the free blocks in the parent and in every chunk, as listed by
+     *         <code>forEachFreeBlock()</code>.
+     */
+    public String toString() {
+        StringBuilder blocks = new StringBuilder();
+        int[] size = {0};
+        forEachFreeBlock((startAddress, numBytes) -> {
+            blocks.append(size[0]++ == 0 ? "" : ", ").append(String.format("(%d, %d)", startAddress, numBytes));
+        });
+        return "Size: " + size[0] + "; Blocks: " + (size[0] == 0 ? "none" : blocks);
+    }
+
+    /**
+     * A block of memory obtained from the parent, from which a single thread allocates.  Its list is only changed by
+     * the owning thread, which holds the chunk's monitor while doing so in order that other threads may list its free
+     * blocks.
+     */
+    private class Chunk {
+        /** The arena of the thread that allocates from this chunk. */
+        final Arena owner;
+        /** The address at which this chunk begins. */
+        final int base;
+        /**
+         * Bookkeeping for the free regions of this chunk.  Uses the parent's addresses directly, so every address
+         * before <code>base</code> is allocated away when the chunk is created.
+         */
+        final FreeList list;
+        /** The number of bytes of this chunk currently allocated. */
+        int liveBytes;
+        /** Whether this chunk has been returned to the parent, after which its list no longer describes free memory. */
+        boolean released;
+
+        Chunk(Arena owner, int base) {
+            this.owner = owner;
+            this.base = base;
+            this.list = new FreeList(base + chunkBytes);
+            if (base > 0) {
+                this.list.allocate(base);
+            }
+            // Coalesce eagerly so that a chunk whose blocks have all been freed is again a single block
+            this.list.setCoalesceOnFree(true);
+        }
+
+        /**
+         * @param numBytes A number of bytes to allocate.
+         * @return Whether this chunk has at least that many free bytes, though possibly not contiguously.
+         */
+        boolean fits(int numBytes) {
+            return chunkBytes - this.liveBytes >= numBytes;
+        }
+
+        /**
+         * @param numBytes The number of bytes to allocate.
+         * @return The starting address of the allocated block.
+         * @throws NoSuchElementException If this chunk has no free block large enough.
+         */
+        synchronized int allocate(int numBytes) {
+            int start = this.list.allocate(numBytes);
+            this.liveBytes += numBytes;
+            return start;
+        }
+
+        /**
+         * @param startAddress The address at which to begin freeing memory.
+         * @param numBytes     The number of bytes to free.
+         * @throws IllegalArgumentException If the memory requested to be freed is already free.
+         */
+        synchronized void free(int startAddress, int numBytes) {
+            this.list.free(startAddress, numBytes);
+            this.liveBytes -= numBytes;
+        }
+    }
+
+    /**
+     * A thread's private set of chunks.  Only ever accessed by its owning thread, except for the queue of frees made
+     * by other threads.
+     */
+    private class Arena {
+        /** The chunks of this arena, in the order they were obtained. */
+        final ArrayList<Chunk> chunks = new ArrayList<>();
+        /** The chunk that served the most recent allocation, or <code>null</code> if there is none. */
+        Chunk current;
+        /** Frees made by other threads of memory from this arena, most recent first. */
+        final AtomicReference<RemoteFree> remoteFrees = new AtomicReference<>();
+
+        /**
+         * Return memory to one of this arena's chunks, returning the chunk to the parent if it becomes empty.
+         *
+         * @param chunk        The chunk containing the memory.  Must belong to this arena.
+         * @param startAddress The address at which to begin freeing memory.
+         * @param numBytes     The number of bytes to free.
+         * @throws IllegalArgumentException If the memory requested to be freed is already free.
+         */
+        void free(Chunk chunk, int startAddress, int numBytes) {
+            chunk.free(startAddress, numBytes);
+            if (chunk.liveBytes == 0 && this.chunks.size() > 1) {
+                release(chunk);
+            }
+        }
+
+        /**
+         * Apply every free queued by other threads.  A queued free that fails does not prevent the remainder from being
+         * applied; the failures are reported together once the queue is empty.
+         *
+         * @throws IllegalArgumentException If any queued free was of memory that is already free, with any further
+         *                                  failures attached as suppressed exceptions.
+         */
+        void drainRemoteFrees() {
+            if (this.remoteFrees.get() == null) {
+                return;
+            }
+            IllegalArgumentException failure = null;
+            for (RemoteFree free = this.remoteFrees.getAndSet(null); free != null; free = free.next) {
+                try {
+                    Map.Entry<Integer, Chunk> floor = ArenaAllocator.this.chunks.floorEntry(free.startAddress);
+                    if (floor == null || floor.getValue().owner != this
+                            || free.startAddress - floor.getKey() >= chunkBytes) {
+                        // The chunk has since been returned to the parent, so all of it was already free
+                        throw new IllegalArgumentException("Cannot free memory that is already free");
+                    }
+                    free(floor.getValue(), free.startAddress, free.numBytes);
+                } catch (IllegalArgumentException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        /**
+         * Return an entirely free chunk to the parent.
+         *
+         * @param chunk The chunk to return.  Must belong to this arena.
+         */
+        void release(Chunk chunk) {
+            this.chunks.remove(chunk);
+            if (this.current == chunk) {
+                this.current = null;
+            }
+            ArenaAllocator.this.chunks.remove(chunk.base);
+            synchronized (chunk) {
+                chunk.released = true;
+            }
+            synchronized (parent) {
+                parent.free(chunk.base, chunkBytes);
+            }
+        }
+    }
+
+    /**
+     * A free queued for the thread that owns the memory being freed.
+     */
+    private static final class RemoteFree {
+        final int startAddress;
+        final int numBytes;
+        final RemoteFree next;
+
+        RemoteFree(int startAddress, int numBytes, RemoteFree next) {
+            this.startAddress = startAddress;
+            this.numBytes = numBytes;
+            this.next = next;
+        }
+    }
+
+
+    @DisplayName("ArenaAllocator tests")
+    @Tag("FreeListSolution")
+    public static class ArenaAllocatorTest {
+        /** Each parent list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @Test
+        @DisplayName("Constructor preconditions")
+        void constructorPrecondition() {
+            assertThrows(IllegalArgumentException.class, () -> new ArenaAllocator(null, 256));
+            assertThrows(IllegalArgumentException.class, () -> new ArenaAllocator(new FreeList(MEMORY_SIZE), 1));
+        }
+
+        @Test
+        @DisplayName("Allocations are carved from a chunk of the parent")
+        void allocateFromChunk() {
+            FreeList parent = new FreeList(MEMORY_SIZE);
+            ArenaAllocator arena = new ArenaAllocator(parent, 256);
+            assertEquals(0, arena.allocate(10));
+            assertEquals(10, arena.allocate(20));
+            assertEquals("Size: 1; Blocks: (256, 768)", parent.toString());
+            assertEquals("Size: 2; Blocks: (30, 226), (256, 768)", arena.toString());
+            assertThrows(IllegalArgumentException.class, () -> arena.allocate(0));
+        }
+
+        @Test
+        @DisplayName("Empty chunks are returned to the parent whole")
+        void returnChunk() {
+            FreeList parent = new FreeList(MEMORY_SIZE);
+            ArenaAllocator arena = new ArenaAllocator(parent, 256);
+            int a = arena.allocate(100);
+            int b = arena.allocate(100);
+            int c = arena.allocate(100);
+            assertEquals(256, c);
+            assertEquals("Size: 1; Blocks: (512, 512)", parent.toString());
+
+            // Freeing the second chunk a piece at a time returns it once it is empty
+            arena.free(c, 50);
+            arena.free(c + 50, 50);
+            assertEquals("Size: 2; Blocks: (256, 256), (512, 512)", parent.toString());
+
+            // The last chunk is kept until trimmed
+            arena.free(a, 100);
+            arena.free(b, 100);
+            assertEquals("Size: 2; Blocks: (256, 256), (512, 512)", parent.toString());
+            arena.trim();
+            assertEquals("Size: 3; Blocks: (0, 256), (256, 256), (512, 512)", parent.toString());
+        }
+
+        @Test
+        @DisplayName("Large requests go to the parent")
+        void largeRequests() {
+            FreeList parent = new FreeList(MEMORY_SIZE);
+            ArenaAllocator arena = new ArenaAllocator(parent, 256);
+            assertEquals(0, arena.allocate(129));
+            assertEquals(129, arena.allocate(1));
+            assertEquals("Size: 1; Blocks: (385, 639)", parent.toString());
+            arena.free(0, 129);
+            assertEquals("Size: 2; Blocks: (0, 129), (385, 639)", parent.toString());
+            assertThrows(NoSuchElementException.class, () -> arena.allocate(700));
+        }
+
+        @Test
+        @DisplayName("Frees may not span chunks")
+        void freeAcrossChunks() {
+            FreeList parent = new FreeList(MEMORY_SIZE);
+            ArenaAllocator arena = new ArenaAllocator(parent, 256);
+            parent.allocate(100);
+            arena.allocate(10);
+            assertThrows(IllegalArgumentException.class, () -> arena.free(90, 20));
+            assertThrows(IllegalArgumentException.class, () -> arena.free(300, 100));
+            assertThrows(IllegalArgumentException.class, () -> arena.free(200, 10));
+        }
+
+        @Test
+        @DisplayName("Frees from other threads are queued for the owner")
+        void remoteFree() throws InterruptedException {
+            FreeList parent = new FreeList(MEMORY_SIZE);
+            ArenaAllocator arena = new ArenaAllocator(parent, 256);
+            int a = arena.allocate(100);
+            arena.allocate(100);
+
+            Thread other = new Thread(() -> arena.free(a, 100));
+            other.start();
+            other.join();
+            assertEquals("Size: 2; Blocks: (200, 56), (256, 768)", arena.toString());
+
+            // The owner's next operation applies the queued free
+            assertEquals(0, arena.allocate(10));
+            assertEquals("Size: 3; Blocks: (10, 90), (200, 56), (256, 768)", arena.toString());
+        }
+
+        @Test
+        @DisplayName("Invalid remote frees do not discard valid ones")
+        void invalidRemoteFree() throws InterruptedException {
+            FreeList parent = new FreeList(MEMORY_SIZE);
+            ArenaAllocator arena = new ArenaAllocator(parent, 256);
+            int a = arena.allocate(100);
+            int b = arena.allocate(100);
+
+            // Freeing memory that is already free is rejected in the freeing thread
+            AtomicReference<Throwable> rejected = new AtomicReference<>();
+            Thread other = new Thread(() -> {
+                try {
+                    arena.free(b + 50, 100);
+                } catch (IllegalArgumentException e) {
+                    rejected.set(e);
+                }
+                arena.free(a, 100);
+                arena.free(b, 100);
+                arena.free(b, 100);
+            });
+            other.start();
+            other.join();
+            assertNotNull(rejected.get());
+
+            // The second free of b only fails when applied, which happens before the free of a, but a is freed too
+            assertThrows(IllegalArgumentException.class, () -> arena.allocate(10));
+            assertEquals("Size: 2; Blocks: (0, 256), (256, 768)", arena.toString());
+            assertEquals(0, arena.allocate(10));
+        }
+
+        @Test
+        @DisplayName("Stress test: arenas of many threads over a concurrent parent")
+        void stress() throws InterruptedException {
+            final int THREADS = 8;
+            final int ITERATIONS = 20000;
+            final int STRESS_SIZE = 1 << 18;
+            ConcurrentFreeList parent = new ConcurrentFreeList(STRESS_SIZE, 4);
+            ArenaAllocator arena = new ArenaAllocator(parent, 4096);
+            // Records which thread owns each byte so that overlapping allocations can be detected
+            AtomicIntegerArray owner = new AtomicIntegerArray(STRESS_SIZE);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+
+            Thread[] threads = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                final int id = t + 1;
+                threads[t] = new Thread(() -> {
+                    try {
+                        Random random = new Random(id);
+                        int[] starts = new int[64];
+                        int[] lengths = new int[64];
+                        int held = 0;
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            if (held < starts.length && (held == 0 || random.nextBoolean())) {
+                                int length = random.nextInt(8) == 0 ? 1 + random.nextInt(4096) : 1 + random.nextInt(64);
+                                int start;
+                                try {
+                                    start = arena.allocate(length);
+                                } catch (NoSuchElementException e) {
+                                    continue;
+                                }
+                                for (int b = start; b < start + length; b++) {
+                                    if (!owner.compareAndSet(b, 0, id)) {
+                                        throw new AssertionError("Byte " + b + " allocated twice");
+                                    }
+                                }
+                                starts[held] = start;
+                                lengths[held++] = length;
+                            } else {
+                                int victim = random.nextInt(held);
+                                int start = starts[victim];
+                                int length = lengths[victim];
+                                starts[victim] = starts[--held];
+                                lengths[victim] = lengths[held];
+                                for (int b = start; b < start + length; b++) {
+                                    owner.set(b, 0);
+                                }
+                                arena.free(start, length);
+                            }
+                        }
+                        while (held > 0) {
+                            held--;
+                            for (int b = starts[held]; b < starts[held] + lengths[held]; b++) {
+                                owner.set(b, 0);
+                            }
+                            arena.free(starts[held], lengths[held]);
+                        }
+                        arena.trim();
+                        parent.flush();
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+                threads[t].start();
+            }
+
+            // List the free blocks while the arenas are in use.  Chunks may move between the parent and the arenas
+            // during the listing, so blocks may overlap, but no list may be observed mid-update.
+            Thread reader = new Thread(() -> {
+                try {
+                    while (threads[0].isAlive()) {
+                        int[] previous = {0};
+                        arena.forEachFreeBlock((startAddress, numBytes) -> {
+                            if (startAddress < previous[0] || numBytes <= 0 || startAddress + numBytes > STRESS_SIZE) {
+                                throw new AssertionError("Invalid block (" + startAddress + ", " + numBytes + ")");
+                            }
+                            previous[0] = startAddress;
+                        });
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            reader.start();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            reader.join();
+            assertNull(failure.get());
+
+            // Every chunk has been returned, so the parent must once again hold all of memory
+            assertEquals(0, arena.chunks.size());
+            assertEquals(STRESS_SIZE, parent.freeBytes());
+            assertEquals(STRESS_SIZE, arena.freeBytes());
+        }
+    }
+}
@@ -0,0 +1,437 @@
+/* BUDDY ALLOCATOR
+ * Written: 18 October 2026
+ *
+ * An alternative to FreeList for workloads dominated by power-of-two allocations.  In a BUDDY SYSTEM, every free block
+ * has a power-of-two length and begins at a multiple of that length.  Each block of length 2^k has exactly one BUDDY,
+ * the other half of the block of length 2^(k+1) containing it, whose address differs only in bit k.  Allocation takes
+ * a block from the smallest non-empty size class that fits, halving it until it is just large enough; freeing a block
+ * merges it with its buddy for as long as the buddy is also free.  Both operations therefore take time proportional to
+ * the number of size classes rather than the number of free blocks.
+ *
+ * This allocator honours the same contract as FreeList: allocate(numBytes) returns the address of exactly numBytes
+ * bytes, and any allocated range may be freed, not only whole allocations.  The unused tail of each power-of-two block
+ * is returned to the free lists immediately, and freed ranges are broken into aligned power-of-two blocks before
+ * merging.  Bookkeeping is kept per block rather than per byte: each order has a bitmap with one bit for every aligned
+ * block of that order, about two bits per byte in total, and a stack of the addresses of its free blocks.  Blocks are
+ * removed from the stacks lazily, so a stale entry is skipped when it reaches the top and discarded in bulk whenever a
+ * stack would otherwise have to grow.
+ *
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SuppressWarnings("Duplicates")
+public class BuddyAllocator implements Allocator {
+    /** Number of size classes; blocks of order <i>k</i> span 2<sup><i>k</i></sup> bytes. */
+    private static final int ORDERS = Integer.SIZE - 1;
+    /** Initial capacity of the free stack for each order. */
+    private static final int INITIAL_STACK_CAPACITY = 4;
+
+    /** For each order <i>k</i>, bit <i>i</i> is set if and only if the <i>i</i>th block of that order is free. */
+    private final BitSet[] freeBlocks = new BitSet[ORDERS];
+    /** For each order, the addresses of its free blocks, possibly interleaved with stale entries for merged blocks. */
+    private final int[][] freeStack = new int[ORDERS][];
+    /** For each order, the number of entries in use in its free stack. */
+    private final int[] stackSize = new int[ORDERS];
+    /** For each order, the number of free blocks of that order. */
+    private final int[] freeCount = new int[ORDERS];
+    /** Bit <i>k</i> is set if and only if there is a free block of order <i>k</i>. */
+    private int orderMask;
+
+    /** The number of free blocks in this allocator. */
+    private int size;
+    /** The number of bytes controlled by this allocator. */
+    private final int sizeBytes;
+
+    /**
+     * BuddyAllocator constructor.  Initialises the allocator with the largest aligned power-of-two blocks that together
+     * span the designated space; if <code>numBytes</code> is a power of two, this is a single block.
+     *
+     * @param numBytes The number of bytes of memory described by this allocator.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     */
+    public BuddyAllocator(int numBytes) {
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("FreeList must control at least one byte of memory");
+        }
+        this.sizeBytes = numBytes;
+        for (int order = 0; order < ORDERS; order++) {
+            this.freeBlocks[order] = new BitSet(numBytes >> order);
+            this.freeStack[order] = new int[INITIAL_STACK_CAPACITY];
+        }
+
+        releaseRange(0, numBytes);
+    }
+
+    /**
+     * Allocate the specified number of bytes of memory.  The request is rounded up to a power of two and satisfied
+     * from the smallest free block of at least that size, which is split in half as often as necessary; any bytes of
+     * the final block beyond <code>numBytes</code> are freed again immediately.
+     *
+     * @param numBytes The number of bytes to allocate.
+     * @return The starting address of the allocated block.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     * @throws NoSuchElementException   If there is no free block large enough to allocate the requested memory.
+     */
+    @Override
+    public int allocate(int numBytes) {
+        // Must allocate at least one byte
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must allocate at least one byte of memory");
+        }
+
+        // Find the smallest non-empty order that fits the request
+        int order = numBytes == 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(numBytes - 1);
+        int candidates = order < ORDERS ? this.orderMask & (-1 << order) : 0;
+        if (candidates == 0) {
+            throw new NoSuchElementException("Out of memory: The requested amount of memory could not be allocated");
+        }
+        int blockOrder = Integer.numberOfTrailingZeros(candidates);
+        int start = pop(blockOrder);
+
+        // Split the block until it is just large enough, freeing the upper halves
+        while (blockOrder > order) {
+            blockOrder--;
+            link(start + (1 << blockOrder), blockOrder);
+        }
+
+        releaseRange(start + numBytes, start + (1 << order));
+        return start;
+    }
+
+    /**
+     * Free the specified number of bytes of memory beginning at the specified starting address.  The range is divided
+     * into aligned power-of-two blocks, each of which is merged with its buddy for as long as the buddy is free.
+     *
+     * @param startAddress The address at which to begin freeing memory.  Must be within the address space controlled by
+     *                     this allocator.
+     * @param numBytes     The number of bytes after the starting address to free.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0, the range encapsulated by
+     *                                  <code>startAddress + numBytes</code> exceeds the allocator's address space, or
+     *                                  any of the memory requested to be freed is already free.
+     */
+    @Override
+    public void free(int startAddress, int numBytes) {
+        // Precondition checks
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must free a positive number of bytes");
+        }
+        if (startAddress < 0 || startAddress > this.sizeBytes - numBytes) {
+            throw new IllegalArgumentException("Cannot free memory outside this list's address space");
+        }
+        int end = startAddress + numBytes;
+        if (overlapsFree(startAddress, end)) {
+            throw new IllegalArgumentException("Cannot free memory that is already free");
+        }
+
+        releaseRange(startAddress, end);
+    }
+
+    /**
+     * Determine whether any free block overlaps the specified range.  For each order with free blocks, this checks the
+     * block containing <code>start</code> and then searches the bitmap for the next free block, which overlaps the
+     * range only if it begins before <code>end</code>.
+     *
+     * @param start The first address in the range.
+     * @param end   The address immediately following the range.
+     * @return Whether any address in the range is free.
+     */
+    private boolean overlapsFree(int start, int end) {
+        for (int orders = this.orderMask; orders != 0; orders &= orders - 1) {
+            int order = Integer.numberOfTrailingZeros(orders);
+            int index = this.freeBlocks[order].nextSetBit(start >> order);
+            if (index >= 0 && (long) index << order < end) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return the specified range of addresses to the free lists as the largest aligned power-of-two blocks that
+     * exactly cover it, merging each with its buddies where possible.
+     *
+     * @param start The first address in the range.
+     * @param end   The address immediately following the range.
+     */
+    private void releaseRange(int start, int end) {
+        while (start < end) {
+            int alignOrder = start == 0 ? ORDERS - 1 : Integer.numberOfTrailingZeros(start);
+            int fitOrder = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(end - start);
+            int order = Math.min(alignOrder, fitOrder);
+            releaseBlock(start, order);
+            start += 1 << order;
+        }
+    }
+
+    /**
+     * Return a single aligned block to the free lists, merging it with its buddy for as long as the buddy is free.
+     *
+     * @param start The address at which the block begins.  Must be a multiple of 2<sup><code>order</code></sup>.
+     * @param order The order of the block.
+     */
+    private void releaseBlock(int start, int order) {
+        while (order < ORDERS - 1) {
+            int buddy = start ^ (1 << order);
+            if (buddy > this.sizeBytes - (1 << order) || !this.freeBlocks[order].get(buddy >> order)) {
+                break;
+            }
+            unlink(buddy, order);
+            start = Math.min(start, buddy);
+            order++;
+        }
+        link(start, order);
+    }
+
+    /**
+     * Mark a block free and push it onto the free stack for its order.
+     *
+     * @param start The address at which the block begins.
+     * @param order The order of the block.
+     */
+    private void link(int start, int order) {
+        if (this.stackSize[order] == this.freeStack[order].length) {
+            compactStack(order);
+            // Grow only if at least half of the entries are live, so that compaction runs in amortised constant time
+            if (this.stackSize[order] > this.freeStack[order].length / 2) {
+                this.freeStack[order] = Arrays.copyOf(this.freeStack[order], this.freeStack[order].length * 2);
+            }
+        }
+        this.freeStack[order][this.stackSize[order]++] = start;
+        this.freeBlocks[order].set(start >> order);
+        this.freeCount[order]++;
+        this.orderMask |= 1 << order;
+        this.size++;
+    }
+
+    /**
+     * Mark a free block allocated.  Its entry in the free stack becomes stale and is discarded later.
+     *
+     * @param start The address at which the block begins.
+     * @param order The order of the block.
+     */
+    private void unlink(int start, int order) {
+        this.freeBlocks[order].clear(start >> order);
+        if (--this.freeCount[order] == 0) {
+            this.orderMask &= ~(1 << order);
+        }
+        this.size--;
+    }
+
+    /**
+     * Remove the most recently freed block of the specified order, discarding any stale entries above it.
+     *
+     * @param order The order of the block.  Must have at least one free block.
+     * @return The address at which the block begins.
+     */
+    private int pop(int order) {
+        int start;
+        do {
+            start = this.freeStack[order][--this.stackSize[order]];
+        } while (!this.freeBlocks[order].get(start >> order));
+        unlink(start, order);
+        return start;
+    }
+
+    /**
+     * Discard the stale and duplicate entries from the free stack for the specified order, preserving the order of the
+     * remaining entries.  A block that was merged away and later freed again at the same order has two entries; the
+     * bits of kept entries are cleared while scanning so that only the first of these survives.
+     *
+     * @param order The order whose stack should be compacted.
+     */
+    private void compactStack(int order) {
+        int[] stack = this.freeStack[order];
+        BitSet bits = this.freeBlocks[order];
+        int kept = 0;
+        for (int i = 0; i < this.stackSize[order]; i++) {
+            if (bits.get(stack[i] >> order)) {
+                bits.clear(stack[i] >> order);
+                stack[kept++] = stack[i];
+            }
+        }
+        for (int i = 0; i < kept; i++) {
+            bits.set(stack[i] >> order);
+        }
+        this.stackSize[order] = kept;
+    }
+
+    @Override
+    public void forEachFreeBlock(BlockVisitor visitor) {
+        // Gather the live entries of every stack, packing each address above its order so that they sort by address
+        long[] blocks = new long[this.size];
+        int count = 0;
+        for (int order = 0; order < ORDERS; order++) {
+            compactStack(order);
+            for (int i = 0; i < this.stackSize[order]; i++) {
+                blocks[count++] = (long) this.freeStack[order][i] << Byte.SIZE | order;
+            }
+        }
+        Arrays.sort(blocks);
+        for (long block : blocks) {
+            visitor.visit((int) (block >>> Byte.SIZE), 1 << (block & 0xFF));
+        }
+    }
+
+    /**
+     * @return A string representation of the free blocks in this allocator, in address order.
+     */
+    public String toString() {
+        StringBuilder blocks = new StringBuilder();
+        forEachFreeBlock((startAddress, numBytes) -> {
+            blocks.append(blocks.length() == 0 ? "" : ", ").append(String.format("(%d, %d)", startAddress, numBytes));
+        });
+        return "Size: " + this.size + "; Blocks: " + (this.size == 0 ? "none" : blocks);
+    }
+
+
+    @DisplayName("BuddyAllocator tests")
+    @Tag("FreeListSolution")
+    public static class BuddyAllocatorTest {
+        private BuddyAllocator list;
+        /** Each allocator under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @BeforeEach
+        void setUp() {
+            list = new BuddyAllocator(MEMORY_SIZE);
+        }
+
+        @Test
+        @DisplayName("Constructor properly initialises allocator")
+        void constructor() {
+            assertEquals(1, list.size);
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+            assertEquals("Size: 3; Blocks: (0, 512), (512, 256), (768, 32)", new BuddyAllocator(800).toString());
+        }
+
+        @Test
+        @DisplayName("Constructor precondition: numBytes > 0")
+        void constructorPrecondition() {
+            assertThrows(IllegalArgumentException.class, () -> new BuddyAllocator(0));
+        }
+
+        @Test
+        @DisplayName("Allocate all free space separate times")
+        void allFreeSpaceMany() {
+            assertEquals(0, list.allocate(512));
+            assertEquals("Size: 1; Blocks: (512, 512)", list.toString());
+            assertEquals(512, list.allocate(256));
+            assertEquals("Size: 1; Blocks: (768, 256)", list.toString());
+            assertEquals(768, list.allocate(256));
+            assertEquals("Size: 0; Blocks: none", list.toString());
+            assertThrows(NoSuchElementException.class, () -> list.allocate(1));
+        }
+
+        @Test
+        @DisplayName("Allocation splits the smallest fitting block")
+        void splitSmallest() {
+            assertEquals(0, list.allocate(64));
+            assertEquals("Size: 4; Blocks: (64, 64), (128, 128), (256, 256), (512, 512)", list.toString());
+            assertEquals(64, list.allocate(64));
+            assertEquals(128, list.allocate(100));
+            assertEquals("Size: 5; Blocks: (228, 4), (232, 8), (240, 16), (256, 256), (512, 512)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Freeing merges buddies")
+        void mergeBuddies() {
+            int a = list.allocate(128);
+            int b = list.allocate(128);
+            list.free(a, 128);
+            assertEquals("Size: 3; Blocks: (0, 128), (256, 256), (512, 512)", list.toString());
+            list.free(b, 128);
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Free small blocks in loop")
+        void freeSmallLoop() {
+            list.allocate(MEMORY_SIZE);
+            for (int i = 0; i < MEMORY_SIZE; i++) {
+                list.free(i, 1);
+            }
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Free arbitrary ranges")
+        void freeRange() {
+            list.allocate(MEMORY_SIZE);
+            list.free(100, 300);
+            assertEquals("Size: 6; Blocks: (100, 4), (104, 8), (112, 16), (128, 128), (256, 128), (384, 16)",
+                    list.toString());
+            assertThrows(NoSuchElementException.class, () -> list.allocate(256));
+            assertEquals(256, list.allocate(128));
+        }
+
+        @Test
+        @DisplayName("Cannot free already free memory")
+        void freeAlreadyFreed() {
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, 100));
+            int start = list.allocate(100);
+            assertThrows(IllegalArgumentException.class, () -> list.free(start, 101));
+            list.free(start, 100);
+            assertThrows(IllegalArgumentException.class, () -> list.free(start, 1));
+        }
+
+        @Test
+        @DisplayName("Cannot free outside address space")
+        void freeOutsideAddressSpace() {
+            list.allocate(MEMORY_SIZE);
+            assertThrows(IllegalArgumentException.class, () -> list.free(-1, 100));
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, MEMORY_SIZE + 1));
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, 0));
+        }
+
+        @Test
+        @DisplayName("Blocks beyond a non-power-of-two space never merge")
+        void nonPowerOfTwo() {
+            BuddyAllocator odd = new BuddyAllocator(768);
+            assertEquals(512, odd.allocate(256));
+            odd.free(512, 256);
+            assertEquals("Size: 2; Blocks: (0, 512), (512, 256)", odd.toString());
+            assertThrows(NoSuchElementException.class, () -> odd.allocate(768));
+        }
+
+        @Test
+        @DisplayName("Repeated splits and merges leave no stale blocks behind")
+        void repeatedSplitMerge() {
+            for (int i = 0; i < 1000; i++) {
+                int start = list.allocate(1 + i % 7);
+                list.free(start, 1 + i % 7);
+            }
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+            assertEquals(0, list.allocate(1));
+            assertEquals("Size: 10; Blocks: (1, 1), (2, 2), (4, 4), (8, 8), (16, 16), (32, 32), (64, 64), (128, 128), "
+                    + "(256, 256), (512, 512)", list.toString());
+            assertEquals(1, list.allocate(1));
+            assertEquals(512, list.allocate(512));
+            assertEquals(510, list.freeBytes());
+        }
+    }
+}
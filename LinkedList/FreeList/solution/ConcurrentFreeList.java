@@ -0,0 +1,601 @@
+/* CONCURRENT FREE LIST
+ * Written: 18 October 2026
+ *
+ * A thread-safe free list designed to scale across cores.  The address space is divided into STRIPES, each of which is
+ * an ordinary FreeList guarded by its own lock; every thread is assigned a home stripe from which it allocates first,
+ * so threads only contend when their home stripe is exhausted and they must borrow from another.  In addition, each
+ * thread keeps a small cache of recently freed blocks of common small sizes, in the style of the glibc "tcache": a
+ * small allocation that can be satisfied from the calling thread's cache completes without taking any lock.
+ *
+ * Blocks held in a thread's cache are free as far as that thread is concerned, but are not visible to other threads or
+ * to toString() until the owning thread calls flush().  Every cached block is also recorded in a list-wide index of
+ * cached ranges, so that a free overlapping a block in any thread's cache is rejected just as one overlapping a free
+ * block in a stripe is, whether or not the new block is itself cached.  Because stripes are independent, a single
+ * allocation can never span two stripes, so the largest satisfiable request is bounded by the size of a stripe.
+ *
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ConcurrentFreeList implements Allocator {
+    /** Freed blocks of at most this many bytes may be held in a thread's cache. */
+    private static final int MAX_CACHED_LENGTH = 64;
+    /** Number of blocks of each length that a thread's cache may hold. */
+    private static final int CACHE_DEPTH = 8;
+
+    /** Independently locked free lists, each covering a contiguous slice of the address space. */
+    private final FreeList[] stripes;
+    /** The number of bytes covered by every stripe but the last, which also covers any remainder. */
+    private final int stripeBytes;
+    /** The number of bytes controlled by this free list. */
+    private final int sizeBytes;
+
+    /** Source of home stripes for newly-seen threads, assigned round-robin. */
+    private final AtomicInteger nextHomeStripe = new AtomicInteger();
+    /** Per-thread caches of recently freed blocks. */
+    private final ThreadLocal<ThreadCache> caches = ThreadLocal.withInitial(ThreadCache::new);
+    /**
+     * Starting addresses and lengths of the blocks held in every thread's cache.  Entries are only added, and only
+     * removed by flushes, while holding the lock of the stripe covering the block, so a free validated under that lock
+     * sees every cached block it could overlap; a thread reusing a block from its own cache removes its entry without
+     * locking, after which the block is allocated.
+     */
+    private final ConcurrentSkipListMap<Integer, Integer> cachedBlocks = new ConcurrentSkipListMap<>();
+
+    /**
+     * ConcurrentFreeList constructor.  Initialises the list with one free block per stripe, together spanning the
+     * entire designated space.
+     *
+     * @param numBytes   The number of bytes of memory described by this list.
+     * @param numStripes The number of independently locked stripes into which to divide the address space.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0, <code>numStripes</code> &le; 0, or
+     *                                  <code>numStripes</code> &gt; <code>numBytes</code>.
+     */
+    public ConcurrentFreeList(int numBytes, int numStripes) {
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("FreeList must control at least one byte of memory");
+        }
+        if (numStripes <= 0 || numStripes > numBytes) {
+            throw new IllegalArgumentException("Stripe count must be between 1 and the number of bytes controlled");
+        }
+
+        this.sizeBytes = numBytes;
+        this.stripeBytes = numBytes / numStripes;
+        this.stripes = new FreeList[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            // Each stripe spans [start, end), so allocate away everything before its start
+            int start = i * this.stripeBytes;
+            int end = i == numStripes - 1 ? numBytes : start + this.stripeBytes;
+            this.stripes[i] = new FreeList(end, FreeList.AllocationPolicy.SEGREGATED_FIT);
+            if (start > 0) {
+                this.stripes[i].allocate(start);
+            }
+        }
+    }
+
+    /**
+     * ConcurrentFreeList constructor.  Divides the address space into one stripe per available processor.
+     *
+     * @param numBytes The number of bytes of memory described by this list.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     */
+    public ConcurrentFreeList(int numBytes) {
+        this(numBytes, Math.max(1, Math.min(numBytes, Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     * Allocate the specified number of bytes of memory.  Small requests are first served from the calling thread's
+     * cache without locking; otherwise memory is allocated from the thread's home stripe, then from each other stripe
+     * in turn.  If no stripe can satisfy the request, the calling thread's cache is flushed and the stripes are tried
+     * once more.
+     *
+     * @param numBytes The number of bytes to allocate.
+     * @return The starting address of the allocated block.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     * @throws NoSuchElementException   If no single stripe has enough free space to allocate the requested memory.
+     */
+    @Override
+    public int allocate(int numBytes) {
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must allocate at least one byte of memory");
+        }
+
+        ThreadCache cache = this.caches.get();
+        if (numBytes <= MAX_CACHED_LENGTH && cache.counts[numBytes] > 0) {
+            int start = cache.starts[numBytes][--cache.counts[numBytes]];
+            this.cachedBlocks.remove(start);
+            return start;
+        }
+
+        int start = allocateFromStripes(numBytes, cache.homeStripe);
+        if (start < 0) {
+            cache.flush();
+            start = allocateFromStripes(numBytes, cache.homeStripe);
+        }
+        if (start < 0) {
+            throw new NoSuchElementException("Out of memory: The requested amount of memory could not be allocated");
+        }
+        return start;
+    }
+
+    /**
+     * Allocate the specified number of bytes from the first stripe able to satisfy the request, beginning with the
+     * specified stripe.
+     *
+     * @param numBytes   The number of bytes to allocate.
+     * @param homeStripe The index of the stripe to try first.
+     * @return The starting address of the allocated block, or -1 if no stripe could satisfy the request.
+     */
+    private int allocateFromStripes(int numBytes, int homeStripe) {
+        for (int i = 0; i < this.stripes.length; i++) {
+            FreeList stripe = this.stripes[(homeStripe + i) % this.stripes.length];
+            synchronized (stripe) {
+                try {
+                    return stripe.allocate(numBytes);
+                } catch (NoSuchElementException e) {
+                    // Not enough space in this stripe, try the next
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Free the specified number of bytes of memory beginning at the specified starting address.  The stripes covering
+     * the range are locked in ascending order, and the whole range is checked against their free blocks and against
+     * every block cached by any thread before any of it is freed.  A small block lying within a single stripe is then
+     * placed in the calling thread's cache if it has room for it; all other blocks are returned to the stripes
+     * covering them, so a range spanning several stripes is either freed in every stripe or in none.
+     *
+     * @param startAddress The address at which to begin freeing memory.  Must be within the address space controlled by
+     *                     this free list.
+     * @param numBytes     The number of bytes after the starting address to free.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0, the range encapsulated by
+     *                                  <code>startAddress + numBytes</code> exceeds the free list's address space, or
+     *                                  the memory requested to be freed is already free or held in a thread's cache.
+     */
+    @Override
+    public void free(int startAddress, int numBytes) {
+        // Precondition checks
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must free a positive number of bytes");
+        }
+        if (startAddress < 0 || startAddress > this.sizeBytes - numBytes) {
+            throw new IllegalArgumentException("Cannot free memory outside this list's address space");
+        }
+
+        freeLocked(stripeIndex(startAddress), stripeIndex(startAddress + numBytes - 1), startAddress, numBytes);
+    }
+
+    /**
+     * Lock the stripes from the specified index to the last stripe covering a freed range, then check and free the
+     * range once every one of them is held.
+     *
+     * @param index        The index of the next stripe to lock.
+     * @param lastIndex    The index of the stripe covering the last byte of the range.
+     * @param startAddress The address at which the freed range begins.
+     * @param numBytes     The length of the freed range.
+     * @throws IllegalArgumentException If any part of the range is free in its stripe or held in a thread's cache.
+     */
+    private void freeLocked(int index, int lastIndex, int startAddress, int numBytes) {
+        synchronized (this.stripes[index]) {
+            if (index < lastIndex) {
+                freeLocked(index + 1, lastIndex, startAddress, numBytes);
+                return;
+            }
+
+            // Cached blocks are disjoint, so only the last one beginning before the end of the range can overlap it
+            int end = startAddress + numBytes;
+            Map.Entry<Integer, Integer> cached = this.cachedBlocks.lowerEntry(end);
+            if (cached != null && cached.getKey() + cached.getValue() > startAddress) {
+                throw new IllegalArgumentException("Cannot free memory that is already free");
+            }
+            for (int address = startAddress; address < end; address = stripeEnd(stripeIndex(address))) {
+                int length = Math.min(end, stripeEnd(stripeIndex(address))) - address;
+                if (this.stripes[stripeIndex(address)].overlapsFree(address, length)) {
+                    throw new IllegalArgumentException("Cannot free memory that is already free");
+                }
+            }
+
+            if (numBytes <= MAX_CACHED_LENGTH && index == stripeIndex(startAddress)
+                    && this.caches.get().offer(startAddress, numBytes)) {
+                this.cachedBlocks.put(startAddress, numBytes);
+                return;
+            }
+            for (int address = startAddress; address < end; address = stripeEnd(stripeIndex(address))) {
+                int length = Math.min(end, stripeEnd(stripeIndex(address))) - address;
+                this.stripes[stripeIndex(address)].free(address, length);
+            }
+        }
+    }
+
+    /**
+     * @param address An address within this list's address space.
+     * @return The index of the stripe covering the address.
+     */
+    private int stripeIndex(int address) {
+        return Math.min(address / this.stripeBytes, this.stripes.length - 1);
+    }
+
+    /**
+     * @param index The index of a stripe.
+     * @return The address immediately following the end of the stripe.
+     */
+    private int stripeEnd(int index) {
+        return index == this.stripes.length - 1 ? this.sizeBytes : (index + 1) * this.stripeBytes;
+    }
+
+    /**
+     * Return every block in the calling thread's cache to the stripes, making it available to other threads.  Threads
+     * should call this method before terminating, as blocks left in the cache of a terminated thread are lost.
+     */
+    public void flush() {
+        this.caches.get().flush();
+    }
+
+    /**
+     * Pass the free blocks of every stripe to a visitor, excluding any held in thread caches.  Each stripe is locked
+     * while its blocks are visited, so the result is exact within a stripe but not across stripes.
+     *
+     * @param visitor The visitor to which to pass each free block.
+     */
+    @Override
+    public void forEachFreeBlock(BlockVisitor visitor) {
+        for (FreeList stripe : this.stripes) {
+            synchronized (stripe) {
+                stripe.forEachFreeBlock(visitor);
+            }
+        }
+    }
+
+    /**
+     * @return The total number of free bytes in every stripe, excluding any held in thread caches.
+     */
+    @Override
+    public int freeBytes() {
+        int total = 0;
+        for (FreeList stripe : this.stripes) {
+            synchronized (stripe) {
+                total += stripe.freeBytes();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return The length of the largest free block in any stripe, excluding any held in thread caches.
+     */
+    @Override
+    public int largestFreeBlock() {
+        int largest = 0;
+        for (FreeList stripe : this.stripes) {
+            synchronized (stripe) {
+                largest = Math.max(largest, stripe.largestFreeBlock());
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * @return A string representation of the free blocks in every stripe, excluding any held in thread caches, as
+     *         listed by <code>forEachFreeBlock()</code>.
+     */
+    public String toString() {
+        StringBuilder blocks = new StringBuilder();
+        int[] size = {0};
+        forEachFreeBlock((startAddress, numBytes) -> {
+            blocks.append(size[0]++ == 0 ? "" : ", ").append(String.format("(%d, %d)", startAddress, numBytes));
+        });
+        return "Size: " + size[0] + "; Blocks: " + (size[0] == 0 ? "none" : blocks);
+    }
+
+    /**
+     * A thread's private cache of recently freed blocks, binned by exact length.  Only ever accessed by its owning
+     * thread, so it requires no synchronisation.
+     */
+    private class ThreadCache {
+        /** The stripe from which this thread allocates first. */
+        final int homeStripe = nextHomeStripe.getAndIncrement() % stripes.length;
+        /** Starting addresses of cached blocks, indexed by length then by position in the bin. */
+        final int[][] starts = new int[MAX_CACHED_LENGTH + 1][CACHE_DEPTH];
+        /** Number of cached blocks of each length. */
+        final int[] counts = new int[MAX_CACHED_LENGTH + 1];
+
+        /**
+         * Attempt to cache a freed block, which the caller has already checked is not free.
+         *
+         * @param startAddress The address at which the freed block begins.
+         * @param numBytes     The length of the freed block.  Must be at most <code>MAX_CACHED_LENGTH</code>.
+         * @return Whether the block was cached; if <code>false</code>, it must be freed to the stripes instead.
+         */
+        boolean offer(int startAddress, int numBytes) {
+            int count = this.counts[numBytes];
+            if (count == CACHE_DEPTH) {
+                return false;
+            }
+
+            this.starts[numBytes][count] = startAddress;
+            this.counts[numBytes]++;
+            return true;
+        }
+
+        /**
+         * Return every cached block to the stripes.
+         */
+        void flush() {
+            for (int length = 1; length <= MAX_CACHED_LENGTH; length++) {
+                while (this.counts[length] > 0) {
+                    int start = this.starts[length][--this.counts[length]];
+                    FreeList stripe = stripes[stripeIndex(start)];
+                    synchronized (stripe) {
+                        // Uncache and free atomically, so that no concurrent free can slip between the two
+                        cachedBlocks.remove(start);
+                        stripe.free(start, length);
+                    }
+                }
+            }
+        }
+    }
+
+
+    @DisplayName("ConcurrentFreeList tests")
+    @Tag("FreeListSolution")
+    public static class ConcurrentFreeListTest {
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @Test
+        @DisplayName("Constructor divides address space into stripes")
+        void constructor() {
+            ConcurrentFreeList list = new ConcurrentFreeList(MEMORY_SIZE, 3);
+            assertEquals("Size: 3; Blocks: (0, 341), (341, 341), (682, 342)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Constructor preconditions")
+        void constructorPrecondition() {
+            assertThrows(IllegalArgumentException.class, () -> new ConcurrentFreeList(0));
+            assertThrows(IllegalArgumentException.class, () -> new ConcurrentFreeList(MEMORY_SIZE, 0));
+            assertThrows(IllegalArgumentException.class, () -> new ConcurrentFreeList(4, 5));
+        }
+
+        @Test
+        @DisplayName("Allocations spill into other stripes")
+        void spillToOtherStripes() {
+            ConcurrentFreeList list = new ConcurrentFreeList(MEMORY_SIZE, 4);
+            int first = list.allocate(256);
+            int second = list.allocate(256);
+            assertEquals(256, Math.abs(first - second));
+            list.allocate(256);
+            list.allocate(256);
+            assertEquals("Size: 0; Blocks: none", list.toString());
+            assertThrows(NoSuchElementException.class, () -> list.allocate(1));
+            assertThrows(NoSuchElementException.class, () -> new ConcurrentFreeList(MEMORY_SIZE, 4).allocate(257));
+        }
+
+        @Test
+        @DisplayName("Small frees are cached until flushed")
+        void threadCache() {
+            ConcurrentFreeList list = new ConcurrentFreeList(MEMORY_SIZE, 1);
+            list.allocate(MEMORY_SIZE);
+            list.free(100, 8);
+            assertEquals("Size: 0; Blocks: none", list.toString());
+            assertThrows(IllegalArgumentException.class, () -> list.free(100, 8));
+            assertEquals(100, list.allocate(8));
+
+            list.free(100, 8);
+            list.flush();
+            assertEquals("Size: 1; Blocks: (100, 8)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Frees of free memory are rejected before caching")
+        void rejectFreeMemory() {
+            ConcurrentFreeList list = new ConcurrentFreeList(MEMORY_SIZE, 1);
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, 8));
+            assertEquals(0, list.allocate(8));
+            assertEquals(8, list.allocate(8));
+
+            // Ranges partly overlapping a free block in the stripe
+            assertThrows(IllegalArgumentException.class, () -> list.free(12, 8));
+            list.free(0, 8);
+            assertEquals("Size: 1; Blocks: (16, 1008)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Frees overlapping cached blocks are rejected")
+        void rejectCachedOverlap() throws InterruptedException {
+            ConcurrentFreeList list = new ConcurrentFreeList(MEMORY_SIZE, 1);
+            list.allocate(MEMORY_SIZE);
+            list.free(0, 8);
+            assertThrows(IllegalArgumentException.class, () -> list.free(4, 8));
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, 4));
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, 8));
+
+            // Blocks cached by another thread are also checked
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread other = new Thread(() -> failure.set(assertThrows(IllegalArgumentException.class,
+                    () -> list.free(6, 2))));
+            other.start();
+            other.join();
+            assertEquals(IllegalArgumentException.class, failure.get().getClass());
+
+            // Once reused, the block may be freed again
+            assertEquals(0, list.allocate(8));
+            list.free(4, 8);
+            assertThrows(NoSuchElementException.class, () -> list.allocate(16));
+            list.flush();
+            assertEquals("Size: 1; Blocks: (4, 8)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Uncached frees overlapping cached blocks are rejected")
+        void rejectUncachedOverlap() {
+            ConcurrentFreeList list = new ConcurrentFreeList(MEMORY_SIZE, 2);
+            list.allocate(512);
+            list.allocate(512);
+            list.free(0, 8);
+            // Too long to cache
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, 100));
+            // Spanning both stripes
+            list.free(504, 8);
+            assertThrows(IllegalArgumentException.class, () -> list.free(500, 100));
+            // Freed while the cache is full
+            for (int i = 0; i < CACHE_DEPTH; i++) {
+                list.free(16 + 2 * i, 1);
+            }
+            assertThrows(IllegalArgumentException.class, () -> list.free(16, 1));
+            assertThrows(IllegalArgumentException.class, () -> list.free(15, 2));
+
+            // The cached blocks are reused exactly once, most recently freed first
+            assertEquals(504, list.allocate(8));
+            assertEquals(0, list.allocate(8));
+            assertThrows(NoSuchElementException.class, () -> list.allocate(100));
+        }
+
+        @Test
+        @DisplayName("Frees spanning stripes are checked in every stripe before any is changed")
+        void spanningFreeAtomic() {
+            ConcurrentFreeList list = new ConcurrentFreeList(MEMORY_SIZE, 2);
+            list.allocate(512);
+            list.allocate(512);
+            list.free(600, 100);
+            assertThrows(IllegalArgumentException.class, () -> list.free(400, 300));
+            assertEquals("Size: 1; Blocks: (600, 100)", list.toString());
+            list.free(400, 200);
+            list.flush();
+            assertEquals("Size: 3; Blocks: (400, 112), (512, 88), (600, 100)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Allocation flushes the cache before failing")
+        void flushBeforeFailing() {
+            ConcurrentFreeList list = new ConcurrentFreeList(MEMORY_SIZE, 1);
+            list.allocate(MEMORY_SIZE);
+            list.free(0, 8);
+            assertEquals(0, list.allocate(4));
+            assertThrows(NoSuchElementException.class, () -> list.allocate(8));
+        }
+
+        @Test
+        @DisplayName("Frees spanning stripes are split")
+        void freeAcrossStripes() {
+            ConcurrentFreeList list = new ConcurrentFreeList(MEMORY_SIZE, 2);
+            list.allocate(512);
+            list.allocate(512);
+            list.free(256, 512);
+            assertEquals("Size: 2; Blocks: (256, 256), (512, 256)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Stress test: harness operations from many threads")
+        void stress() throws InterruptedException {
+            final int THREADS = 8;
+            final int ITERATIONS = 20000;
+            final int STRESS_SIZE = 1 << 16;
+            ConcurrentFreeList list = new ConcurrentFreeList(STRESS_SIZE, 4);
+            // Records which thread owns each byte so that overlapping allocations can be detected
+            AtomicIntegerArray owner = new AtomicIntegerArray(STRESS_SIZE);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+
+            Thread[] threads = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                final int id = t + 1;
+                threads[t] = new Thread(() -> {
+                    try {
+                        Random random = new Random(id);
+                        int[] starts = new int[64];
+                        int[] lengths = new int[64];
+                        int held = 0;
+                        for (int i = 0; i < ITERATIONS; i++) {
+                            if (held < starts.length && (held == 0 || random.nextBoolean())) {
+                                int length = random.nextInt(4) == 0 ? 1 + random.nextInt(512) : 1 + random.nextInt(64);
+                                int start;
+                                try {
+                                    start = list.allocate(length);
+                                } catch (NoSuchElementException e) {
+                                    continue;
+                                }
+                                for (int b = start; b < start + length; b++) {
+                                    if (!owner.compareAndSet(b, 0, id)) {
+                                        throw new AssertionError("Byte " + b + " allocated twice");
+                                    }
+                                }
+                                starts[held] = start;
+                                lengths[held++] = length;
+                            } else {
+                                int victim = random.nextInt(held);
+                                int start = starts[victim];
+                                int length = lengths[victim];
+                                starts[victim] = starts[--held];
+                                lengths[victim] = lengths[held];
+                                for (int b = start; b < start + length; b++) {
+                                    owner.set(b, 0);
+                                }
+                                if (length > 1 && random.nextBoolean()) {
+                                    // Free the block a byte at a time, as in freeSmallLoop
+                                    for (int b = start; b < start + length; b++) {
+                                        list.free(b, 1);
+                                    }
+                                } else {
+                                    list.free(start, length);
+                                }
+                            }
+                        }
+                        while (held > 0) {
+                            held--;
+                            for (int b = starts[held]; b < starts[held] + lengths[held]; b++) {
+                                owner.set(b, 0);
+                            }
+                            list.free(starts[held], lengths[held]);
+                        }
+                        list.flush();
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertNull(failure.get());
+
+            // Once compacted, every stripe must once again be a single free block
+            for (FreeList stripe : list.stripes) {
+                stripe.setCoalesceOnFree(true);
+            }
+            int stripe = STRESS_SIZE / 4;
+            assertEquals(String.format("Size: 4; Blocks: (0, %d), (%d, %d), (%d, %d), (%d, %d)", stripe, stripe,
+                    stripe, 2 * stripe, stripe, 3 * stripe, stripe), list.toString());
+        }
+    }
+}
@@ -0,0 +1,474 @@
+/* FREE LIST BACKED BY AN EXTENT TREE
+ * Written: 18 October 2026
+ *
+ * A first-fit allocator that records free space in a sparse binary radix tree over the address space rather than in a
+ * chain of FLNodes.  The tree covers the smallest power-of-two range containing the address space; each node covers
+ * half of its parent's range and summarises it by the length of its longest run of free bytes and of the free runs
+ * touching its two ends.  A subtree whose range is uniformly free or uniformly allocated is collapsed into a single
+ * childless node, so the tree holds O(log(address space)) nodes per hole rather than one per byte, and its memory is
+ * proportional to the number of holes.
+ *
+ * These summaries allow the lowest-addressed run of at least n free bytes to be found by a single descent from the
+ * root, and allocating or freeing a range only rewrites the nodes along its two boundaries, so every operation takes
+ * O(log(address space)) time regardless of how many holes there are.  Unlike FreeList, contiguous free regions are
+ * indistinguishable in this representation, so blocks are always coalesced as if by compact().
+ *
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExtentTreeFreeList implements Allocator {
+    /** The root of the tree, covering addresses [0, <code>span</code>). */
+    private final Node root;
+    /** The number of addresses covered by the root: the smallest power of two no less than <code>sizeBytes</code>. */
+    private final long span;
+    /** The number of bytes controlled by this free list. */
+    private final int sizeBytes;
+
+    /**
+     * ExtentTreeFreeList constructor.  Initialises the list with one free block occupying the entire designated space.
+     * Any addresses covered by the tree beyond the end of the space are marked as permanently allocated.
+     *
+     * @param numBytes The number of bytes of memory described by this list.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     */
+    public ExtentTreeFreeList(int numBytes) {
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("FreeList must control at least one byte of memory");
+        }
+        this.sizeBytes = numBytes;
+        this.span = Long.highestOneBit(numBytes) == numBytes ? numBytes : Long.highestOneBit(numBytes) << 1;
+        this.root = new Node();
+        this.root.setUniform(this.span, false);
+        assign(this.root, 0, this.span, 0, numBytes, true);
+    }
+
+    /**
+     * Allocate the specified number of bytes of memory, removing them from the free list.  Allocation is performed
+     * according to the "first-fit" strategy, in which memory is allocated from the lowest-addressed run of free bytes
+     * that spans at least the requested amount of space.
+     *
+     * @param numBytes The number of bytes to allocate.
+     * @return The starting address of the allocated block.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     * @throws NoSuchElementException   If there is not enough free space to allocate the requested memory.
+     */
+    @Override
+    public int allocate(int numBytes) {
+        // Must allocate at least one byte
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must allocate at least one byte of memory");
+        }
+        if (this.root.max < numBytes) {
+            throw new NoSuchElementException("Out of memory: The requested amount of memory could not be allocated");
+        }
+
+        int start = (int) findFirstFit(this.root, 0, this.span, numBytes);
+        assign(this.root, 0, this.span, start, (long) start + numBytes, false);
+        return start;
+    }
+
+    /**
+     * Free the specified number of bytes of memory beginning at the specified starting address, adding them back into
+     * the free list.  Already free regions of memory may not be freed.
+     *
+     * @param startAddress The address at which to begin freeing memory.  Must be within the address space controlled by
+     *                     this free list.
+     * @param numBytes     The number of bytes after the starting address to free.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0, the range encapsulated by
+     *                                  <code>startAddress + numBytes</code> exceeds the free list's address space, or
+     *                                  the memory requested to be freed is already free.
+     */
+    @Override
+    public void free(int startAddress, int numBytes) {
+        // Precondition checks
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must free a positive number of bytes");
+        }
+        if (startAddress < 0 || startAddress > this.sizeBytes - numBytes) {
+            throw new IllegalArgumentException("Cannot free memory outside this list's address space");
+        }
+        long endAddress = (long) startAddress + numBytes;
+        if (anyFree(this.root, 0, this.span, startAddress, endAddress)) {
+            // The freed block overlaps with already-free memory
+            throw new IllegalArgumentException("Cannot free memory that is already free");
+        }
+
+        assign(this.root, 0, this.span, startAddress, endAddress, true);
+    }
+
+    /**
+     * Find the lowest address at which a run of at least the specified number of free bytes begins within a subtree.
+     *
+     * @param node     The root of the subtree.  Its longest free run must span at least <code>numBytes</code>.
+     * @param low      The first address covered by the subtree.
+     * @param nodeSpan The number of addresses covered by the subtree.
+     * @param numBytes The number of bytes to allocate.
+     * @return The starting address of the run.
+     */
+    private static long findFirstFit(Node node, long low, long nodeSpan, int numBytes) {
+        while (node.left != null) {
+            long half = nodeSpan / 2;
+            if (node.left.max >= numBytes) {
+                node = node.left;
+            } else if ((long) node.left.suffix + node.right.prefix >= numBytes) {
+                // The run straddles the midpoint
+                return low + half - node.left.suffix;
+            } else {
+                node = node.right;
+                low += half;
+            }
+            nodeSpan = half;
+        }
+        // A uniform subtree containing a free run is entirely free
+        return low;
+    }
+
+    /**
+     * Determine whether any byte of the specified range is free.
+     *
+     * @param node     The root of the subtree to search.
+     * @param low      The first address covered by the subtree.
+     * @param nodeSpan The number of addresses covered by the subtree.
+     * @param from     The first address of the range.
+     * @param to       The address following the range.
+     * @return Whether any address in both the range and the subtree is free.
+     */
+    private static boolean anyFree(Node node, long low, long nodeSpan, long from, long to) {
+        if (node.max == 0 || to <= low || from >= low + nodeSpan) {
+            return false;
+        }
+        if (node.left == null || (from <= low && to >= low + nodeSpan)) {
+            return true;
+        }
+        long half = nodeSpan / 2;
+        return anyFree(node.left, low, half, from, to) || anyFree(node.right, low + half, half, from, to);
+    }
+
+    /**
+     * Mark the specified range as free or allocated, splitting uniform nodes that it partially covers and collapsing
+     * any that it leaves uniform.
+     *
+     * @param node     The root of the subtree to update.
+     * @param low      The first address covered by the subtree.
+     * @param nodeSpan The number of addresses covered by the subtree.
+     * @param from     The first address of the range.
+     * @param to       The address following the range.
+     * @param free     Whether to mark the range free rather than allocated.
+     */
+    private static void assign(Node node, long low, long nodeSpan, long from, long to, boolean free) {
+        if (to <= low || from >= low + nodeSpan) {
+            return;
+        }
+        if (from <= low && to >= low + nodeSpan) {
+            node.setUniform(nodeSpan, free);
+            return;
+        }
+
+        long half = nodeSpan / 2;
+        if (node.left == null) {
+            // Split the uniform node so that part of it can change
+            boolean wasFree = node.max > 0;
+            node.left = new Node();
+            node.left.setUniform(half, wasFree);
+            node.right = new Node();
+            node.right.setUniform(half, wasFree);
+        }
+        assign(node.left, low, half, from, to, free);
+        assign(node.right, low + half, half, from, to, free);
+        node.update(half);
+    }
+
+    /**
+     * @return The number of free blocks in this list.
+     */
+    public int size() {
+        return countBlocks(this.root, this.span, false);
+    }
+
+    /**
+     * Count the maximal free runs beginning within a subtree.
+     *
+     * @param node           The root of the subtree.
+     * @param nodeSpan       The number of addresses covered by the subtree.
+     * @param precededByFree Whether the address immediately before the subtree is free.
+     * @return The number of free runs beginning within the subtree.
+     */
+    private static int countBlocks(Node node, long nodeSpan, boolean precededByFree) {
+        if (node.left == null) {
+            return node.max > 0 && !precededByFree ? 1 : 0;
+        }
+        long half = nodeSpan / 2;
+        return countBlocks(node.left, half, precededByFree)
+                + countBlocks(node.right, half, node.left.suffix > 0);
+    }
+
+    /**
+     * @return The number of nodes in the tree.  Proportional to the number of free blocks, not the address space.
+     */
+    int nodeCount() {
+        return countNodes(this.root);
+    }
+
+    /**
+     * @param node The root of a subtree.
+     * @return The number of nodes in the subtree.
+     */
+    private static int countNodes(Node node) {
+        return node.left == null ? 1 : 1 + countNodes(node.left) + countNodes(node.right);
+    }
+
+    @Override
+    public void forEachFreeBlock(BlockVisitor visitor) {
+        long[] run = {-1, 0};
+        visitBlocks(this.root, 0, this.span, run, visitor);
+        if (run[0] >= 0) {
+            visitor.visit((int) run[0], (int) run[1]);
+        }
+    }
+
+    /**
+     * @return The length of the longest free run in this list, which is recorded at the root of the tree.
+     */
+    @Override
+    public int largestFreeBlock() {
+        return this.root.max;
+    }
+
+    /**
+     * Pass the free runs that end within a subtree to a visitor, in address order.
+     *
+     * @param node     The root of the subtree.
+     * @param low      The first address covered by the subtree.
+     * @param nodeSpan The number of addresses covered by the subtree.
+     * @param run      The start and length of the free run in progress, with a start of -1 if there is none.
+     * @param visitor  The visitor to which to pass each completed run.
+     */
+    private static void visitBlocks(Node node, long low, long nodeSpan, long[] run, BlockVisitor visitor) {
+        if (node.left != null) {
+            long half = nodeSpan / 2;
+            visitBlocks(node.left, low, half, run, visitor);
+            visitBlocks(node.right, low + half, half, run, visitor);
+        } else if (node.max > 0) {
+            // Extend the run in progress, or start a new one
+            if (run[0] < 0) {
+                run[0] = low;
+            }
+            run[1] += nodeSpan;
+        } else if (run[0] >= 0) {
+            visitor.visit((int) run[0], (int) run[1]);
+            run[0] = -1;
+            run[1] = 0;
+        }
+    }
+
+    /**
+     * @return A string representation of the free blocks in this list.
+     */
+    public String toString() {
+        StringBuilder blocks = new StringBuilder();
+        int[] size = {0};
+        forEachFreeBlock((startAddress, numBytes) -> {
+            blocks.append(size[0]++ == 0 ? "" : ", ").append(String.format("(%d, %d)", startAddress, numBytes));
+        });
+        return "Size: " + size[0] + "; Blocks: " + (size[0] == 0 ? "none" : blocks);
+    }
+
+    /**
+     * A node of the extent tree, summarising the free runs within the range of addresses it covers.  A node without
+     * children covers a range that is either entirely free or entirely allocated.
+     */
+    private static final class Node {
+        /** The node covering the lower half of this node's range, or <code>null</code> if the range is uniform. */
+        Node left;
+        /** The node covering the upper half of this node's range, or <code>null</code> if the range is uniform. */
+        Node right;
+        /** The number of free bytes at the start of this node's range. */
+        int prefix;
+        /** The number of free bytes at the end of this node's range. */
+        int suffix;
+        /** The length of the longest run of free bytes within this node's range. */
+        int max;
+
+        /**
+         * Make this node a uniform node, discarding its children.
+         *
+         * @param nodeSpan The number of addresses covered by this node.
+         * @param free     Whether the range is free rather than allocated.
+         */
+        void setUniform(long nodeSpan, boolean free) {
+            this.left = null;
+            this.right = null;
+            // Only the root can cover 2^31 addresses, and it is never entirely free
+            int length = free ? (int) nodeSpan : 0;
+            this.prefix = length;
+            this.suffix = length;
+            this.max = length;
+        }
+
+        /**
+         * Recompute the summaries of this node from its children, collapsing them if they are uniform and alike.
+         *
+         * @param half The number of addresses covered by each child.
+         */
+        void update(long half) {
+            Node l = this.left;
+            Node r = this.right;
+            if (l.left == null && r.left == null && l.max == r.max && (l.max == 0 || l.max == half)) {
+                setUniform(2 * half, l.max > 0);
+                return;
+            }
+            this.prefix = l.prefix == half ? l.prefix + r.prefix : l.prefix;
+            this.suffix = r.suffix == half ? r.suffix + l.suffix : r.suffix;
+            this.max = Math.max(Math.max(l.max, r.max), l.suffix + r.prefix);
+        }
+    }
+
+
+    @DisplayName("ExtentTreeFreeList harness tests")
+    @Tag("FreeListSolution")
+    public static class ExtentTreeFreeListTest {
+        private ExtentTreeFreeList list;
+        /** Each free list under test will control 1000 bytes in total, which is not a power of two. */
+        private static final int MEMORY_SIZE = 1000;
+
+        @BeforeEach
+        void setUp() {
+            list = new ExtentTreeFreeList(MEMORY_SIZE);
+        }
+
+        @Test
+        @DisplayName("Constructor properly initialises list")
+        void constructor() {
+            assertEquals(1, list.size());
+            assertEquals("Size: 1; Blocks: (0, 1000)", list.toString());
+            assertThrows(IllegalArgumentException.class, () -> new ExtentTreeFreeList(0));
+        }
+
+        @Test
+        @DisplayName("Allocate all free space separate times")
+        void allFreeSpaceMany() {
+            assertEquals(0, list.allocate(500));
+            assertEquals("Size: 1; Blocks: (500, 500)", list.toString());
+            assertEquals(500, list.allocate(250));
+            assertEquals(750, list.allocate(250));
+            assertEquals("Size: 0; Blocks: none", list.toString());
+            assertThrows(NoSuchElementException.class, () -> list.allocate(1));
+            assertThrows(IllegalArgumentException.class, () -> list.allocate(0));
+        }
+
+        @Test
+        @DisplayName("Free preconditions")
+        void freePreconditions() {
+            list.allocate(256);
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, 0));
+            assertThrows(IllegalArgumentException.class, () -> list.free(-1, 10));
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, MEMORY_SIZE + 1));
+            assertThrows(IllegalArgumentException.class, () -> list.free(200, 100));
+            assertThrows(IllegalArgumentException.class, () -> list.free(512, 16));
+            assertEquals("Size: 1; Blocks: (256, 744)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Free blocks are always coalesced")
+        void coalesced() {
+            list.allocate(MEMORY_SIZE);
+            list.free(240, 20);
+            list.free(270, 15);
+            list.free(285, 15);
+            list.free(350, 8);
+            list.free(360, 10);
+            list.free(370, 16);
+            assertEquals(4, list.size());
+            assertEquals("Size: 4; Blocks: (240, 20), (270, 30), (350, 8), (360, 26)", list.toString());
+            list.free(358, 2);
+            assertEquals("Size: 3; Blocks: (240, 20), (270, 30), (350, 36)", list.toString());
+        }
+
+        @Test
+        @DisplayName("First fit spans node boundaries")
+        void fitAcrossBoundary() {
+            list.allocate(MEMORY_SIZE);
+            list.free(10, 5);
+            list.free(500, 30);
+            list.free(900, 100);
+            // The run at 500 straddles the midpoint of the tree
+            assertEquals(500, list.allocate(20));
+            assertEquals(900, list.allocate(11));
+            assertEquals("Size: 3; Blocks: (10, 5), (520, 10), (911, 89)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Memory is proportional to holes, not address space")
+        void sparse() {
+            ExtentTreeFreeList large = new ExtentTreeFreeList(Integer.MAX_VALUE);
+            assertTrue(large.nodeCount() < 2 * Integer.SIZE * 2);
+            large.allocate(Integer.MAX_VALUE);
+            assertEquals(1, large.nodeCount());
+            for (int i = 0; i < 100; i++) {
+                large.free(i * 10_000_000 + 3, 7);
+            }
+            assertEquals(100, large.size());
+            assertTrue(large.nodeCount() <= 100 * 4 * Integer.SIZE);
+            assertEquals(3, large.allocate(7));
+            large.free(3, 7);
+            assertThrows(NoSuchElementException.class, () -> large.allocate(8));
+        }
+
+        @Test
+        @DisplayName("Agrees with a coalescing FreeList on random operations")
+        void randomAgainstFreeList() {
+            FreeList reference = new FreeList(MEMORY_SIZE);
+            reference.setCoalesceOnFree(true);
+            Random random = new Random(314);
+            int[] starts = new int[32];
+            int[] lengths = new int[32];
+            for (int i = 0; i < 5000; i++) {
+                int slot = random.nextInt(starts.length);
+                if (lengths[slot] == 0) {
+                    int length = 1 + random.nextInt(100);
+                    int expected;
+                    try {
+                        expected = reference.allocate(length);
+                    } catch (NoSuchElementException e) {
+                        assertThrows(NoSuchElementException.class, () -> list.allocate(length));
+                        continue;
+                    }
+                    assertEquals(expected, list.allocate(length));
+                    starts[slot] = expected;
+                    lengths[slot] = length;
+                } else {
+                    reference.free(starts[slot], lengths[slot]);
+                    list.free(starts[slot], lengths[slot]);
+                    lengths[slot] = 0;
+                }
+                assertEquals(reference.toString(), list.toString());
+                assertEquals(reference.size(), list.size());
+            }
+        }
+    }
+}
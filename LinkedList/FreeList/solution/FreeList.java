@@ -56,86 +56,542 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
+import java.util.Random;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SuppressWarnings("Duplicates")
-public class FreeList {
+public class FreeList implements Allocator {
     /** The first free block in this list. */
     private FLNode first;
+    /**
+     * Root of the treap indexing every free block in this list by starting address, kept in step with the chain of
+     * blocks.  The treap is linked through the blocks themselves, so maintaining it never allocates.
+     */
+    private FLNode addressRoot;
+    /** State of the xorshift generator from which treap priorities are drawn. */
+    private int prioritySeed = 314;
     /** The number of free blocks in this list. */
     private int size;
     /** The number of bytes controlled by this free list. */
     private int sizeBytes;
+    /** The strategy used to choose a free block when allocating memory. */
+    private final AllocationPolicy policy;
+    /** Whether freed blocks are merged with their contiguous neighbours immediately. */
+    private boolean coalesceOnFree;
+    /** The block at which the next incremental compaction step resumes, or <code>null</code> to start a new pass. */
+    private FLNode compactCursor;
+    /** Number of nodes to visit in an incremental compaction step before every allocation and after every free. */
+    private int backgroundCompactionBudget;
+    /** The block following the most recent allocation, from which next-fit searches begin. */
+    private FLNode rover;
+    /** Number of pairs of neighbouring blocks that are contiguous, and so would be merged by compaction. */
+    private int contiguousPairs;
+    /** Blocks per discrete region above which the list is compacted automatically, or 0 if disabled. */
+    private int autoCompactionRatio;
+
+    /** The total length of all free blocks in this list. */
+    private int freeBytes;
+    /** Number of successful allocations. */
+    private long allocationCount;
+    /** Number of allocations that failed for lack of a large enough block. */
+    private long failedAllocationCount;
+    /** Number of successful frees. */
+    private long freeCount;
+    /** Number of nodes examined by the allocation or free currently in progress. */
+    private int searchVisits;
+    /** Histogram of nodes examined per allocation; see <code>histogramBucket()</code> for the bucket boundaries. */
+    private final long[] allocateVisits = new long[Integer.SIZE + 1];
+    /**
+     * Histogram of nodes examined per freed block: address treap nodes descended through by <code>free()</code>, or
+     * list nodes stepped over by <code>freeBatch()</code>.  See <code>histogramBucket()</code> for the bucket
+     * boundaries.
+     */
+    private final long[] freeVisits = new long[Integer.SIZE + 1];
+
+    /**
+     * Heads of the size-class bins used by the segregated-fit policy, or <code>null</code> under first-fit.  Bins below
+     * <code>SMALL_BIN_LIMIT</code> hold blocks of exactly one length; the remainder each hold a power-of-two range of
+     * lengths.  See <code>binIndex()</code> for the mapping.
+     */
+    private FLNode[] bins;
+    /** Bit <i>i</i> is set if and only if <code>bins[i]</code> is non-empty. */
+    private long binMask;
+    /** Whether free blocks are additionally indexed by length, as used by the best-fit policy. */
+    private final boolean sizeIndexed;
+    /**
+     * Root of the treap ordering every free block in this list by length, then by starting address, if
+     * <code>sizeIndexed</code>.  Like the address treap, it is linked through the blocks themselves.  Blocks are
+     * removed before their bounds change and reinserted after.
+     */
+    private FLNode sizeRoot;
+
+    /** Blocks shorter than this many bytes are binned by their exact length. */
+    private static final int SMALL_BIN_LIMIT = 32;
+    /** Total number of bins: one per small length, then one per power of two up to 2<sup>30</sup>. */
+    private static final int BIN_COUNT = binIndex(Integer.MAX_VALUE) + 1;
+
+    /**
+     * Strategies by which a free block is chosen to satisfy an allocation request.  Each policy trades search cost
+     * against fragmentation differently, so the best choice depends on the allocation profile of the workload.
+     */
+    public enum AllocationPolicy {
+        /**
+         * Allocate from the lowest-addressed free block that spans at least the requested amount of space.  Requires a
+         * linear walk of the list.
+         */
+        FIRST_FIT {
+            @Override
+            FLNode findBlock(FreeList list, int numBytes) {
+                return list.findFirstFit(list.first, null, numBytes);
+            }
+        },
+        /**
+         * Allocate from the first fitting block at or after the block following the previous allocation, wrapping
+         * around to the start of the list if necessary.  Spreads allocations across the address space rather than
+         * repeatedly splitting blocks at its start.
+         */
+        NEXT_FIT {
+            @Override
+            FLNode findBlock(FreeList list, int numBytes) {
+                FLNode rover = list.rover == null ? list.first : list.rover;
+                FLNode freeNode = list.findFirstFit(rover, null, numBytes);
+                return freeNode != null ? freeNode : list.findFirstFit(list.first, rover, numBytes);
+            }
+        },
+        /**
+         * Allocate from the smallest free block that spans at least the requested amount of space, preferring the
+         * lowest-addressed block among equals.  Free blocks are additionally indexed by length under this policy, so
+         * the block is found in logarithmic time rather than by a walk of the list.
+         */
+        BEST_FIT {
+            @Override
+            FLNode findBlock(FreeList list, int numBytes) {
+                return list.ceilingBySize(numBytes);
+            }
+        },
+        /**
+         * Allocate from the largest free block, preferring the lowest-addressed block among equals, so that the
+         * remainder left behind is as large as possible.  Requires a walk of the whole list.
+         */
+        WORST_FIT {
+            @Override
+            FLNode findBlock(FreeList list, int numBytes) {
+                FLNode worst = null;
+                for (FLNode node = list.first; node != null; node = node.next) {
+                    list.searchVisits++;
+                    if (worst == null || node.length > worst.length) {
+                        worst = node;
+                    }
+                }
+                return worst != null && worst.length >= numBytes ? worst : null;
+            }
+        },
+        /**
+         * Allocate from size-class bins indexed by block length.  Small requests are served from a bin of blocks of
+         * exactly the requested size, and larger requests from the smallest non-empty power-of-two class guaranteed to
+         * fit, so allocation does not depend on the number of free blocks in the common case.
+         */
+        SEGREGATED_FIT {
+            @Override
+            FLNode findBlock(FreeList list, int numBytes) {
+                return list.findSegregatedFit(numBytes);
+            }
+        };
+
+        /**
+         * Choose the free block from which to satisfy an allocation request.
+         *
+         * @param list     The list from which memory is being allocated.
+         * @param numBytes The number of bytes to allocate.  Will be positive.
+         * @return A block spanning at least <code>numBytes</code> bytes, or <code>null</code> if there is no such block.
+         */
+        abstract FLNode findBlock(FreeList list, int numBytes);
+    }
 
     /**
      * FreeList constructor.  Initialises the list with one free block occupying the entire designated space.
      *
      * @param numBytes The number of bytes of memory described by this list.
-     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     * @param policy   The strategy used to choose a free block when allocating memory.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0 or <code>policy</code> is <code>null</code>.
      */
-    public FreeList(int numBytes) {
+    public FreeList(int numBytes, AllocationPolicy policy) {
         if (numBytes <= 0) {
             throw new IllegalArgumentException("FreeList must control at least one byte of memory");
         }
-        this.first = new FLNode(0, numBytes, null);
-        this.size = 1;
+        if (policy == null) {
+            throw new IllegalArgumentException("FreeList must have an allocation policy");
+        }
+        this.policy = policy;
+        this.sizeIndexed = policy == AllocationPolicy.BEST_FIT;
+        if (policy == AllocationPolicy.SEGREGATED_FIT) {
+            this.bins = new FLNode[BIN_COUNT];
+        }
+        insertAfter(null, 0, numBytes);
         this.sizeBytes = numBytes;
     }
 
     /**
-     * Allocate the specified number of bytes of memory, removing them from the free list.  Allocation is performed
-     * according to the "first-fit" strategy, in which memory is allocated from the first free block that spans at least
-     * the requested amount of space.
+     * FreeList constructor.  Initialises the list with one free block occupying the entire designated space, from
+     * which memory will be allocated according to the "first-fit" strategy.
+     *
+     * @param numBytes The number of bytes of memory described by this list.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     */
+    public FreeList(int numBytes) {
+        this(numBytes, AllocationPolicy.FIRST_FIT);
+    }
+
+    /**
+     * @return The number of free blocks in this list.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return Whether freed blocks are merged with their contiguous neighbours as soon as they are freed.
+     */
+    public boolean isCoalesceOnFree() {
+        return this.coalesceOnFree;
+    }
+
+    /**
+     * Enable or disable eager coalescing.  While enabled, each freed block is merged immediately with any free blocks
+     * that end at its starting address or begin at its end address, so no two blocks in the list are ever contiguous
+     * and compaction never has any work to do.  Enabling coalescing compacts the list once to establish this
+     * invariant.
+     *
+     * @param coalesce Whether freed blocks should be merged with their contiguous neighbours immediately.
+     */
+    public void setCoalesceOnFree(boolean coalesce) {
+        if (coalesce && !this.coalesceOnFree) {
+            compact();
+        }
+        this.coalesceOnFree = coalesce;
+    }
+
+    /**
+     * @return The number of nodes visited by the incremental compaction step performed around each allocation and
+     *         free, or 0 if background compaction is disabled.
+     */
+    public int getBackgroundCompactionBudget() {
+        return this.backgroundCompactionBudget;
+    }
+
+    /**
+     * Enable or disable background compaction.  While enabled, a call to <code>compactStep()</code> with the specified
+     * budget is made before every allocation and after every free, so the list is compacted gradually without any
+     * single operation pausing for a full pass.
+     *
+     * @param maxNodes The number of nodes to visit around each operation, or 0 to disable background compaction.
+     * @throws IllegalArgumentException If <code>maxNodes</code> &lt; 0.
+     */
+    public void setBackgroundCompactionBudget(int maxNodes) {
+        if (maxNodes < 0) {
+            throw new IllegalArgumentException("Background compaction budget must not be negative");
+        }
+        this.backgroundCompactionBudget = maxNodes;
+    }
+
+    /**
+     * @return The number of blocks per discrete region of free memory above which the list is compacted automatically,
+     *         or 0 if automatic compaction is disabled.
+     */
+    public int getAutoCompactionRatio() {
+        return this.autoCompactionRatio;
+    }
+
+    /**
+     * Enable or disable automatic compaction.  While enabled, the list is fully compacted after any free that leaves it
+     * holding more than the specified number of blocks per discrete region of free memory, where a region is a maximal
+     * run of contiguous blocks; and an allocation that finds no fitting block, while the list holds enough free bytes
+     * and has contiguous blocks to merge, compacts the list and searches again before failing.  The number of regions
+     * is maintained incrementally, so the check costs a few comparisons per operation, and compaction creates no
+     * garbage.
+     *
+     * @param ratio The number of blocks per region above which to compact, or 0 to disable automatic compaction.  A
+     *              ratio of 1 compacts whenever any two blocks are contiguous.
+     * @throws IllegalArgumentException If <code>ratio</code> &lt; 0.
+     */
+    public void setAutoCompactionRatio(int ratio) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException("Automatic compaction ratio must not be negative");
+        }
+        this.autoCompactionRatio = ratio;
+        compactIfFragmented();
+    }
+
+    /**
+     * Allocate the specified number of bytes of memory, removing them from the free list.  The free block from which
+     * memory is taken is chosen according to this list's <code>AllocationPolicy</code>; the allocation always begins
+     * at the starting address of that block.
      *
      * @param numBytes The number of bytes to allocate.
      * @return The starting address of the allocated block.
      * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
      * @throws NoSuchElementException   If there is not enough free space to allocate the requested memory.
      */
+    @Override
     public int allocate(int numBytes) {
         // Must allocate at least one byte
         if (numBytes <= 0) {
             throw new IllegalArgumentException("Must allocate at least one byte of memory");
         }
+        if (this.backgroundCompactionBudget > 0) {
+            compactStep(this.backgroundCompactionBudget);
+        }
 
-        // Traverse through the list until a free block of the proper size is found
-        FLNode prevNode = null;
-        FLNode freeNode = this.first;
-        while (freeNode != null && freeNode.length < numBytes) {
-            prevNode = freeNode;
-            freeNode = freeNode.next;
+        this.searchVisits = 0;
+        FLNode freeNode = this.policy.findBlock(this, numBytes);
+        if (freeNode == null && compactForAllocation(numBytes)) {
+            freeNode = this.policy.findBlock(this, numBytes);
         }
+        this.allocateVisits[histogramBucket(this.searchVisits)]++;
         // Ensure that a block was found
         if (freeNode == null) {
+            this.failedAllocationCount++;
+            throw new NoSuchElementException("Out of memory: The requested amount of memory could not be allocated");
+        }
+        return take(freeNode, numBytes);
+    }
+
+    /**
+     * Allocate the specified number of bytes of memory beginning at a multiple of the specified alignment.  If the
+     * chosen block does not begin on such an address, the padding before the aligned address is left in the list as a
+     * free block of its own.  Under segregated fit the block is taken from a size class in which every block fits
+     * regardless of its alignment, falling back to a search of the list; under the other policies, the first block in
+     * address order that can hold an aligned region of the requested size is used, so blocks that are long enough but
+     * misaligned are skipped in the same single pass.
+     *
+     * @param numBytes  The number of bytes to allocate.
+     * @param alignment The alignment of the allocated block in bytes.  Must be a power of two.
+     * @return The starting address of the allocated block, which will be a multiple of <code>alignment</code>.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0 or <code>alignment</code> is not a positive
+     *                                  power of two.
+     * @throws NoSuchElementException   If there is no free block that can hold the requested memory at the requested
+     *                                  alignment.
+     */
+    public int allocate(int numBytes, int alignment) {
+        if (alignment <= 0 || Integer.bitCount(alignment) != 1) {
+            throw new IllegalArgumentException("Alignment must be a positive power of two");
+        }
+        if (alignment == 1) {
+            return allocate(numBytes);
+        }
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must allocate at least one byte of memory");
+        }
+        if (this.backgroundCompactionBudget > 0) {
+            compactStep(this.backgroundCompactionBudget);
+        }
+
+        this.searchVisits = 0;
+        FLNode freeNode = null;
+        if (this.bins != null && numBytes <= Integer.MAX_VALUE - (alignment - 1)) {
+            // A block this long fits however it is aligned
+            freeNode = findSegregatedFit(numBytes + alignment - 1);
+        }
+        if (freeNode == null) {
+            freeNode = findAlignedFit(numBytes, alignment);
+        }
+        if (freeNode == null && compactForAllocation(numBytes)) {
+            freeNode = findAlignedFit(numBytes, alignment);
+        }
+        this.allocateVisits[histogramBucket(this.searchVisits)]++;
+        if (freeNode == null) {
+            this.failedAllocationCount++;
             throw new NoSuchElementException("Out of memory: The requested amount of memory could not be allocated");
         }
 
-        // If this node perfectly fits the free block, delete it from the free list
+        int padding = alignmentPadding(freeNode.startAddress, alignment);
+        if (padding == 0) {
+            return take(freeNode, numBytes);
+        }
+        // Leave the padding in place as a free block, followed by whatever remains after the allocated region
+        int start = freeNode.startAddress + padding;
+        int remaining = freeNode.length - padding - numBytes;
+        resize(freeNode, freeNode.startAddress, padding);
+        this.rover = remaining > 0 ? insertAfter(freeNode, start + numBytes, remaining) : freeNode.next;
+        this.allocationCount++;
+        return start;
+    }
+
+    /**
+     * Allocate a block of memory for each of the specified sizes.  Under first-fit, the requests are sorted by size
+     * and carved from the list in a single pass, each block in address order satisfying as many of the smallest
+     * outstanding requests as it can; any requests left over at the end of the list, and all requests under other
+     * policies, are allocated individually.  If any request cannot be satisfied, the blocks already allocated for the
+     * batch are freed again before the exception is thrown.
+     *
+     * @param sizes The number of bytes to allocate for each request.
+     * @return The starting address of the block allocated for each request, in the order of <code>sizes</code>.
+     * @throws IllegalArgumentException If any size is &le; 0.
+     * @throws NoSuchElementException   If there is not enough free space to allocate every request.
+     */
+    public int[] allocateBatch(int[] sizes) {
+        // Sort requests by size, packing each as (size, index) so that no boxing is needed
+        long[] requests = new long[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] <= 0) {
+                throw new IllegalArgumentException("Must allocate at least one byte of memory");
+            }
+            requests[i] = (long) sizes[i] << Integer.SIZE | i;
+        }
+        Arrays.sort(requests);
+
+        int[] addresses = new int[sizes.length];
+        int satisfied = 0;
+        if (this.policy == AllocationPolicy.FIRST_FIT) {
+            FLNode node = this.first;
+            while (node != null && satisfied < requests.length) {
+                int size = (int) (requests[satisfied] >>> Integer.SIZE);
+                if (node.length < size) {
+                    // No outstanding request fits in this block, since they are all at least this large
+                    node = node.next;
+                } else {
+                    FLNode following = node.next;
+                    boolean exact = node.length == size;
+                    addresses[(int) requests[satisfied++]] = take(node, size);
+                    if (exact) {
+                        node = following;
+                    }
+                }
+            }
+        }
+
+        try {
+            for (; satisfied < requests.length; satisfied++) {
+                addresses[(int) requests[satisfied]] = allocate((int) (requests[satisfied] >>> Integer.SIZE));
+            }
+        } catch (NoSuchElementException e) {
+            // Return the partial batch to the list before failing
+            for (int i = 0; i < satisfied; i++) {
+                free(addresses[(int) requests[i]], (int) (requests[i] >>> Integer.SIZE));
+            }
+            throw e;
+        }
+        return addresses;
+    }
+
+    /**
+     * Remove the specified number of bytes from the start of a free block chosen to satisfy an allocation.
+     *
+     * @param freeNode The block from which to allocate.
+     * @param numBytes The number of bytes to allocate.  Must not exceed the length of the block.
+     * @return The starting address of the allocated block.
+     */
+    private int take(FLNode freeNode, int numBytes) {
         int start = freeNode.startAddress;
         if (freeNode.length == numBytes) {
-            if (prevNode != null) {
-                prevNode.next = freeNode.next;
+            // If this node perfectly fits the free block, delete it from the free list
+            this.rover = freeNode.next;
+            remove(freeNode);
+        } else {
+            // Otherwise, shrink the block
+            this.rover = freeNode;
+            resize(freeNode, freeNode.startAddress + numBytes, freeNode.length - numBytes);
+        }
+        this.allocationCount++;
+        return start;
+    }
+
+    /**
+     * Find the first free block in address order within the specified range of the list that spans at least the
+     * specified number of bytes.
+     *
+     * @param from     The block at which to begin searching.
+     * @param until    The block at which to stop searching, exclusive, or <code>null</code> to search to the end.
+     * @param numBytes The number of bytes to allocate.
+     * @return The first block that can satisfy the allocation, or <code>null</code> if there is no such block.
+     */
+    private FLNode findFirstFit(FLNode from, FLNode until, int numBytes) {
+        FLNode freeNode = from;
+        while (freeNode != until && freeNode.length < numBytes) {
+            this.searchVisits++;
+            freeNode = freeNode.next;
+        }
+        if (freeNode != until) {
+            this.searchVisits++;
+        }
+        return freeNode == until ? null : freeNode;
+    }
+
+    /**
+     * Find the lowest-addressed free block that can hold the specified number of bytes beginning at a multiple of the
+     * specified alignment.  Blocks shorter than the request are skipped without computing their padding.
+     *
+     * @param numBytes  The number of bytes to allocate.
+     * @param alignment The alignment of the allocated block in bytes.  Must be a power of two.
+     * @return A block that can satisfy the allocation, or <code>null</code> if there is no such block.
+     */
+    private FLNode findAlignedFit(int numBytes, int alignment) {
+        for (FLNode node = this.first; node != null; node = node.next) {
+            this.searchVisits++;
+            if (node.length >= numBytes
+                    && node.length - alignmentPadding(node.startAddress, alignment) >= numBytes) {
+                return node;
             }
-            this.size--;
+        }
+        return null;
+    }
+
+    /**
+     * @param address   An address.
+     * @param alignment An alignment in bytes.  Must be a power of two.
+     * @return The number of bytes between <code>address</code> and the next multiple of <code>alignment</code>.
+     */
+    private static int alignmentPadding(int address, int alignment) {
+        return -address & (alignment - 1);
+    }
+
+    /**
+     * Find a free block spanning at least the specified number of bytes using the size-class bins.  The lowest bin in
+     * which every block is guaranteed to fit is located in constant time using <code>binMask</code>; only if every
+     * such bin is empty is the power-of-two class containing <code>numBytes</code> itself searched.
+     *
+     * @param numBytes The number of bytes to allocate.
+     * @return A block that can satisfy the allocation, or <code>null</code> if there is no such block.
+     */
+    private FLNode findSegregatedFit(int numBytes) {
+        int bin = binIndex(numBytes);
+        // Every block in a small bin or a power-of-two class starting at numBytes fits; otherwise skip to the next class
+        boolean binFits = numBytes < SMALL_BIN_LIMIT || Integer.bitCount(numBytes) == 1;
+        int firstFittingBin = binFits ? bin : bin + 1;
 
-            // If that was the last free block, there should be no first node
-            if (this.size == 0) {
-                first = null;
+        long candidates = firstFittingBin < Long.SIZE ? this.binMask & (-1L << firstFittingBin) : 0;
+        if (candidates != 0) {
+            this.searchVisits++;
+            return this.bins[Long.numberOfTrailingZeros(candidates)];
+        }
+
+        // Fall back to searching the class containing the request, which may hold some larger blocks
+        if (!binFits) {
+            for (FLNode node = this.bins[bin]; node != null; node = node.binNext) {
+                this.searchVisits++;
+                if (node.length >= numBytes) {
+                    return node;
+                }
             }
-            return start;
         }
-        // Otherwise, shrink the block
-        freeNode.startAddress += numBytes;
-        freeNode.length -= numBytes;
-        return start;
+        return null;
     }
 
     /**
      * Free the specified number of bytes of memory beginning at the specified starting address, adding them back into
-     * the free list.  Already free regions of memory may not be freed.
+     * the free list.  Already free regions of memory may not be freed.  The insertion point is located through the
+     * address index, so freeing takes logarithmic time in the number of free blocks.  If eager coalescing is enabled,
+     * the freed block is merged with its contiguous neighbours rather than inserted as a block of its own.
      *
      * @param startAddress The address at which to begin freeing memory.  Must be within the address space controlled by
      *                     this free list.
@@ -144,6 +600,7 @@ public class FreeList {
      *                                  <code>startAddress + numBytes</code> exceeds the free list's address space, or
      *                                  the memory requested to be freed is already free.
      */
+    @Override
     public void free(int startAddress, int numBytes) {
         // Precondition checks
         if (numBytes <= 0) {
@@ -154,103 +611,1622 @@ public class FreeList {
         }
 
         // Find the proper place to insert the new node
+        this.searchVisits = 0;
+        FLNode prevNode = lowerByAddress(startAddress);
+        FLNode nextNode = prevNode == null ? this.first : prevNode.next;
+
+        if ((nextNode != null && startAddress + numBytes > nextNode.startAddress)
+                || (prevNode != null && prevNode.startAddress + prevNode.length > startAddress)) {
+            // The freed block overlaps with already-free memory
+            throw new IllegalArgumentException("Cannot free memory that is already free");
+        }
+
+        insertFree(prevNode, nextNode, startAddress, numBytes);
+        this.freeVisits[histogramBucket(this.searchVisits)]++;
+
+        if (this.backgroundCompactionBudget > 0) {
+            compactStep(this.backgroundCompactionBudget);
+        }
+        compactIfFragmented();
+    }
+
+    /**
+     * Determine whether any part of the specified range is free in this list.  Used by wrappers that must validate a
+     * free before deferring it.
+     *
+     * @param startAddress The address at which the range begins.
+     * @param numBytes     The length of the range in bytes.  Must be positive.
+     * @return Whether any byte of the range lies within a free block.
+     */
+    boolean overlapsFree(int startAddress, int numBytes) {
+        // Only the last block beginning before the end of the range can overlap it
+        FLNode node = lowerByAddress(startAddress + numBytes);
+        return node != null && node.startAddress + node.length > startAddress;
+    }
+
+    /**
+     * Free a batch of blocks of memory.  The batch is sorted by address and checked in its entirety before any memory
+     * is freed, then merged into the list in a single pass, so freeing <i>k</i> blocks into a list of <i>n</i> costs
+     * O(<i>n</i> + <i>k</i> log <i>k</i>) node visits rather than the O(<i>n</i> &middot; <i>k</i>) of a linear
+     * search per block.  Either every block is freed or, if any block fails the checks of <code>free()</code>, none
+     * is.
+     *
+     * @param startAddresses The address at which each block to free begins.
+     * @param lengths        The number of bytes in each block to free.
+     * @throws IllegalArgumentException If the arrays differ in length, any block fails the checks of
+     *                                  <code>free()</code>, or any two blocks in the batch overlap.
+     */
+    public void freeBatch(int[] startAddresses, int[] lengths) {
+        if (startAddresses.length != lengths.length) {
+            throw new IllegalArgumentException("Every block to free must have both an address and a length");
+        }
+
+        // Sort blocks by address, packing each as (address, index) so that no boxing is needed
+        long[] blocks = new long[startAddresses.length];
+        for (int i = 0; i < blocks.length; i++) {
+            if (lengths[i] <= 0) {
+                throw new IllegalArgumentException("Must free a positive number of bytes");
+            }
+            if (startAddresses[i] < 0 || startAddresses[i] + lengths[i] > this.sizeBytes) {
+                throw new IllegalArgumentException("Cannot free memory outside this list's address space");
+            }
+            blocks[i] = (long) startAddresses[i] << Integer.SIZE | i;
+        }
+        Arrays.sort(blocks);
+
+        // Check the whole batch against the list and itself before modifying anything
         FLNode prevNode = null;
         FLNode nextNode = this.first;
-        while (nextNode != null && nextNode.startAddress < startAddress) {
-            prevNode = nextNode;
-            nextNode = nextNode.next;
+        int batchEnd = 0;
+        for (long block : blocks) {
+            int start = (int) (block >>> Integer.SIZE);
+            int end = start + lengths[(int) block];
+            while (nextNode != null && nextNode.startAddress < start) {
+                prevNode = nextNode;
+                nextNode = nextNode.next;
+            }
+            if (start < batchEnd || (nextNode != null && end > nextNode.startAddress)
+                    || (prevNode != null && prevNode.startAddress + prevNode.length > start)) {
+                throw new IllegalArgumentException("Cannot free memory that is already free");
+            }
+            batchEnd = end;
         }
 
-        if (nextNode != null && startAddress + numBytes > nextNode.startAddress) {
-            // The freed block overlaps with already-free memory
-            throw new IllegalArgumentException("Cannot free memory that is already free");
-        } else if (prevNode == null) {
-            // This block is the new first block in the list
-            this.first = new FLNode(startAddress, numBytes, nextNode);
+        // Merge the batch into the list
+        prevNode = null;
+        nextNode = this.first;
+        for (long block : blocks) {
+            int start = (int) (block >>> Integer.SIZE);
+            int visits = 0;
+            while (nextNode != null && nextNode.startAddress < start) {
+                prevNode = nextNode;
+                nextNode = nextNode.next;
+                visits++;
+            }
+            this.freeVisits[histogramBucket(visits)]++;
+            prevNode = insertFree(prevNode, nextNode, start, lengths[(int) block]);
+            nextNode = prevNode.next;
+        }
+
+        if (this.backgroundCompactionBudget > 0) {
+            compactStep(this.backgroundCompactionBudget);
+        }
+        compactIfFragmented();
+    }
+
+    /**
+     * Return a range of memory that has been checked to be allocated to the list, between the specified neighbours.
+     * If eager coalescing is enabled, the range is merged with whichever neighbours it is contiguous with.
+     *
+     * @param prevNode     The free block preceding the range, or <code>null</code> if there is none.
+     * @param nextNode     The free block following the range, or <code>null</code> if there is none.
+     * @param startAddress The address at which the range begins.
+     * @param numBytes     The length of the range in bytes.
+     * @return The free block that now contains the range.
+     */
+    private FLNode insertFree(FLNode prevNode, FLNode nextNode, int startAddress, int numBytes) {
+        int endAddress = startAddress + numBytes;
+        boolean mergePrev = this.coalesceOnFree && prevNode != null
+                && prevNode.startAddress + prevNode.length == startAddress;
+        boolean mergeNext = this.coalesceOnFree && nextNode != null && nextNode.startAddress == endAddress;
+        FLNode node;
+        if (mergePrev && mergeNext) {
+            // The freed block bridges two free blocks, absorb both into the first
+            remove(nextNode);
+            resize(prevNode, prevNode.startAddress, prevNode.length + numBytes + nextNode.length);
+            node = prevNode;
+        } else if (mergePrev) {
+            // Extend the preceding block forwards
+            resize(prevNode, prevNode.startAddress, prevNode.length + numBytes);
+            node = prevNode;
+        } else if (mergeNext) {
+            // Extend the following block backwards
+            resize(nextNode, startAddress, numBytes + nextNode.length);
+            node = nextNode;
         } else {
-            // This block is elsewhere in the list
-            prevNode.next = new FLNode(startAddress, numBytes, nextNode);
+            node = insertAfter(prevNode, startAddress, numBytes);
+        }
+        this.freeCount++;
+        return node;
+    }
+
+    /**
+     * Compact the list if automatic compaction is enabled and the list holds more blocks per discrete region than the
+     * configured ratio.
+     */
+    private void compactIfFragmented() {
+        int regions = this.size - this.contiguousPairs;
+        if (this.autoCompactionRatio > 0 && this.size > (long) this.autoCompactionRatio * regions) {
+            compact();
         }
+    }
 
-        this.size++;
+    /**
+     * Compact the list before an allocation fails, if automatic compaction is enabled and compaction could create a
+     * block large enough to satisfy it.
+     *
+     * @param numBytes The number of bytes that could not be allocated.
+     * @return Whether the list was compacted, in which case the search for a block should be repeated.
+     */
+    private boolean compactForAllocation(int numBytes) {
+        if (this.autoCompactionRatio == 0 || this.contiguousPairs == 0 || this.freeBytes < numBytes) {
+            return false;
+        }
+        compact();
+        return true;
     }
 
     /**
      * Compact contiguous free nodes in this list, as per the problem description.  This method has no preconditions.
      */
     private void compact() {
-        // If there are no free blocks, do nothing
-        if (this.first == null) {
+        // A full pass supersedes any incremental pass in progress, and may merge away the next-fit rover
+        this.compactCursor = null;
+        this.rover = null;
+
+        // If there are no free blocks, or eager coalescing has already merged every contiguous block, do nothing
+        if (this.first == null || this.coalesceOnFree) {
             return;
         }
 
         FLNode blockStart = this.first;
+        int blockLength = blockStart.length;
         for (FLNode curNode = this.first.next; curNode != null; curNode = curNode.next) {
-            if (blockStart.startAddress + blockStart.length == curNode.startAddress) {
+            if (blockStart.startAddress + blockLength == curNode.startAddress) {
                 // Boundaries align, merge nodes
-                blockStart.length += curNode.length;
+                blockLength += curNode.length;
+                unbin(curNode);
+                this.addressRoot = treapDelete(this.addressRoot, curNode, TreapOrder.BY_ADDRESS);
+                this.freeBytes -= curNode.length;
                 this.size--;
             } else {
                 // Discrete boundaries, unlink contiguous block
+                resize(blockStart, blockStart.startAddress, blockLength);
                 blockStart.next = curNode;
+                curNode.prev = blockStart;
                 blockStart = curNode;
+                blockLength = blockStart.length;
             }
         }
 
         // Relink last starting block
+        resize(blockStart, blockStart.startAddress, blockLength);
         blockStart.next = null;
+        // The pairs counted while the chain was being relinked are meaningless, but none remain contiguous
+        this.contiguousPairs = 0;
     }
 
     /**
-     * @return A string representation of the free blocks in this list.
+     * Perform a bounded slice of compaction, resuming from where the previous step left off.  Each step visits at most
+     * the specified number of nodes, merging contiguous blocks as <code>compact()</code> does; a full pass over a list
+     * of <i>n</i> blocks therefore takes about <i>n</i> / <code>maxNodes</code> steps.  Blocks freed behind the cursor
+     * during a pass are merged by the following pass.
+     *
+     * @param maxNodes The maximum number of nodes to visit in this step.
+     * @return Whether this step completed a pass over the list, in which case the next step begins a new pass.
+     * @throws IllegalArgumentException If <code>maxNodes</code> &le; 0.
      */
-    public String toString() {
-        StringBuilder sb = new StringBuilder("Size: " + this.size + "; Blocks: ");
-        if (this.size == 0) {
-            sb.append("none");
+    public boolean compactStep(int maxNodes) {
+        if (maxNodes <= 0) {
+            throw new IllegalArgumentException("Compaction step must visit at least one node");
+        }
+
+        FLNode blockStart = this.compactCursor == null ? this.first : this.compactCursor;
+        for (int visited = 0; visited < maxNodes && blockStart != null && blockStart.next != null; visited++) {
+            FLNode curNode = blockStart.next;
+            if (blockStart.startAddress + blockStart.length == curNode.startAddress) {
+                // Boundaries align, merge nodes
+                remove(curNode);
+                resize(blockStart, blockStart.startAddress, blockStart.length + curNode.length);
+            } else {
+                // Discrete boundaries, move on to the next block
+                blockStart = curNode;
+            }
+        }
+
+        boolean passComplete = blockStart == null || blockStart.next == null;
+        this.compactCursor = passComplete ? null : blockStart;
+        return passComplete;
+    }
+
+    /**
+     * Create a new free block and link it into the list immediately after the specified node.
+     *
+     * @param prevNode The node after which to insert the block, or <code>null</code> to insert it at the front.
+     * @param address  The address at which the new block begins.
+     * @param length   The length of the new block in bytes.
+     * @return The newly-created block.
+     */
+    private FLNode insertAfter(FLNode prevNode, int address, int length) {
+        FLNode nextNode = prevNode == null ? this.first : prevNode.next;
+        FLNode node = new FLNode(address, length, nextNode);
+        this.prioritySeed ^= this.prioritySeed << 13;
+        this.prioritySeed ^= this.prioritySeed >>> 17;
+        this.prioritySeed ^= this.prioritySeed << 5;
+        node.priority = this.prioritySeed;
+        this.contiguousPairs += contiguous(prevNode, node) + contiguous(node, nextNode) - contiguous(prevNode, nextNode);
+        node.prev = prevNode;
+        if (prevNode == null) {
+            this.first = node;
         } else {
-            sb.append(this.first);
-            for (FLNode node = this.first.next; node != null; node = node.next) {
-                sb.append(", ");
-                sb.append(node);
+            prevNode.next = node;
+        }
+        if (nextNode != null) {
+            nextNode.prev = node;
+        }
+
+        bin(node);
+        this.addressRoot = treapInsert(this.addressRoot, node, TreapOrder.BY_ADDRESS);
+        this.freeBytes += length;
+        this.size++;
+        return node;
+    }
+
+    /**
+     * Unlink the specified free block from the list.
+     *
+     * @param node The block to remove.  Must currently be in this list.
+     */
+    private void remove(FLNode node) {
+        this.contiguousPairs += contiguous(node.prev, node.next) - contiguous(node.prev, node)
+                - contiguous(node, node.next);
+        if (node.prev == null) {
+            this.first = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        if (node == this.compactCursor) {
+            // Resume compaction from the preceding block, which has already been visited
+            this.compactCursor = node.prev;
+        }
+        if (node == this.rover) {
+            this.rover = node.next;
+        }
+
+        unbin(node);
+        this.addressRoot = treapDelete(this.addressRoot, node, TreapOrder.BY_ADDRESS);
+        this.freeBytes -= node.length;
+        this.size--;
+    }
+
+    /**
+     * Change the bounds of the specified free block, moving it to the appropriate size-class bin or position in the
+     * size index if necessary.  The block's position in the list is unchanged, so the new bounds must preserve address
+     * ordering, and the address index remains valid without being restructured.
+     *
+     * @param node    The block to modify.
+     * @param address The new starting address of the block.
+     * @param length  The new length of the block in bytes.
+     */
+    private void resize(FLNode node, int address, int length) {
+        boolean rebin = this.sizeIndexed || (this.bins != null && binIndex(length) != binIndex(node.length));
+        if (rebin) {
+            unbin(node);
+        }
+        this.freeBytes += length - node.length;
+        this.contiguousPairs -= contiguous(node.prev, node) + contiguous(node, node.next);
+        node.startAddress = address;
+        node.length = length;
+        this.contiguousPairs += contiguous(node.prev, node) + contiguous(node, node.next);
+        if (rebin) {
+            bin(node);
+        }
+    }
+
+    /**
+     * @param first  A block, or <code>null</code>.
+     * @param second The block following <code>first</code> in the list, or <code>null</code>.
+     * @return 1 if both blocks exist and <code>first</code> ends where <code>second</code> begins, otherwise 0.
+     */
+    private static int contiguous(FLNode first, FLNode second) {
+        return first != null && second != null && first.startAddress + first.length == second.startAddress ? 1 : 0;
+    }
+
+    /**
+     * Add the specified block to the head of the size-class bin for its length, or to the size index under best-fit.
+     * Does nothing under the other policies.
+     *
+     * @param node The block to bin.  Must not currently be in a bin.
+     */
+    private void bin(FLNode node) {
+        if (this.sizeIndexed) {
+            this.sizeRoot = treapInsert(this.sizeRoot, node, TreapOrder.BY_SIZE);
+        }
+        if (this.bins == null) {
+            return;
+        }
+
+        int bin = binIndex(node.length);
+        node.binPrev = null;
+        node.binNext = this.bins[bin];
+        if (node.binNext != null) {
+            node.binNext.binPrev = node;
+        }
+        this.bins[bin] = node;
+        this.binMask |= 1L << bin;
+    }
+
+    /**
+     * Remove the specified block from its size-class bin, or from the size index under best-fit.  Does nothing under
+     * the other policies.
+     *
+     * @param node The block to remove.  Must currently be in the bin for its length.
+     */
+    private void unbin(FLNode node) {
+        if (this.sizeIndexed) {
+            this.sizeRoot = treapDelete(this.sizeRoot, node, TreapOrder.BY_SIZE);
+        }
+        if (this.bins == null) {
+            return;
+        }
+
+        int bin = binIndex(node.length);
+        if (node.binPrev == null) {
+            this.bins[bin] = node.binNext;
+            if (node.binNext == null) {
+                this.binMask &= ~(1L << bin);
+            }
+        } else {
+            node.binPrev.binNext = node.binNext;
+        }
+        if (node.binNext != null) {
+            node.binNext.binPrev = node.binPrev;
+        }
+        node.binPrev = null;
+        node.binNext = null;
+    }
+
+    /**
+     * Find the free block with the highest starting address below the specified address, by a descent of the address
+     * treap.  Every node descended through is counted in <code>searchVisits</code>.
+     *
+     * @param address An address.
+     * @return The last free block beginning before <code>address</code>, or <code>null</code> if there is none.
+     */
+    private FLNode lowerByAddress(int address) {
+        FLNode lower = null;
+        FLNode node = this.addressRoot;
+        while (node != null) {
+            this.searchVisits++;
+            if (node.startAddress < address) {
+                lower = node;
+                node = node.addressRight;
+            } else {
+                node = node.addressLeft;
+            }
+        }
+        return lower;
+    }
+
+    /**
+     * Find the shortest free block spanning at least the specified number of bytes, preferring the lowest address among
+     * equals, by a descent of the size treap.  Every node descended through is counted in <code>searchVisits</code>.
+     * Must only be called if <code>sizeIndexed</code>.
+     *
+     * @param numBytes The number of bytes to allocate.
+     * @return A block that can satisfy the allocation, or <code>null</code> if there is no such block.
+     */
+    private FLNode ceilingBySize(int numBytes) {
+        FLNode ceiling = null;
+        FLNode node = this.sizeRoot;
+        while (node != null) {
+            this.searchVisits++;
+            if (node.length >= numBytes) {
+                ceiling = node;
+                node = node.sizeLeft;
+            } else {
+                node = node.sizeRight;
+            }
+        }
+        return ceiling;
+    }
+
+    /**
+     * Insert a block into a treap, rotating it up past any ancestors of lower priority.
+     *
+     * @param root  The root of the treap, or <code>null</code> if it is empty.
+     * @param node  The block to insert.  Must not currently be in the treap.
+     * @param order The treap into which to insert the block.
+     * @return The new root of the treap.
+     */
+    private static FLNode treapInsert(FLNode root, FLNode node, TreapOrder order) {
+        if (root == null) {
+            order.setLeft(node, null);
+            order.setRight(node, null);
+            return node;
+        }
+
+        if (order.compare(node, root) < 0) {
+            FLNode left = treapInsert(order.left(root), node, order);
+            order.setLeft(root, left);
+            if (left.priority > root.priority) {
+                // Rotate right
+                order.setLeft(root, order.right(left));
+                order.setRight(left, root);
+                return left;
+            }
+        } else {
+            FLNode right = treapInsert(order.right(root), node, order);
+            order.setRight(root, right);
+            if (right.priority > root.priority) {
+                // Rotate left
+                order.setRight(root, order.left(right));
+                order.setLeft(right, root);
+                return right;
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Remove a block from a treap, replacing it with the merge of its subtrees.
+     *
+     * @param root  The root of the treap.
+     * @param node  The block to remove.  Must currently be in the treap, with the bounds under which it was inserted.
+     * @param order The treap from which to remove the block.
+     * @return The new root of the treap.
+     */
+    private static FLNode treapDelete(FLNode root, FLNode node, TreapOrder order) {
+        if (root == node) {
+            FLNode merged = treapMerge(order.left(node), order.right(node), order);
+            order.setLeft(node, null);
+            order.setRight(node, null);
+            return merged;
+        }
+
+        if (order.compare(node, root) < 0) {
+            order.setLeft(root, treapDelete(order.left(root), node, order));
+        } else {
+            order.setRight(root, treapDelete(order.right(root), node, order));
+        }
+        return root;
+    }
+
+    /**
+     * Merge two treaps, every block of the first of which precedes every block of the second.
+     *
+     * @param left  The root of the first treap, or <code>null</code> if it is empty.
+     * @param right The root of the second treap, or <code>null</code> if it is empty.
+     * @param order The ordering of both treaps.
+     * @return The root of the merged treap.
+     */
+    private static FLNode treapMerge(FLNode left, FLNode right, TreapOrder order) {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        } else if (left.priority > right.priority) {
+            order.setRight(left, treapMerge(order.right(left), right, order));
+            return left;
+        } else {
+            order.setLeft(right, treapMerge(left, order.left(right), order));
+            return right;
+        }
+    }
+
+    /**
+     * Determine the size-class bin into which a free block of the specified length is placed.  Lengths below
+     * <code>SMALL_BIN_LIMIT</code> map to their own bin; all others map to the bin for the largest power of two not
+     * exceeding them.
+     *
+     * @param length The length of the block in bytes.  Must be positive.
+     * @return The index of the bin for blocks of the specified length.
+     */
+    private static int binIndex(int length) {
+        if (length < SMALL_BIN_LIMIT) {
+            return length;
+        }
+        int log2 = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(length);
+        int smallLog2 = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(SMALL_BIN_LIMIT);
+        return SMALL_BIN_LIMIT + log2 - smallLog2;
+    }
+
+    /**
+     * Capture the current allocation metrics of this list.  All counters are maintained incrementally at the cost of a
+     * few increments per operation; only the largest free block is computed on demand, by a walk of the list under
+     * the linear policies, of the largest non-empty bin under segregated fit, or of the size index under best fit.
+     *
+     * @return A snapshot of the metrics of this list.
+     */
+    public Stats stats() {
+        return new Stats(this.allocationCount, this.failedAllocationCount, this.freeCount, this.size, this.freeBytes,
+                largestFreeBlock(), this.allocateVisits.clone(), this.freeVisits.clone());
+    }
+
+    @Override
+    public void forEachFreeBlock(BlockVisitor visitor) {
+        for (FLNode node = this.first; node != null; node = node.next) {
+            visitor.visit(node.startAddress, node.length);
+        }
+    }
+
+    /**
+     * @return The total number of free bytes in this list, which is maintained incrementally.
+     */
+    @Override
+    public int freeBytes() {
+        return this.freeBytes;
+    }
+
+    /**
+     * Find the largest free block by a walk of the list under the linear policies, of the largest non-empty bin under
+     * segregated fit, or of the size index under best fit.
+     *
+     * @return The length of the largest free block in this list, or 0 if no bytes are free.
+     */
+    @Override
+    public int largestFreeBlock() {
+        int largest = 0;
+        if (this.sizeIndexed) {
+            for (FLNode node = this.sizeRoot; node != null; node = node.sizeRight) {
+                largest = node.length;
+            }
+        } else if (this.bins != null) {
+            if (this.binMask != 0) {
+                int bin = Long.SIZE - 1 - Long.numberOfLeadingZeros(this.binMask);
+                for (FLNode node = this.bins[bin]; node != null; node = node.binNext) {
+                    largest = Math.max(largest, node.length);
+                }
+            }
+        } else {
+            for (FLNode node = this.first; node != null; node = node.next) {
+                largest = Math.max(largest, node.length);
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Register a JMX view of this list's metrics with the platform MBean server.  Each attribute read takes a fresh
+     * <code>stats()</code> snapshot while holding this list's monitor, so a list registered this way must only be
+     * used while synchronised on itself.
+     *
+     * @param name The object name under which to register the view, such as
+     *             <code>LinkedList.FreeList:type=FreeList,name=heap</code>.
+     * @return The name under which the view was registered.
+     * @throws JMException If the name is malformed or already registered.
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName(name);
+        FreeListMXBean view = (FreeListMXBean) Proxy.newProxyInstance(
+                FreeListMXBean.class.getClassLoader(), new Class<?>[] {FreeListMXBean.class},
+                (proxy, method, args) -> {
+                    synchronized (this) {
+                        return method.invoke(stats(), args);
+                    }
+                });
+        ManagementFactory.getPlatformMBeanServer().registerMBean(view, objectName);
+        return objectName;
+    }
+
+    /**
+     * Determine the histogram bucket into which an operation examining the specified number of nodes falls.  Bucket 0
+     * counts operations examining no nodes, and bucket <i>i</i> &gt; 0 those examining between 2<sup><i>i</i> -
+     * 1</sup> and 2<sup><i>i</i></sup> - 1 nodes inclusive.
+     *
+     * @param visits The number of nodes examined.
+     * @return The index of the histogram bucket.
+     */
+    private static int histogramBucket(int visits) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(visits);
+    }
+
+    /**
+     * @return A string representation of the free blocks in this list.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Size: " + this.size + "; Blocks: ");
+        if (this.size == 0) {
+            sb.append("none");
+        } else {
+            sb.append(this.first);
+            for (FLNode node = this.first.next; node != null; node = node.next) {
+                sb.append(", ");
+                sb.append(node);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static class FLNode {
+        /** Starting address of this free block. */
+        public int startAddress;
+        /** Length of this free block in bytes. */
+        public int length;
+        /** Next free block in the list. */
+        public FLNode next;
+        /** Previous free block in the list. */
+        public FLNode prev;
+        /** Next free block in the same size-class bin. */
+        public FLNode binNext;
+        /** Previous free block in the same size-class bin. */
+        public FLNode binPrev;
+        /** Children of this block in the address treap. */
+        public FLNode addressLeft;
+        public FLNode addressRight;
+        /** Children of this block in the size treap, used only under best fit. */
+        public FLNode sizeLeft;
+        public FLNode sizeRight;
+        /** Heap priority of this block in both treaps. */
+        public int priority;
+
+        /**
+         * FreeList free block constructor.
+         *
+         * @param address     The address at which this free block should begin.
+         * @param blockLength The length of this free block in bytes.
+         * @param nextNode    The free block following this one.  May be null to signify the end of the list.
+         */
+        public FLNode(int address, int blockLength, FLNode nextNode) {
+            this.startAddress = address;
+            this.length = blockLength;
+            this.next = nextNode;
+        }
+
+        /**
+         * @return A representation of this free block as a 2-tuple: (startAddress, length).
+         */
+        public String toString() {
+            return String.format("(%d, %d)", this.startAddress, this.length);
+        }
+    }
+
+    /**
+     * The orderings in which free blocks are indexed, each selecting the pair of child links in <code>FLNode</code>
+     * through which its treap is threaded.
+     */
+    private enum TreapOrder {
+        /** Blocks ordered by starting address. */
+        BY_ADDRESS {
+            @Override
+            FLNode left(FLNode node) {
+                return node.addressLeft;
+            }
+
+            @Override
+            FLNode right(FLNode node) {
+                return node.addressRight;
+            }
+
+            @Override
+            void setLeft(FLNode node, FLNode child) {
+                node.addressLeft = child;
+            }
+
+            @Override
+            void setRight(FLNode node, FLNode child) {
+                node.addressRight = child;
+            }
+
+            @Override
+            int compare(FLNode first, FLNode second) {
+                return Integer.compare(first.startAddress, second.startAddress);
+            }
+        },
+        /** Blocks ordered by length, then by starting address. */
+        BY_SIZE {
+            @Override
+            FLNode left(FLNode node) {
+                return node.sizeLeft;
+            }
+
+            @Override
+            FLNode right(FLNode node) {
+                return node.sizeRight;
+            }
+
+            @Override
+            void setLeft(FLNode node, FLNode child) {
+                node.sizeLeft = child;
+            }
+
+            @Override
+            void setRight(FLNode node, FLNode child) {
+                node.sizeRight = child;
+            }
+
+            @Override
+            int compare(FLNode first, FLNode second) {
+                int byLength = Integer.compare(first.length, second.length);
+                return byLength != 0 ? byLength : Integer.compare(first.startAddress, second.startAddress);
+            }
+        };
+
+        abstract FLNode left(FLNode node);
+
+        abstract FLNode right(FLNode node);
+
+        abstract void setLeft(FLNode node, FLNode child);
+
+        abstract void setRight(FLNode node, FLNode child);
+
+        abstract int compare(FLNode first, FLNode second);
+    }
+
+    /**
+     * An immutable snapshot of the allocation metrics of a free list, as returned by <code>FreeList.stats()</code>.
+     */
+    public static final class Stats implements FreeListMXBean {
+        private final long allocationCount;
+        private final long failedAllocationCount;
+        private final long freeCount;
+        private final int blockCount;
+        private final int freeBytes;
+        private final int largestFreeBlock;
+        private final long[] allocateVisitHistogram;
+        private final long[] freeVisitHistogram;
+
+        private Stats(long allocationCount, long failedAllocationCount, long freeCount, int blockCount, int freeBytes,
+                      int largestFreeBlock, long[] allocateVisitHistogram, long[] freeVisitHistogram) {
+            this.allocationCount = allocationCount;
+            this.failedAllocationCount = failedAllocationCount;
+            this.freeCount = freeCount;
+            this.blockCount = blockCount;
+            this.freeBytes = freeBytes;
+            this.largestFreeBlock = largestFreeBlock;
+            this.allocateVisitHistogram = allocateVisitHistogram;
+            this.freeVisitHistogram = freeVisitHistogram;
+        }
+
+        @Override
+        public long getAllocationCount() {
+            return this.allocationCount;
+        }
+
+        @Override
+        public long getFailedAllocationCount() {
+            return this.failedAllocationCount;
+        }
+
+        @Override
+        public long getFreeCount() {
+            return this.freeCount;
+        }
+
+        @Override
+        public int getBlockCount() {
+            return this.blockCount;
+        }
+
+        @Override
+        public int getFreeBytes() {
+            return this.freeBytes;
+        }
+
+        @Override
+        public int getLargestFreeBlock() {
+            return this.largestFreeBlock;
+        }
+
+        @Override
+        public double getFragmentation() {
+            return this.freeBytes == 0 ? 0.0 : 1.0 - (double) this.largestFreeBlock / this.freeBytes;
+        }
+
+        @Override
+        public long[] getAllocateVisitHistogram() {
+            return this.allocateVisitHistogram.clone();
+        }
+
+        @Override
+        public long[] getFreeVisitHistogram() {
+            return this.freeVisitHistogram.clone();
+        }
+
+        /**
+         * @return A summary of these metrics.
+         */
+        public String toString() {
+            return String.format("Allocations: %d (%d failed); Frees: %d; Blocks: %d; Free bytes: %d; Largest: %d; "
+                            + "Fragmentation: %.3f; Allocate visits: %s; Free visits: %s", this.allocationCount,
+                    this.failedAllocationCount, this.freeCount, this.blockCount, this.freeBytes, this.largestFreeBlock,
+                    getFragmentation(), Arrays.toString(this.allocateVisitHistogram),
+                    Arrays.toString(this.freeVisitHistogram));
+        }
+    }
+
+
+    @DisplayName("FreeList harness tests (should all pass)")
+    @Tag("FreeListSolution")
+    public static class FreeListHarnessTest {
+        private FreeList list;
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @BeforeEach
+        void setUp() {
+            list = new FreeList(MEMORY_SIZE);
+        }
+
+        @Test
+        @DisplayName("Constructor properly initialises list")
+        void constructor() {
+            assertEquals(1, list.size);
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Constructor precondition: numBytes > 0")
+        void constructorPrecondition() {
+            assertThrows(IllegalArgumentException.class, () -> new FreeList(0));
+        }
+
+        @Test
+        @DisplayName("Allocate all free space at once")
+        void allFreeSpaceOnce() {
+            assertEquals(0, list.allocate(MEMORY_SIZE));
+            assertEquals(0, list.size);
+            assertEquals("Size: 0; Blocks: none", list.toString());
+        }
+
+        @Test
+        @DisplayName("Cannot allocate once out of space")
+        void noSpace() {
+            list.allocate(MEMORY_SIZE);
+            assertThrows(NoSuchElementException.class, () -> list.allocate(1));
+        }
+
+        @Test
+        @DisplayName("Allocate all free space separate times")
+        void allFreeSpaceMany() {
+            assertEquals(0, list.allocate(512));
+            assertEquals(1, list.size);
+            assertEquals("Size: 1; Blocks: (512, 512)", list.toString());
+
+            assertEquals(512, list.allocate(256));
+            assertEquals(1, list.size);
+            assertEquals("Size: 1; Blocks: (768, 256)", list.toString());
+
+            assertEquals(768, list.allocate(256));
+            assertEquals(0, list.size);
+            assertEquals("Size: 0; Blocks: none", list.toString());
+        }
+
+        @Test
+        @DisplayName("Cannot allocate non-positive sizes")
+        void allocateNonPositive() {
+            assertThrows(IllegalArgumentException.class, () -> list.allocate(-1));
+        }
+
+        @Test
+        @DisplayName("Cannot free non-positive sizes")
+        void freeNonPositiveSize() {
+            int start = list.allocate(100);
+            assertThrows(IllegalArgumentException.class, () -> list.free(start, 0));
+        }
+
+        @Test
+        @DisplayName("Cannot free negative addresses")
+        void freeNegativeAddress() {
+            list.allocate(100);
+            assertThrows(IllegalArgumentException.class, () -> list.free(-1, 100));
+        }
+
+        @Test
+        @DisplayName("Cannot free address outside range")
+        void freeAddressTooLarge() {
+            list.allocate(MEMORY_SIZE);
+            assertThrows(IllegalArgumentException.class, () -> list.free(MEMORY_SIZE + 1, MEMORY_SIZE));
+        }
+
+        @Test
+        @DisplayName("Cannot free outside address space")
+        void freeOutsideAddressSpace() {
+            int start = list.allocate(MEMORY_SIZE);
+            assertThrows(IllegalArgumentException.class, () -> list.free(start, MEMORY_SIZE + 1));
+        }
+
+        @Test
+        @DisplayName("Cannot free already free memory")
+        void freeAlreadyFreed() {
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, 100));
+        }
+
+        @Test
+        @DisplayName("Cannot free already free memory 2")
+        void freeAlreadyFreed2() {
+            int start = list.allocate(100);
+            assertThrows(IllegalArgumentException.class, () -> list.free(start, 101));
+        }
+
+        @Test
+        @DisplayName("Free all memory")
+        void freeAllMemory() {
+            int start = list.allocate(MEMORY_SIZE);
+            list.free(start, MEMORY_SIZE);
+            assertEquals(1, list.size);
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Free block in middle of list")
+        void freeMiddle() {
+            list.allocate(MEMORY_SIZE);
+            list.free(512, 256);
+            assertEquals(1, list.size);
+            assertEquals("Size: 1; Blocks: (512, 256)", list.toString());
+            assertThrows(IllegalArgumentException.class, () -> list.free(512, 256));
+        }
+
+        @Test
+        @DisplayName("Free multiple blocks")
+        void freeMultiple() {
+            list.allocate(MEMORY_SIZE);
+            list.free(0, 256);
+            list.free(768, 256);
+            assertEquals(2, list.size);
+            assertEquals("Size: 2; Blocks: (0, 256), (768, 256)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Free small blocks in loop")
+        void freeSmallLoop() {
+            list.allocate(MEMORY_SIZE);
+            for (int i = 0; i < MEMORY_SIZE; i++) {
+                list.free(i, 1);
+            }
+            assertEquals(MEMORY_SIZE, list.size);
+        }
+
+        @Test
+        @DisplayName("Allocate first block exactly when others remain")
+        void allocateFirstExact() {
+            list.allocate(MEMORY_SIZE);
+            list.free(0, 256);
+            list.free(768, 256);
+            assertEquals(0, list.allocate(256));
+            assertEquals(1, list.size);
+            assertEquals("Size: 1; Blocks: (768, 256)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Cannot free memory inside a free block")
+        void freeInsideFreeBlock() {
+            list.allocate(256);
+            assertThrows(IllegalArgumentException.class, () -> list.free(512, 16));
+            assertThrows(IllegalArgumentException.class, () -> list.free(200, 100));
+            assertEquals("Size: 1; Blocks: (256, 768)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Free small blocks in reverse order")
+        void freeSmallLoopReverse() {
+            list.allocate(MEMORY_SIZE);
+            for (int i = MEMORY_SIZE - 1; i >= 0; i -= 2) {
+                list.free(i, 1);
+            }
+            for (int i = 0; i < MEMORY_SIZE; i += 2) {
+                list.free(i, 1);
+            }
+            assertEquals(MEMORY_SIZE, list.size);
+            assertTrue(list.toString().startsWith("Size: 1024; Blocks: (0, 1), (1, 1), (2, 1), "));
+        }
+    }
+
+    @DisplayName("FreeList compaction tests")
+    @Tag("FreeListSolution")
+    public static class FreeListCompactionTest {
+        private FreeList list;
+        /**
+         * Each free list under test will control 1024 bytes in total.
+         */
+        private static final int MEMORY_SIZE = 1024;
+
+        @BeforeEach
+        void setUp() {
+            list = new FreeList(MEMORY_SIZE);
+            list.allocate(MEMORY_SIZE);
+        }
+
+        @Test
+        @DisplayName("No free blocks in list")
+        void noFreeBlocks() {
+            list.compact();
+            assertEquals(0, list.size);
+            assertEquals("Size: 0; Blocks: none", list.toString());
+        }
+
+        @Test
+        @DisplayName("One free block")
+        void oneFreeBlock() {
+            list.free(0, MEMORY_SIZE);
+            list.compact();
+            assertEquals(1, list.size);
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Two non-contiguous free blocks")
+        void twoNonContiguousBlocks() {
+            list.free(0, 256);
+            list.free(768, 256);
+            list.compact();
+            assertEquals(2, list.size);
+            assertEquals("Size: 2; Blocks: (0, 256), (768, 256)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Merge two contiguous free blocks")
+        void twoContiguousBlocks() {
+            list.free(0, 512);
+            list.free(512, 512);
+            list.compact();
+            assertEquals(1, list.size);
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Merge two non-contiguous ranges")
+        void nonContiguousRanges() {
+            list.free(0, 128);
+            list.free(128, 256);
+            list.free(512, 128);
+            list.free(640, 384);
+            list.compact();
+            assertEquals(2, list.size);
+            assertEquals("Size: 2; Blocks: (0, 384), (512, 512)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Problem description example 1")
+        void descriptionExample1() {
+            list.free(240, 20);
+            list.free(270, 15);
+            list.free(285, 15);
+            list.free(350, 8);
+            list.free(360, 10);
+            list.free(370, 16);
+            list.compact();
+            assertEquals(4, list.size);
+            assertEquals("Size: 4; Blocks: (240, 20), (270, 30), (350, 8), (360, 26)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Problem description example 2")
+        void descriptionExample2() {
+            list.free(0, 84);
+            list.free(84, 16);
+            list.free(100, 20);
+            list.free(120, 80);
+            list.free(220, 16);
+            list.compact();
+            assertEquals(2, list.size);
+            assertEquals("Size: 2; Blocks: (0, 200), (220, 16)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Problem description example 3")
+        void descriptionExample3() {
+            list.free(0, 100);
+            list.free(100, 100);
+            list.free(200, 100);
+            list.free(300, 100);
+            list.compact();
+            assertEquals(1, list.size);
+            assertEquals("Size: 1; Blocks: (0, 400)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Compact single bytes")
+        void compactSingleBytes() {
+            for (int i = 0; i < MEMORY_SIZE; i++) {
+                list.free(i, 1);
+            }
+            list.compact();
+            assertEquals(1, list.size);
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+    }
+
+    @DisplayName("FreeList segregated-fit tests")
+    @Tag("FreeListSolution")
+    public static class FreeListSegregatedTest {
+        private FreeList list;
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @BeforeEach
+        void setUp() {
+            list = new FreeList(MEMORY_SIZE, AllocationPolicy.SEGREGATED_FIT);
+        }
+
+        @Test
+        @DisplayName("Constructor precondition: policy not null")
+        void constructorPrecondition() {
+            assertThrows(IllegalArgumentException.class, () -> new FreeList(MEMORY_SIZE, null));
+        }
+
+        @Test
+        @DisplayName("Allocate all free space separate times")
+        void allFreeSpaceMany() {
+            assertEquals(0, list.allocate(512));
+            assertEquals(512, list.allocate(256));
+            assertEquals(768, list.allocate(256));
+            assertEquals("Size: 0; Blocks: none", list.toString());
+            assertThrows(NoSuchElementException.class, () -> list.allocate(1));
+        }
+
+        @Test
+        @DisplayName("Small requests are served by an exact fit")
+        void smallExactFit() {
+            list.allocate(MEMORY_SIZE);
+            list.free(0, 16);
+            list.free(100, 8);
+            list.free(200, 16);
+            assertEquals(100, list.allocate(8));
+            assertEquals("Size: 2; Blocks: (0, 16), (200, 16)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Large requests skip blocks that are too small")
+        void largeSkipsSmall() {
+            list.allocate(MEMORY_SIZE);
+            list.free(0, 40);
+            list.free(100, 300);
+            list.free(500, 70);
+            assertEquals(100, list.allocate(65));
+            assertEquals("Size: 3; Blocks: (0, 40), (165, 235), (500, 70)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Requests fall back to searching their own size class")
+        void ownClassFallback() {
+            list.allocate(MEMORY_SIZE);
+            list.free(0, 65);
+            list.free(100, 100);
+            assertEquals(100, list.allocate(100));
+            assertEquals("Size: 1; Blocks: (0, 65)", list.toString());
+            assertThrows(NoSuchElementException.class, () -> list.allocate(66));
+        }
+
+        @Test
+        @DisplayName("Compacted blocks are rebinned")
+        void compactRebins() {
+            list.allocate(MEMORY_SIZE);
+            for (int i = 0; i < MEMORY_SIZE; i++) {
+                list.free(i, 1);
+            }
+            list.compact();
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+            assertEquals(0, list.allocate(MEMORY_SIZE));
+            assertThrows(NoSuchElementException.class, () -> list.allocate(1));
+        }
+
+        @Test
+        @DisplayName("Same addresses as first-fit when every block fits")
+        void matchesFirstFit() {
+            FreeList firstFit = new FreeList(MEMORY_SIZE);
+            for (int i = 0; i < MEMORY_SIZE / 8; i++) {
+                assertEquals(firstFit.allocate(8), list.allocate(8));
+            }
+            assertEquals(firstFit.toString(), list.toString());
+        }
+    }
+
+    @DisplayName("FreeList eager coalescing tests")
+    @Tag("FreeListSolution")
+    public static class FreeListCoalescingTest {
+        private FreeList list;
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @BeforeEach
+        void setUp() {
+            list = new FreeList(MEMORY_SIZE);
+            list.allocate(MEMORY_SIZE);
+            list.setCoalesceOnFree(true);
+        }
+
+        @Test
+        @DisplayName("Discrete blocks are not merged")
+        void discreteBlocks() {
+            list.free(0, 256);
+            list.free(768, 256);
+            assertEquals(2, list.size);
+            assertEquals("Size: 2; Blocks: (0, 256), (768, 256)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Merge with preceding block")
+        void mergePrevious() {
+            list.free(0, 100);
+            list.free(100, 50);
+            assertEquals("Size: 1; Blocks: (0, 150)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Merge with following block")
+        void mergeNext() {
+            list.free(100, 50);
+            list.free(0, 100);
+            assertEquals("Size: 1; Blocks: (0, 150)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Merge with both neighbours")
+        void mergeBoth() {
+            list.free(0, 100);
+            list.free(200, 100);
+            list.free(100, 100);
+            assertEquals("Size: 1; Blocks: (0, 300)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Problem description example 1")
+        void descriptionExample1() {
+            list.free(240, 20);
+            list.free(270, 15);
+            list.free(285, 15);
+            list.free(350, 8);
+            list.free(360, 10);
+            list.free(370, 16);
+            assertEquals("Size: 4; Blocks: (240, 20), (270, 30), (350, 8), (360, 26)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Free small blocks in loop")
+        void freeSmallLoop() {
+            for (int i = 0; i < MEMORY_SIZE; i++) {
+                list.free(i, 1);
+            }
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Enabling coalescing compacts the list")
+        void enableCompacts() {
+            list.setCoalesceOnFree(false);
+            list.free(0, 512);
+            list.free(512, 512);
+            assertEquals(2, list.size);
+            list.setCoalesceOnFree(true);
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Merged blocks are rebinned under segregated fit")
+        void segregatedMerge() {
+            list = new FreeList(MEMORY_SIZE, AllocationPolicy.SEGREGATED_FIT);
+            list.allocate(MEMORY_SIZE);
+            list.setCoalesceOnFree(true);
+            for (int i = 0; i < MEMORY_SIZE; i += 8) {
+                list.free(i, 8);
+            }
+            assertEquals(0, list.allocate(MEMORY_SIZE));
+        }
+    }
+
+    @DisplayName("FreeList incremental compaction tests")
+    @Tag("FreeListSolution")
+    public static class FreeListIncrementalCompactionTest {
+        private FreeList list;
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @BeforeEach
+        void setUp() {
+            list = new FreeList(MEMORY_SIZE);
+            list.allocate(MEMORY_SIZE);
+        }
+
+        @Test
+        @DisplayName("Step precondition: maxNodes > 0")
+        void stepPrecondition() {
+            assertThrows(IllegalArgumentException.class, () -> list.compactStep(0));
+            assertThrows(IllegalArgumentException.class, () -> list.setBackgroundCompactionBudget(-1));
+        }
+
+        @Test
+        @DisplayName("Empty list completes immediately")
+        void emptyList() {
+            assertTrue(list.compactStep(1));
+            assertEquals("Size: 0; Blocks: none", list.toString());
+        }
+
+        @Test
+        @DisplayName("Problem description example 1 in single-node steps")
+        void descriptionExample1() {
+            list.free(240, 20);
+            list.free(270, 15);
+            list.free(285, 15);
+            list.free(350, 8);
+            list.free(360, 10);
+            list.free(370, 16);
+
+            int steps = 1;
+            while (!list.compactStep(1)) {
+                steps++;
+            }
+            assertEquals(5, steps);
+            assertEquals("Size: 4; Blocks: (240, 20), (270, 30), (350, 8), (360, 26)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Steps resume from saved cursor")
+        void resumeFromCursor() {
+            for (int i = 0; i < MEMORY_SIZE; i++) {
+                list.free(i, 1);
+            }
+            assertFalse(list.compactStep(256));
+            assertEquals(MEMORY_SIZE - 256, list.size);
+            assertFalse(list.compactStep(512));
+            assertTrue(list.compactStep(512));
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Cursor survives removal of its block")
+        void cursorRemoved() {
+            list.free(0, 10);
+            list.free(20, 10);
+            list.free(30, 10);
+            list.free(50, 10);
+            list.free(60, 10);
+            assertFalse(list.compactStep(1));
+            // The cursor now rests on (20, 10); allocating it exactly removes it from the list
+            assertEquals(0, list.allocate(10));
+            assertEquals(20, list.allocate(10));
+            while (!list.compactStep(1)) {
+                // Keep stepping until the pass completes
+            }
+            assertEquals("Size: 2; Blocks: (30, 10), (50, 20)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Background compaction merges blocks between operations")
+        void backgroundCompaction() {
+            list.setBackgroundCompactionBudget(4);
+            for (int i = 0; i < MEMORY_SIZE; i++) {
+                list.free(i, 1);
+            }
+            assertTrue(list.size < MEMORY_SIZE);
+            assertEquals(0, list.allocate(MEMORY_SIZE / 2));
+        }
+    }
+
+    @DisplayName("FreeList placement policy tests")
+    @Tag("FreeListSolution")
+    public static class FreeListPlacementTest {
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        /**
+         * Create a fully allocated list of the specified policy, then free the blocks (0, 100), (200, 30), (300, 60),
+         * and (400, 200).
+         */
+        private static FreeList fragmentedList(AllocationPolicy policy) {
+            FreeList list = new FreeList(MEMORY_SIZE, policy);
+            list.allocate(MEMORY_SIZE);
+            list.free(0, 100);
+            list.free(200, 30);
+            list.free(300, 60);
+            list.free(400, 200);
+            return list;
+        }
+
+        @Test
+        @DisplayName("First fit chooses the lowest-addressed fitting block")
+        void firstFit() {
+            FreeList list = fragmentedList(AllocationPolicy.FIRST_FIT);
+            assertEquals(0, list.allocate(50));
+            assertEquals(300, list.allocate(60));
+        }
+
+        @Test
+        @DisplayName("Best fit chooses the smallest fitting block")
+        void bestFit() {
+            FreeList list = fragmentedList(AllocationPolicy.BEST_FIT);
+            assertEquals(300, list.allocate(50));
+            assertEquals(200, list.allocate(30));
+            assertEquals(0, list.allocate(90));
+            assertEquals("Size: 3; Blocks: (90, 10), (350, 10), (400, 200)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Worst fit chooses the largest block")
+        void worstFit() {
+            FreeList list = fragmentedList(AllocationPolicy.WORST_FIT);
+            assertEquals(400, list.allocate(10));
+            assertEquals(410, list.allocate(100));
+            assertEquals(0, list.allocate(10));
+            assertThrows(NoSuchElementException.class, () -> list.allocate(101));
+        }
+
+        @Test
+        @DisplayName("Next fit resumes after the previous allocation")
+        void nextFit() {
+            FreeList list = fragmentedList(AllocationPolicy.NEXT_FIT);
+            assertEquals(0, list.allocate(10));
+            assertEquals(10, list.allocate(10));
+            assertEquals(400, list.allocate(95));
+            assertEquals(495, list.allocate(10));
+        }
+
+        @Test
+        @DisplayName("Next fit wraps around to the start of the list")
+        void nextFitWraps() {
+            FreeList list = fragmentedList(AllocationPolicy.NEXT_FIT);
+            assertEquals(400, list.allocate(150));
+            assertEquals(0, list.allocate(90));
+            assertEquals(300, list.allocate(50));
+            assertThrows(NoSuchElementException.class, () -> list.allocate(51));
+            assertEquals("Size: 4; Blocks: (90, 10), (200, 30), (350, 10), (550, 50)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Next fit survives compaction of its rover")
+        void nextFitCompaction() {
+            FreeList list = fragmentedList(AllocationPolicy.NEXT_FIT);
+            assertEquals(0, list.allocate(100));
+            assertEquals(200, list.allocate(30));
+            list.free(200, 30);
+            list.free(230, 70);
+            list.compact();
+            assertEquals(200, list.allocate(160));
+            assertEquals(400, list.allocate(200));
+        }
+
+        @Test
+        @DisplayName("Every policy passes the harness allocation sequence")
+        void harnessSequence() {
+            for (AllocationPolicy policy : AllocationPolicy.values()) {
+                FreeList list = new FreeList(MEMORY_SIZE, policy);
+                assertEquals(0, list.allocate(512));
+                assertEquals(512, list.allocate(256));
+                assertEquals(768, list.allocate(256));
+                assertThrows(NoSuchElementException.class, () -> list.allocate(1));
+                list.free(0, 256);
+                list.free(768, 256);
+                assertEquals("Size: 2; Blocks: (0, 256), (768, 256)", list.toString());
+            }
+        }
+    }
+
+    @DisplayName("FreeList metrics tests")
+    @Tag("FreeListSolution")
+    public static class FreeListStatsTest {
+        private FreeList list;
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @BeforeEach
+        void setUp() {
+            list = new FreeList(MEMORY_SIZE);
+        }
+
+        @Test
+        @DisplayName("New list is unfragmented")
+        void newList() {
+            Stats stats = list.stats();
+            assertEquals(0, stats.getAllocationCount());
+            assertEquals(1, stats.getBlockCount());
+            assertEquals(MEMORY_SIZE, stats.getFreeBytes());
+            assertEquals(MEMORY_SIZE, stats.getLargestFreeBlock());
+            assertEquals(0.0, stats.getFragmentation());
+        }
+
+        @Test
+        @DisplayName("Counters track operations")
+        void counters() {
+            list.allocate(MEMORY_SIZE);
+            list.free(0, 256);
+            list.free(768, 128);
+            assertThrows(NoSuchElementException.class, () -> list.allocate(512));
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, 1));
+
+            Stats stats = list.stats();
+            assertEquals(1, stats.getAllocationCount());
+            assertEquals(1, stats.getFailedAllocationCount());
+            assertEquals(2, stats.getFreeCount());
+            assertEquals(2, stats.getBlockCount());
+            assertEquals(384, stats.getFreeBytes());
+            assertEquals(256, stats.getLargestFreeBlock());
+            assertEquals(1.0 / 3, stats.getFragmentation(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Free bytes survive compaction and coalescing")
+        void freeBytesMerging() {
+            list.allocate(MEMORY_SIZE);
+            for (int i = 0; i < MEMORY_SIZE / 2; i++) {
+                list.free(i, 1);
+            }
+            list.compact();
+            assertEquals(MEMORY_SIZE / 2, list.stats().getFreeBytes());
+            list.setCoalesceOnFree(true);
+            list.free(MEMORY_SIZE / 2, MEMORY_SIZE / 2);
+            assertEquals(MEMORY_SIZE, list.stats().getFreeBytes());
+            assertEquals(0.0, list.stats().getFragmentation());
+        }
+
+        @Test
+        @DisplayName("Visit histogram records search cost")
+        void visitHistogram() {
+            list.allocate(MEMORY_SIZE);
+            for (int i = 0; i < 16; i++) {
+                list.free(i * 64, 32);
             }
+            list.allocate(32);
+            assertThrows(NoSuchElementException.class, () -> list.allocate(64));
+            long[] histogram = list.stats().getAllocateVisitHistogram();
+            // Two searches found a block immediately; the last examined all 15 remaining blocks and failed
+            assertEquals(2, histogram[1]);
+            assertEquals(1, histogram[4]);
+            assertEquals(1, list.stats().getFailedAllocationCount());
         }
-        return sb.toString();
-    }
 
-    private static class FLNode {
-        /** Starting address of this free block. */
-        public int startAddress;
-        /** Length of this free block in bytes. */
-        public int length;
-        /** Next free block in the list. */
-        public FLNode next;
+        @Test
+        @DisplayName("Free visit histogram records search cost")
+        void freeVisitHistogram() {
+            list.allocate(MEMORY_SIZE);
+            for (int i = 0; i < 512; i++) {
+                list.free(2 * i, 1);
+            }
+            // The first free descends an empty treap; the rest descend a path of logarithmic expected length
+            long[] histogram = list.stats().getFreeVisitHistogram();
+            assertEquals(1, histogram[0]);
+            assertEquals(511, Arrays.stream(histogram, 1, histogramBucket(63) + 1).sum());
+            assertTrue(Arrays.stream(histogram, histogramBucket(4), histogram.length).sum() > 0);
 
-        /**
-         * FreeList free block constructor.
-         *
-         * @param address     The address at which this free block should begin.
-         * @param blockLength The length of this free block in bytes.
-         * @param nextNode    The free block following this one.  May be null to signify the end of the list.
-         */
-        public FLNode(int address, int blockLength, FLNode nextNode) {
-            this.startAddress = address;
-            this.length = blockLength;
-            this.next = nextNode;
+            // A batch free counts the list nodes stepped over to reach each block
+            long[] before = histogram;
+            list.freeBatch(new int[] {1, 1021}, new int[] {1, 1});
+            histogram = list.stats().getFreeVisitHistogram();
+            assertEquals(1, histogram[histogramBucket(1)] - before[histogramBucket(1)]);
+            assertEquals(1, histogram[histogramBucket(510)] - before[histogramBucket(510)]);
         }
 
-        /**
-         * @return A representation of this free block as a 2-tuple: (startAddress, length).
-         */
-        public String toString() {
-            return String.format("(%d, %d)", this.startAddress, this.length);
+        @Test
+        @DisplayName("Segregated fit finds largest block from bins")
+        void segregatedLargest() {
+            list = new FreeList(MEMORY_SIZE, AllocationPolicy.SEGREGATED_FIT);
+            list.allocate(MEMORY_SIZE);
+            list.free(0, 100);
+            list.free(200, 120);
+            list.free(400, 20);
+            assertEquals(120, list.stats().getLargestFreeBlock());
         }
-    }
 
+        @Test
+        @DisplayName("Metrics are visible through JMX")
+        void jmx() throws Exception {
+            ObjectName name = list.registerMBean("LinkedList.FreeList:type=FreeList,name=jmxTest");
+            try {
+                list.allocate(100);
+                assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "AllocationCount"));
+                assertEquals(924, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "FreeBytes"));
+            } finally {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            }
+        }
+    }
 
-    @DisplayName("FreeList harness tests (should all pass)")
+    @DisplayName("FreeList batch operation tests")
     @Tag("FreeListSolution")
-    public static class FreeListHarnessTest {
+    public static class FreeListBatchTest {
         private FreeList list;
         /** Each free list under test will control 1024 bytes in total. */
         private static final int MEMORY_SIZE = 1024;
@@ -261,144 +2237,265 @@ public class FreeList {
         }
 
         @Test
-        @DisplayName("Constructor properly initialises list")
-        void constructor() {
-            assertEquals(1, list.size);
+        @DisplayName("Free batch in arbitrary order")
+        void freeBatchUnordered() {
+            list.allocate(MEMORY_SIZE);
+            list.free(500, 10);
+            list.freeBatch(new int[] {768, 0, 400, 520}, new int[] {256, 100, 50, 8});
+            assertEquals("Size: 5; Blocks: (0, 100), (400, 50), (500, 10), (520, 8), (768, 256)", list.toString());
+            assertEquals(5, list.stats().getFreeCount());
+        }
+
+        @Test
+        @DisplayName("Free batch of single bytes")
+        void freeBatchSmallLoop() {
+            list.allocate(MEMORY_SIZE);
+            int[] starts = new int[MEMORY_SIZE];
+            int[] lengths = new int[MEMORY_SIZE];
+            for (int i = 0; i < MEMORY_SIZE; i++) {
+                starts[i] = MEMORY_SIZE - 1 - i;
+                lengths[i] = 1;
+            }
+            list.freeBatch(starts, lengths);
+            assertEquals(MEMORY_SIZE, list.size);
+            list.compact();
             assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
         }
 
         @Test
-        @DisplayName("Constructor precondition: numBytes > 0")
-        void constructorPrecondition() {
-            assertThrows(IllegalArgumentException.class, () -> new FreeList(0));
+        @DisplayName("Free batch coalesces when enabled")
+        void freeBatchCoalescing() {
+            list.allocate(MEMORY_SIZE);
+            list.setCoalesceOnFree(true);
+            list.free(100, 100);
+            list.freeBatch(new int[] {200, 0, 50, 300}, new int[] {100, 50, 50, 10});
+            assertEquals("Size: 1; Blocks: (0, 310)", list.toString());
         }
 
         @Test
-        @DisplayName("Allocate all free space at once")
-        void allFreeSpaceOnce() {
-            assertEquals(0, list.allocate(MEMORY_SIZE));
-            assertEquals(0, list.size);
-            assertEquals("Size: 0; Blocks: none", list.toString());
+        @DisplayName("Invalid batch frees nothing")
+        void freeBatchAtomic() {
+            list.allocate(512);
+            assertThrows(IllegalArgumentException.class,
+                    () -> list.freeBatch(new int[] {0, 100, 150}, new int[] {100, 100, 10}));
+            assertThrows(IllegalArgumentException.class,
+                    () -> list.freeBatch(new int[] {0, 500}, new int[] {100, 100}));
+            assertThrows(IllegalArgumentException.class,
+                    () -> list.freeBatch(new int[] {0, 100}, new int[] {100}));
+            assertThrows(IllegalArgumentException.class,
+                    () -> list.freeBatch(new int[] {0}, new int[] {0}));
+            assertEquals("Size: 1; Blocks: (512, 512)", list.toString());
         }
 
         @Test
-        @DisplayName("Cannot allocate once out of space")
-        void noSpace() {
+        @DisplayName("Allocate batch in a single pass")
+        void allocateBatch() {
             list.allocate(MEMORY_SIZE);
-            assertThrows(NoSuchElementException.class, () -> list.allocate(1));
+            list.freeBatch(new int[] {0, 100, 300}, new int[] {20, 100, 500});
+            int[] addresses = list.allocateBatch(new int[] {200, 10, 10, 90});
+            assertEquals(300, addresses[0]);
+            assertEquals(0, addresses[1]);
+            assertEquals(10, addresses[2]);
+            assertEquals(100, addresses[3]);
+            assertEquals("Size: 2; Blocks: (190, 10), (500, 300)", list.toString());
+            // The initial allocation of the whole list counts as well
+            assertEquals(5, list.stats().getAllocationCount());
         }
 
         @Test
-        @DisplayName("Allocate all free space separate times")
-        void allFreeSpaceMany() {
-            assertEquals(0, list.allocate(512));
-            assertEquals(1, list.size);
-            assertEquals("Size: 1; Blocks: (512, 512)", list.toString());
+        @DisplayName("Allocate batch under other policies")
+        void allocateBatchSegregated() {
+            list = new FreeList(MEMORY_SIZE, AllocationPolicy.SEGREGATED_FIT);
+            int[] addresses = list.allocateBatch(new int[] {512, 256, 256});
+            // Requests are served smallest first
+            assertEquals(512, addresses[0]);
+            assertEquals(256, addresses[1] + addresses[2]);
+            assertEquals("Size: 0; Blocks: none", list.toString());
+        }
 
-            assertEquals(512, list.allocate(256));
-            assertEquals(1, list.size);
-            assertEquals("Size: 1; Blocks: (768, 256)", list.toString());
+        @Test
+        @DisplayName("Failed batch allocation returns its memory")
+        void allocateBatchFails() {
+            assertThrows(NoSuchElementException.class, () -> list.allocateBatch(new int[] {512, 256, 512}));
+            assertThrows(IllegalArgumentException.class, () -> list.allocateBatch(new int[] {1, 0}));
+            list.compact();
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+    }
 
-            assertEquals(768, list.allocate(256));
-            assertEquals(0, list.size);
-            assertEquals("Size: 0; Blocks: none", list.toString());
+    @DisplayName("FreeList aligned allocation tests")
+    @Tag("FreeListSolution")
+    public static class FreeListAlignedTest {
+        private FreeList list;
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @BeforeEach
+        void setUp() {
+            list = new FreeList(MEMORY_SIZE);
         }
 
         @Test
-        @DisplayName("Cannot allocate non-positive sizes")
-        void allocateNonPositive() {
-            assertThrows(IllegalArgumentException.class, () -> list.allocate(-1));
+        @DisplayName("Alignment precondition: power of two")
+        void alignmentPrecondition() {
+            assertThrows(IllegalArgumentException.class, () -> list.allocate(16, 0));
+            assertThrows(IllegalArgumentException.class, () -> list.allocate(16, 24));
+            assertThrows(IllegalArgumentException.class, () -> list.allocate(16, -16));
+            assertThrows(IllegalArgumentException.class, () -> list.allocate(0, 16));
         }
 
         @Test
-        @DisplayName("Cannot free non-positive sizes")
-        void freeNonPositiveSize() {
-            int start = list.allocate(100);
-            assertThrows(IllegalArgumentException.class, () -> list.free(start, 0));
+        @DisplayName("Aligned block needs no padding")
+        void alignedNoPadding() {
+            assertEquals(0, list.allocate(100, 64));
+            assertEquals("Size: 1; Blocks: (100, 924)", list.toString());
         }
 
         @Test
-        @DisplayName("Cannot free negative addresses")
-        void freeNegativeAddress() {
+        @DisplayName("Padding is left as a free block")
+        void paddingSplit() {
             list.allocate(100);
-            assertThrows(IllegalArgumentException.class, () -> list.free(-1, 100));
+            assertEquals(128, list.allocate(64, 64));
+            assertEquals("Size: 2; Blocks: (100, 28), (192, 832)", list.toString());
+            // The padding can still be allocated
+            assertEquals(100, list.allocate(28));
+            assertEquals("Size: 1; Blocks: (192, 832)", list.toString());
         }
 
         @Test
-        @DisplayName("Cannot free address outside range")
-        void freeAddressTooLarge() {
+        @DisplayName("Aligned block consumes the end of a free block")
+        void paddingExactTail() {
             list.allocate(MEMORY_SIZE);
-            assertThrows(IllegalArgumentException.class, () -> list.free(MEMORY_SIZE + 1, MEMORY_SIZE));
+            list.free(120, 72);
+            assertEquals(128, list.allocate(64, 16));
+            assertEquals("Size: 1; Blocks: (120, 8)", list.toString());
         }
 
         @Test
-        @DisplayName("Cannot free outside address space")
-        void freeOutsideAddressSpace() {
-            int start = list.allocate(MEMORY_SIZE);
-            assertThrows(IllegalArgumentException.class, () -> list.free(start, MEMORY_SIZE + 1));
+        @DisplayName("Misaligned blocks are skipped")
+        void skipMisaligned() {
+            list.allocate(MEMORY_SIZE);
+            list.free(1, 70);
+            list.free(200, 100);
+            list.free(512, 64);
+            assertEquals(512, list.allocate(64, 256));
+            assertEquals(256, list.allocate(32, 64));
+            assertEquals("Size: 3; Blocks: (1, 70), (200, 56), (288, 12)", list.toString());
+            assertThrows(NoSuchElementException.class, () -> list.allocate(64, 64));
+            assertEquals(1, list.stats().getFailedAllocationCount());
         }
 
         @Test
-        @DisplayName("Cannot free already free memory")
-        void freeAlreadyFreed() {
-            assertThrows(IllegalArgumentException.class, () -> list.free(0, 100));
+        @DisplayName("Alignment of one behaves as unaligned allocation")
+        void alignmentOne() {
+            list.allocate(3);
+            assertEquals(3, list.allocate(5, 1));
+            assertEquals("Size: 1; Blocks: (8, 1016)", list.toString());
         }
 
         @Test
-        @DisplayName("Cannot free already free memory 2")
-        void freeAlreadyFreed2() {
-            int start = list.allocate(100);
-            assertThrows(IllegalArgumentException.class, () -> list.free(start, 101));
+        @DisplayName("Segregated fit takes a block that fits at any alignment")
+        void segregatedAligned() {
+            list = new FreeList(MEMORY_SIZE, AllocationPolicy.SEGREGATED_FIT);
+            list.allocate(MEMORY_SIZE);
+            list.free(1, 40);
+            list.free(300, 200);
+            assertEquals(320, list.allocate(32, 32));
+            assertEquals("Size: 3; Blocks: (1, 40), (300, 20), (352, 148)", list.toString());
+            // Only the misaligned small block remains able to hold this, found by the fallback search
+            list.allocate(148);
+            assertEquals(32, list.allocate(9, 32));
+            assertEquals("Size: 2; Blocks: (1, 31), (300, 20)", list.toString());
         }
 
         @Test
-        @DisplayName("Free all memory")
-        void freeAllMemory() {
-            int start = list.allocate(MEMORY_SIZE);
-            list.free(start, MEMORY_SIZE);
-            assertEquals(1, list.size);
-            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        @DisplayName("Page-aligned allocations in a large list")
+        void pageAligned() {
+            list = new FreeList(1 << 20);
+            list.allocate(1);
+            for (int i = 1; i <= 8; i++) {
+                int start = list.allocate(100, 4096);
+                assertEquals(i * 4096, start);
+            }
+            assertEquals(9, list.size());
         }
+    }
 
-        @Test
-        @DisplayName("Free block in middle of list")
-        void freeMiddle() {
+    @DisplayName("FreeList best-fit size index tests")
+    @Tag("FreeListSolution")
+    public static class FreeListSizeIndexTest {
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+        private FreeList list;
+
+        @BeforeEach
+        void setUp() {
+            list = new FreeList(MEMORY_SIZE, AllocationPolicy.BEST_FIT);
             list.allocate(MEMORY_SIZE);
-            list.free(512, 256);
-            assertEquals(1, list.size);
-            assertEquals("Size: 1; Blocks: (512, 256)", list.toString());
-            assertThrows(IllegalArgumentException.class, () -> list.free(512, 256));
         }
 
         @Test
-        @DisplayName("Free multiple blocks")
-        void freeMultiple() {
-            list.allocate(MEMORY_SIZE);
-            list.free(0, 256);
-            list.free(768, 256);
-            assertEquals(2, list.size);
-            assertEquals("Size: 2; Blocks: (0, 256), (768, 256)", list.toString());
+        @DisplayName("Best fit prefers the lowest address among equal blocks")
+        void lowestAmongEquals() {
+            list.free(600, 40);
+            list.free(100, 40);
+            list.free(300, 40);
+            assertEquals(100, list.allocate(40));
+            assertEquals(300, list.allocate(30));
+            assertEquals(330, list.allocate(10));
+            assertEquals("Size: 1; Blocks: (600, 40)", list.toString());
         }
 
         @Test
-        @DisplayName("Free small blocks in loop")
-        void freeSmallLoop() {
-            list.allocate(MEMORY_SIZE);
-            for (int i = 0; i < MEMORY_SIZE; i++) {
+        @DisplayName("Index follows compaction")
+        void indexAfterCompaction() {
+            for (int i = 0; i < 64; i++) {
+                list.free(i * 4, 4);
+            }
+            list.free(512, 200);
+            list.compact();
+            assertEquals("Size: 2; Blocks: (0, 256), (512, 200)", list.toString());
+            assertEquals(512, list.allocate(200));
+            assertEquals(0, list.allocate(5));
+            assertEquals(256, list.stats().getLargestFreeBlock() + 5);
+        }
+
+        @Test
+        @DisplayName("Index follows eager coalescing")
+        void indexAfterCoalescing() {
+            list.setCoalesceOnFree(true);
+            list.free(0, 100);
+            list.free(200, 150);
+            list.free(100, 100);
+            assertEquals("Size: 1; Blocks: (0, 350)", list.toString());
+            assertEquals(350, list.stats().getLargestFreeBlock());
+            assertThrows(NoSuchElementException.class, () -> list.allocate(351));
+            assertEquals(0, list.allocate(350));
+            assertEquals(0, list.stats().getLargestFreeBlock());
+        }
+
+        @Test
+        @DisplayName("Search does not walk the list")
+        void searchVisits() {
+            for (int i = 0; i < MEMORY_SIZE; i += 2) {
                 list.free(i, 1);
             }
-            assertEquals(MEMORY_SIZE, list.size);
+            list.free(MEMORY_SIZE - 1, 1);
+            list.allocate(1);
+            // The allocation in setUp() examines the only node; the last descends the size treap, not the whole list
+            long[] histogram = list.stats().getAllocateVisitHistogram();
+            assertEquals(1, histogram[histogramBucket(1)]);
+            assertEquals(1, Arrays.stream(histogram, histogramBucket(2), histogramBucket(63) + 1).sum());
+            assertEquals(512, list.size());
         }
     }
 
-    @DisplayName("FreeList compaction tests")
+    @DisplayName("FreeList automatic compaction tests")
     @Tag("FreeListSolution")
-    public static class FreeListCompactionTest {
-        private FreeList list;
-        /**
-         * Each free list under test will control 1024 bytes in total.
-         */
+    public static class FreeListAutoCompactionTest {
+        /** Each free list under test will control 1024 bytes in total. */
         private static final int MEMORY_SIZE = 1024;
+        private FreeList list;
 
         @BeforeEach
         void setUp() {
@@ -406,103 +2503,148 @@ public class FreeList {
             list.allocate(MEMORY_SIZE);
         }
 
-        @Test
-        @DisplayName("No free blocks in list")
-        void noFreeBlocks() {
-            list.compact();
-            assertEquals(0, list.size);
-            assertEquals("Size: 0; Blocks: none", list.toString());
+        /**
+         * @param list The list to examine.
+         * @return The number of contiguous neighbouring pairs in the list, counted by a walk of the list.
+         */
+        private static int countContiguousPairs(FreeList list) {
+            int pairs = 0;
+            for (FLNode node = list.first; node != null; node = node.next) {
+                pairs += contiguous(node, node.next);
+            }
+            return pairs;
         }
 
         @Test
-        @DisplayName("One free block")
-        void oneFreeBlock() {
-            list.free(0, MEMORY_SIZE);
-            list.compact();
-            assertEquals(1, list.size);
-            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        @DisplayName("Ratio precondition: ratio >= 0")
+        void ratioPrecondition() {
+            assertThrows(IllegalArgumentException.class, () -> list.setAutoCompactionRatio(-1));
+            assertEquals(0, list.getAutoCompactionRatio());
         }
 
         @Test
-        @DisplayName("Two non-contiguous free blocks")
-        void twoNonContiguousBlocks() {
-            list.free(0, 256);
-            list.free(768, 256);
-            list.compact();
-            assertEquals(2, list.size);
-            assertEquals("Size: 2; Blocks: (0, 256), (768, 256)", list.toString());
+        @DisplayName("Disabled by default")
+        void disabledByDefault() {
+            list.free(0, 512);
+            list.free(512, 512);
+            assertThrows(NoSuchElementException.class, () -> list.allocate(MEMORY_SIZE));
+            assertEquals("Size: 2; Blocks: (0, 512), (512, 512)", list.toString());
         }
 
         @Test
-        @DisplayName("Merge two contiguous free blocks")
-        void twoContiguousBlocks() {
+        @DisplayName("Failed allocation compacts and retries")
+        void compactOnFailure() {
+            list.setAutoCompactionRatio(Integer.MAX_VALUE);
             list.free(0, 512);
             list.free(512, 512);
-            list.compact();
-            assertEquals(1, list.size);
-            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+            assertEquals(0, list.allocate(MEMORY_SIZE));
+            assertEquals(0, list.stats().getFailedAllocationCount());
+
+            // Allocations that compaction cannot help still fail
+            list.free(0, 100);
+            list.free(200, 100);
+            assertThrows(NoSuchElementException.class, () -> list.allocate(150));
+            assertThrows(NoSuchElementException.class, () -> list.allocate(300));
+            assertEquals(2, list.stats().getFailedAllocationCount());
         }
 
         @Test
-        @DisplayName("Merge two non-contiguous ranges")
-        void nonContiguousRanges() {
-            list.free(0, 128);
-            list.free(128, 256);
-            list.free(512, 128);
-            list.free(640, 384);
-            list.compact();
-            assertEquals(2, list.size);
-            assertEquals("Size: 2; Blocks: (0, 384), (512, 512)", list.toString());
+        @DisplayName("Failed aligned allocation compacts and retries")
+        void compactOnAlignedFailure() {
+            list.setAutoCompactionRatio(Integer.MAX_VALUE);
+            list.free(60, 40);
+            list.free(100, 60);
+            assertEquals(64, list.allocate(96, 64));
+            assertEquals("Size: 1; Blocks: (60, 4)", list.toString());
         }
 
         @Test
-        @DisplayName("Problem description example 1")
-        void descriptionExample1() {
-            list.free(240, 20);
-            list.free(270, 15);
-            list.free(285, 15);
-            list.free(350, 8);
-            list.free(360, 10);
-            list.free(370, 16);
-            list.compact();
-            assertEquals(4, list.size);
-            assertEquals("Size: 4; Blocks: (240, 20), (270, 30), (350, 8), (360, 26)", list.toString());
+        @DisplayName("Frees compact once the ratio is exceeded")
+        void compactOnRatio() {
+            list.setAutoCompactionRatio(4);
+            for (int i = 0; i < 4; i++) {
+                list.free(i, 1);
+            }
+            assertEquals(4, list.size());
+            list.free(4, 1);
+            assertEquals("Size: 1; Blocks: (0, 5)", list.toString());
+
+            // Discrete blocks never trigger compaction
+            for (int i = 10; i < 100; i += 2) {
+                list.free(i, 1);
+            }
+            assertEquals(46, list.size());
         }
 
         @Test
-        @DisplayName("Problem description example 2")
-        void descriptionExample2() {
-            list.free(0, 84);
-            list.free(84, 16);
-            list.free(100, 20);
-            list.free(120, 80);
-            list.free(220, 16);
-            list.compact();
-            assertEquals(2, list.size);
-            assertEquals("Size: 2; Blocks: (0, 200), (220, 16)", list.toString());
+        @DisplayName("Enabling compacts a fragmented list")
+        void compactOnEnable() {
+            for (int i = 0; i < 10; i++) {
+                list.free(i * 10, 10);
+            }
+            list.setAutoCompactionRatio(2);
+            assertEquals("Size: 1; Blocks: (0, 100)", list.toString());
         }
 
         @Test
-        @DisplayName("Problem description example 3")
-        void descriptionExample3() {
-            list.free(0, 100);
-            list.free(100, 100);
-            list.free(200, 100);
-            list.free(300, 100);
-            list.compact();
-            assertEquals(1, list.size);
-            assertEquals("Size: 1; Blocks: (0, 400)", list.toString());
+        @DisplayName("Contiguous pairs are tracked under every policy")
+        void contiguousPairsTracked() {
+            for (AllocationPolicy policy : AllocationPolicy.values()) {
+                FreeList list = new FreeList(MEMORY_SIZE, policy);
+                list.setBackgroundCompactionBudget(2);
+                Random random = new Random(314);
+                int[] starts = new int[32];
+                int[] lengths = new int[32];
+                for (int i = 0; i < 3000; i++) {
+                    int slot = random.nextInt(starts.length);
+                    if (lengths[slot] == 0) {
+                        int length = 1 + random.nextInt(64);
+                        try {
+                            starts[slot] = random.nextBoolean() ? list.allocate(length) : list.allocate(length, 16);
+                            lengths[slot] = length;
+                        } catch (NoSuchElementException e) {
+                            continue;
+                        }
+                    } else {
+                        // Free the block in two pieces so that contiguous neighbours arise
+                        int half = lengths[slot] / 2;
+                        list.free(starts[slot] + half, lengths[slot] - half);
+                        if (half > 0) {
+                            list.free(starts[slot], half);
+                        }
+                        lengths[slot] = 0;
+                    }
+                    if (i % 500 == 0) {
+                        list.compact();
+                    }
+                    assertEquals(countContiguousPairs(list), list.contiguousPairs, policy + " at step " + i);
+                }
+            }
         }
 
         @Test
-        @DisplayName("Compact single bytes")
-        void compactSingleBytes() {
-            for (int i = 0; i < MEMORY_SIZE; i++) {
-                list.free(i, 1);
+        @DisplayName("Compaction allocates nothing under any policy")
+        void compactionAllocatesNothing() {
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long thread = Thread.currentThread().getId();
+            for (AllocationPolicy policy : AllocationPolicy.values()) {
+                for (int pass = 0; pass < 3; pass++) {
+                    // Free 512 blocks in pairs, so that compaction merges half of them, at addresses beyond the cache
+                    // of boxed integers
+                    FreeList list = new FreeList(1 << 16, policy);
+                    list.allocate(1 << 16);
+                    for (int i = 0; i < 512; i++) {
+                        list.free(1024 + 64 * (i / 2) + 8 * (i % 2), 8);
+                    }
+
+                    long before = threads.getThreadAllocatedBytes(thread);
+                    list.compact();
+                    long allocated = threads.getThreadAllocatedBytes(thread) - before;
+                    assertEquals(256, list.size());
+                    assertEquals(0, allocated, policy + " pass " + pass);
+                }
             }
-            list.compact();
-            assertEquals(1, list.size);
-            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
         }
     }
 }
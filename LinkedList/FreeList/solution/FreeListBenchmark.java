@@ -0,0 +1,503 @@
+/* FREE LIST BENCHMARKS
+ * Written: 18 October 2026
+ *
+ * A self-contained benchmark harness comparing the allocators in this package on a set of synthetic allocation
+ * traces.  Each trace is run against each allocator at several list sizes, where the list size is the number of free
+ * blocks the trace keeps in the list.  Throughput is the number of operations in a run divided by the wall-clock time
+ * of the whole run.  Latency percentiles are taken over batches of consecutive operations, each timed as a whole and
+ * divided by the batch size, since a single operation is too short to time on its own.  Each measurement is preceded
+ * by warm-up runs of the same trace so that the JIT has compiled the code under test, and by default runs in a JVM of
+ * its own.
+ *
+ * Only FreeList exposes compaction outside its class, so the compaction that ends the SINGLE_BYTE trace is performed
+ * and timed for the FreeList policies alone.  ArrayFreeList is left uncompacted, and BuddyAllocator merges buddies as
+ * it frees, so their SINGLE_BYTE rows measure the frees only and are not directly comparable with those of FreeList.
+ *
+ * Run the main method to print a table of results, optionally passing the list sizes to test as arguments.
+ *
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FreeListBenchmark {
+    /** List sizes measured when none are given on the command line. */
+    private static final int[] DEFAULT_LIST_SIZES = {1 << 8, 1 << 11, 1 << 14};
+    /** Time for which each trace is repeated, unmeasured, before measurement begins. */
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    /** Number of measured runs of each trace for throughput, and again for latency. */
+    private static final int MEASURED_RUNS = 5;
+    /** Minimum time for which each measured run repeats its trace. */
+    private static final long RUN_NANOS = 200_000_000L;
+    /** Number of consecutive operations timed together when measuring latency. */
+    private static final int LATENCY_BATCH_SIZE = 64;
+    /** Seed for the random number generator, so that every allocator sees the same trace. */
+    private static final long SEED = 314;
+    /** Number of bytes of address space provided per free block in the list. */
+    private static final int BYTES_PER_BLOCK = 64;
+    /** Destination for the results of every measurement, so that the JIT cannot discard any of them. */
+    static volatile long blackhole;
+
+    /**
+     * The allocators under comparison.
+     */
+    enum Subject {
+        FIRST_FIT("FreeList first-fit", n -> new FreeList(n, FreeList.AllocationPolicy.FIRST_FIT)),
+        NEXT_FIT("FreeList next-fit", n -> new FreeList(n, FreeList.AllocationPolicy.NEXT_FIT)),
+        BEST_FIT("FreeList best-fit", n -> new FreeList(n, FreeList.AllocationPolicy.BEST_FIT)),
+        SEGREGATED_FIT("FreeList segregated", n -> new FreeList(n, FreeList.AllocationPolicy.SEGREGATED_FIT)),
+        ARRAY("ArrayFreeList", ArrayFreeList::new),
+        BUDDY("BuddyAllocator", BuddyAllocator::new);
+
+        /** Human-readable name of this allocator. */
+        final String label;
+        /** Creates an allocator controlling the specified number of bytes. */
+        final IntFunction<Allocator> factory;
+
+        Subject(String label, IntFunction<Allocator> factory) {
+            this.label = label;
+            this.factory = factory;
+        }
+    }
+
+    /**
+     * Synthetic allocation traces.  Each trace is given a fresh allocator whose address space provides
+     * <code>BYTES_PER_BLOCK</code> bytes for each of <code>blocks</code> free blocks.  Allocations that fail for lack
+     * of space are recorded and skipped, since allocators that do not coalesce will fragment under some traces.
+     */
+    enum Trace {
+        /** Allocate and free blocks of random sizes in random order, keeping about half of memory live. */
+        RANDOM {
+            @Override
+            void run(Allocator allocator, int blocks, Random random, Recorder recorder) {
+                int[] starts = new int[blocks];
+                int[] lengths = new int[blocks];
+                int live = 0;
+                for (int op = 0; op < blocks * 8; op++) {
+                    if (live < blocks && (live == 0 || random.nextBoolean())) {
+                        int length = 1 + random.nextInt(BYTES_PER_BLOCK);
+                        int start = recorder.allocate(allocator, length);
+                        if (start >= 0) {
+                            starts[live] = start;
+                            lengths[live++] = length;
+                        }
+                    } else {
+                        int victim = random.nextInt(live--);
+                        recorder.free(allocator, starts[victim], lengths[victim]);
+                        starts[victim] = starts[live];
+                        lengths[victim] = lengths[live];
+                    }
+                }
+            }
+        },
+        /** Allocate a batch of blocks, then free them in reverse order. */
+        LIFO {
+            @Override
+            void run(Allocator allocator, int blocks, Random random, Recorder recorder) {
+                int[] starts = new int[blocks];
+                int[] lengths = new int[blocks];
+                for (int round = 0; round < 4; round++) {
+                    for (int i = 0; i < blocks; i++) {
+                        lengths[i] = 1 + random.nextInt(BYTES_PER_BLOCK);
+                        starts[i] = recorder.allocate(allocator, lengths[i]);
+                    }
+                    for (int i = blocks - 1; i >= 0; i--) {
+                        if (starts[i] >= 0) {
+                            recorder.free(allocator, starts[i], lengths[i]);
+                        }
+                    }
+                }
+            }
+        },
+        /** Allocate a batch of blocks, then free them in the order they were allocated. */
+        FIFO {
+            @Override
+            void run(Allocator allocator, int blocks, Random random, Recorder recorder) {
+                int[] starts = new int[blocks];
+                int[] lengths = new int[blocks];
+                for (int round = 0; round < 4; round++) {
+                    for (int i = 0; i < blocks; i++) {
+                        lengths[i] = 1 + random.nextInt(BYTES_PER_BLOCK);
+                        starts[i] = recorder.allocate(allocator, lengths[i]);
+                    }
+                    for (int i = 0; i < blocks; i++) {
+                        if (starts[i] >= 0) {
+                            recorder.free(allocator, starts[i], lengths[i]);
+                        }
+                    }
+                }
+            }
+        },
+        /**
+         * Allocate a region and free it one byte at a time, as in <code>freeSmallLoop</code>, then compact if the
+         * allocator is a FreeList.
+         */
+        SINGLE_BYTE {
+            @Override
+            void run(Allocator allocator, int blocks, Random random, Recorder recorder) {
+                int region = recorder.allocate(allocator, blocks);
+                for (int i = 0; i < blocks; i++) {
+                    recorder.free(allocator, region + i, 1);
+                }
+                recorder.compact(allocator);
+            }
+        },
+        /**
+         * Fragment memory into many small holes, then repeatedly allocate and free blocks too large for any hole, so
+         * that linear searches must examine the entire list.
+         */
+        FRAGMENTED {
+            @Override
+            void run(Allocator allocator, int blocks, Random random, Recorder recorder) {
+                int hole = BYTES_PER_BLOCK / 4;
+                for (int i = 0; i < blocks / 2; i++) {
+                    recorder.allocate(allocator, hole);
+                    recorder.allocate(allocator, hole);
+                }
+                for (int i = 0; i < blocks / 2; i++) {
+                    recorder.free(allocator, i * 2 * hole, hole);
+                }
+                for (int i = 0; i < blocks; i++) {
+                    int length = hole + 1 + random.nextInt(hole);
+                    int start = recorder.allocate(allocator, length);
+                    if (start >= 0) {
+                        recorder.free(allocator, start, length);
+                    }
+                }
+            }
+        };
+
+        /**
+         * Run this trace against the specified allocator.
+         *
+         * @param allocator The allocator under test, freshly constructed.
+         * @param blocks    The list size at which to run the trace.
+         * @param random    The source of randomness for the trace.
+         * @param recorder  Performs and times each operation.
+         */
+        abstract void run(Allocator allocator, int blocks, Random random, Recorder recorder);
+    }
+
+    /**
+     * Performs allocator operations on behalf of a trace, counting them and optionally timing them in batches.  A
+     * single allocate or free takes about as long as a call to <code>System.nanoTime()</code>, so timing operations
+     * individually would mostly measure the timer; instead, each batch of consecutive operations is timed as a whole,
+     * including the trace's bookkeeping between them, and recorded as a mean latency per operation.  The result of
+     * every operation is folded into <code>sink</code> so that no call can be eliminated as dead code.
+     */
+    static class Recorder {
+        /** Number of consecutive operations timed together, or 0 if no operations are timed. */
+        private final int batchSize;
+        /** Mean latency per operation of each completed batch, in nanoseconds. */
+        private long[] latencies = new long[1024];
+        /** The number of completed batches. */
+        private int batches;
+        /** The number of operations in the batch currently being timed. */
+        private int batchOps;
+        /** The value of <code>System.nanoTime()</code> at the start of the batch currently being timed. */
+        private long batchStart;
+        /** The number of operations performed so far. */
+        private int count;
+        /** The number of allocations that failed for lack of space. */
+        private int failures;
+        /** Accumulated results of every operation, read once the trace completes. */
+        long sink;
+
+        /**
+         * Recorder constructor.
+         *
+         * @param batchSize The number of consecutive operations to time together, or 0 to time none.
+         */
+        Recorder(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Allocate memory.
+         *
+         * @param allocator The allocator from which to allocate.
+         * @param numBytes  The number of bytes to allocate.
+         * @return The address of the allocated block, or -1 if there was not enough space.
+         */
+        int allocate(Allocator allocator, int numBytes) {
+            begin();
+            int address;
+            try {
+                address = allocator.allocate(numBytes);
+            } catch (NoSuchElementException e) {
+                this.failures++;
+                address = -1;
+            }
+            end();
+            this.sink += address;
+            return address;
+        }
+
+        /**
+         * Free memory.
+         *
+         * @param allocator    The allocator to which to free memory.
+         * @param startAddress The address at which to begin freeing memory.
+         * @param numBytes     The number of bytes to free.
+         */
+        void free(Allocator allocator, int startAddress, int numBytes) {
+            begin();
+            allocator.free(startAddress, numBytes);
+            end();
+        }
+
+        /**
+         * Fully compact the specified allocator if it supports compaction.
+         *
+         * @param allocator The allocator to compact.
+         */
+        void compact(Allocator allocator) {
+            if (allocator instanceof FreeList) {
+                begin();
+                while (!((FreeList) allocator).compactStep(Integer.MAX_VALUE)) {
+                    // A single step with an unlimited budget completes the pass
+                }
+                end();
+                this.sink += ((FreeList) allocator).size();
+            }
+        }
+
+        /**
+         * Start timing a batch if none is in progress.
+         */
+        private void begin() {
+            if (this.batchSize > 0 && this.batchOps == 0) {
+                this.batchStart = System.nanoTime();
+            }
+        }
+
+        /**
+         * Count a completed operation, recording the mean latency of its batch if it completes one.
+         */
+        private void end() {
+            this.count++;
+            if (this.batchSize > 0 && ++this.batchOps == this.batchSize) {
+                long nanos = System.nanoTime() - this.batchStart;
+                if (this.batches == this.latencies.length) {
+                    this.latencies = Arrays.copyOf(this.latencies, this.batches * 2);
+                }
+                this.latencies[this.batches++] = nanos / this.batchSize;
+                this.batchOps = 0;
+            }
+        }
+
+        /**
+         * @param throughput The throughput of the trace in millions of operations per second.
+         * @return A table row summarising the operations recorded: operation count, the specified throughput, and the
+         *         50th, 90th, 99th, and 99.9th percentiles of batch latency in nanoseconds per operation.
+         */
+        String summary(double throughput) {
+            long[] sorted = Arrays.copyOf(this.latencies, this.batches);
+            Arrays.sort(sorted);
+            return String.format("%9d %9.2f %8d %8d %8d %8d %8d", this.count, throughput, percentile(sorted, 0.5),
+                    percentile(sorted, 0.9), percentile(sorted, 0.99), percentile(sorted, 0.999), this.failures);
+        }
+
+        /**
+         * @param sorted   Latencies in ascending order.
+         * @param fraction The percentile to report, between 0 and 1.
+         * @return The latency at the specified percentile, or 0 if no latencies were recorded.
+         */
+        private static long percentile(long[] sorted, double fraction) {
+            return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, fraction * sorted.length)];
+        }
+    }
+
+    /**
+     * Run a trace against an allocator and summarise its performance.  The trace is first repeated for
+     * <code>WARMUP_NANOS</code>.  Throughput is then measured in <code>MEASURED_RUNS</code> runs, each repeating the
+     * trace for at least <code>RUN_NANOS</code> without timing individual operations, as the number of operations
+     * divided by the wall-clock time spent in the trace; the median run is reported.  Latencies are gathered in
+     * batches over as many further runs.  Allocators are constructed outside the timed region.
+     *
+     * @param subject The allocator to measure.
+     * @param trace   The trace to run.
+     * @param blocks  The list size at which to run the trace.
+     * @return A table row summarising the measured runs, with operation and failure counts given per trace.
+     */
+    static String measure(Subject subject, Trace trace, int blocks) {
+        return measure(subject, trace, blocks, WARMUP_NANOS, RUN_NANOS);
+    }
+
+    /**
+     * Run a trace against an allocator and summarise its performance, as <code>measure(subject, trace, blocks)</code>
+     * does but with the specified warm-up and run times in place of <code>WARMUP_NANOS</code> and
+     * <code>RUN_NANOS</code>.
+     *
+     * @param subject     The allocator to measure.
+     * @param trace       The trace to run.
+     * @param blocks      The list size at which to run the trace.
+     * @param warmupNanos Time for which the trace is repeated, unmeasured, before measurement begins.
+     * @param runNanos    Minimum time for which each measured run repeats the trace.
+     * @return A table row summarising the measured runs, with operation and failure counts given per trace.
+     */
+    static String measure(Subject subject, Trace trace, int blocks, long warmupNanos, long runNanos) {
+        long sink = 0;
+        long warmupStart = System.nanoTime();
+        while (System.nanoTime() - warmupStart < warmupNanos) {
+            Recorder recorder = new Recorder(0);
+            trace.run(subject.factory.apply(blocks * BYTES_PER_BLOCK), blocks, new Random(SEED), recorder);
+            sink += recorder.sink;
+        }
+
+        double[] throughputs = new double[MEASURED_RUNS];
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            long ops = 0;
+            long elapsed = 0;
+            while (elapsed < runNanos) {
+                Recorder recorder = new Recorder(0);
+                Allocator allocator = subject.factory.apply(blocks * BYTES_PER_BLOCK);
+                Random random = new Random(SEED);
+                long start = System.nanoTime();
+                trace.run(allocator, blocks, random, recorder);
+                elapsed += System.nanoTime() - start;
+                ops += recorder.count;
+                sink += recorder.sink;
+            }
+            throughputs[run] = ops * 1e3 / elapsed;
+        }
+        Arrays.sort(throughputs);
+
+        Recorder latencies = new Recorder(LATENCY_BATCH_SIZE);
+        int traceRuns = 0;
+        long latencyStart = System.nanoTime();
+        while (traceRuns == 0 || System.nanoTime() - latencyStart < MEASURED_RUNS * runNanos) {
+            trace.run(subject.factory.apply(blocks * BYTES_PER_BLOCK), blocks, new Random(SEED), latencies);
+            traceRuns++;
+        }
+        sink += latencies.sink;
+        latencies.count /= traceRuns;
+        latencies.failures /= traceRuns;
+        blackhole = sink;
+        return latencies.summary(throughputs[MEASURED_RUNS / 2]);
+    }
+
+    /**
+     * Run every trace against every allocator at each list size, printing a table of results.  Each measurement runs
+     * in a freshly forked JVM, so that the profile gathered while measuring one allocator cannot affect the code
+     * compiled for the next, unless <code>--no-fork</code> is given.
+     *
+     * @param args The list sizes at which to run the traces, optionally preceded by <code>--no-fork</code>.  If no
+     *             sizes are given, a default set is used.  <code>--single TRACE SUBJECT BLOCKS</code> measures one
+     *             combination in the current JVM, as forked JVMs do.
+     * @throws IOException          If a forked JVM cannot be started.
+     * @throws InterruptedException If interrupted while waiting for a forked JVM.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 4 && args[0].equals("--single")) {
+            Trace trace = Trace.valueOf(args[1]);
+            Subject subject = Subject.valueOf(args[2]);
+            int blocks = Integer.parseInt(args[3]);
+            System.out.printf("%-12s %-20s %7d %s%n", trace, subject.label, blocks, measure(subject, trace, blocks));
+            return;
+        }
+
+        boolean fork = args.length == 0 || !args[0].equals("--no-fork");
+        String[] sizeArgs = fork ? args : Arrays.copyOfRange(args, 1, args.length);
+        int[] listSizes = sizeArgs.length == 0 ? DEFAULT_LIST_SIZES : Arrays.stream(sizeArgs)
+                .mapToInt(Integer::parseInt).toArray();
+
+        System.out.printf("%-12s %-20s %7s %9s %9s %8s %8s %8s %8s %8s%n", "Trace", "Allocator", "Blocks", "Ops",
+                "Mops/s", "p50 ns", "p90 ns", "p99 ns", "p99.9 ns", "Failed");
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        for (Trace trace : Trace.values()) {
+            for (int blocks : listSizes) {
+                for (Subject subject : Subject.values()) {
+                    if (fork) {
+                        Process child = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                                FreeListBenchmark.class.getName(), "--single", trace.name(), subject.name(),
+                                Integer.toString(blocks)).inheritIO().start();
+                        if (child.waitFor() != 0) {
+                            throw new IOException("Forked benchmark of " + subject.label + " failed");
+                        }
+                    } else {
+                        System.out.printf("%-12s %-20s %7d %s%n", trace, subject.label, blocks,
+                                measure(subject, trace, blocks));
+                    }
+                }
+            }
+        }
+    }
+
+    @DisplayName("FreeList benchmark harness tests")
+    @Tag("FreeListSolution")
+    public static class FreeListBenchmarkTest {
+        @Test
+        @DisplayName("Every trace runs against every allocator")
+        void allTracesRun() {
+            for (Trace trace : Trace.values()) {
+                for (Subject subject : Subject.values()) {
+                    Recorder recorder = new Recorder(0);
+                    trace.run(subject.factory.apply(64 * BYTES_PER_BLOCK), 64, new Random(SEED), recorder);
+                    assertTrue(recorder.count > 0, trace + " on " + subject);
+                    assertEquals(0, recorder.batches);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Percentiles are taken from sorted latencies")
+        void percentiles() {
+            long[] sorted = new long[1000];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = i;
+            }
+            assertEquals(500, Recorder.percentile(sorted, 0.5));
+            assertEquals(999, Recorder.percentile(sorted, 0.999));
+            assertEquals(0, Recorder.percentile(new long[0], 0.5));
+        }
+
+        @Test
+        @DisplayName("Latencies are recorded per batch of operations")
+        void batchedLatencies() {
+            Recorder recorder = new Recorder(8);
+            FreeList list = new FreeList(1024);
+            for (int i = 0; i < 20; i++) {
+                recorder.free(list, recorder.allocate(list, 4), 4);
+            }
+            assertEquals(40, recorder.count);
+            assertEquals(5, recorder.batches);
+            assertTrue(recorder.summary(1.0).startsWith(String.format("%9d %9.2f", 40, 1.0)));
+        }
+
+        @Test
+        @DisplayName("Measurement reports wall-clock throughput")
+        void measureRow() {
+            // A millisecond of warm-up and of each run suffices to check the row without benchmarking in earnest
+            String[] row = measure(Subject.FIRST_FIT, Trace.LIFO, 64, 1_000_000L, 1_000_000L).trim().split("\\s+");
+            assertEquals(7, row.length);
+            assertEquals(4 * 2 * 64, Integer.parseInt(row[0]));
+            assertTrue(Double.parseDouble(row[1]) > 0);
+        }
+    }
+}
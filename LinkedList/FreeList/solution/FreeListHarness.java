@@ -0,0 +1,360 @@
+/* SHARED FREE LIST TESTS
+ * Written: 18 October 2026
+ *
+ * The harness and compaction tests of the FreeList assignment, written once against a small view of a free list so
+ * that every hand-specialised variant (ArrayFreeList, LongFreeList, LongArrayFreeList, MappedFreeList) runs the same
+ * suite.  Each variant extends the abstract test classes here with a nested test class supplying a factory for itself.
+ * Addresses are long so that both the int- and the long-addressed contracts fit the view.
+ *
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class FreeListHarness {
+    private FreeListHarness() {
+    }
+
+    /**
+     * The operations of a free list exercised by the shared tests.
+     */
+    interface Subject {
+        /**
+         * @param numBytes The number of bytes to allocate.
+         * @return The starting address of the allocated block.
+         */
+        long allocate(long numBytes);
+
+        /**
+         * @param startAddress The address at which to begin freeing memory.
+         * @param numBytes     The number of bytes after the starting address to free.
+         */
+        void free(long startAddress, long numBytes);
+
+        /**
+         * Merge every run of contiguous free blocks into a single block.
+         */
+        void compact();
+
+        /**
+         * @return The number of blocks in the free list.
+         */
+        int size();
+
+        /**
+         * @return A string representation of the free blocks in the list.
+         */
+        String toString();
+    }
+
+    public abstract static class HarnessTest {
+        private Subject list;
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        /**
+         * Create the free list under test.
+         *
+         * @param numBytes The number of bytes of memory described by the list.
+         * @return A view of the new list.
+         * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+         */
+        protected abstract Subject create(long numBytes);
+
+        @BeforeEach
+        void setUp() {
+            list = create(MEMORY_SIZE);
+        }
+
+        @Test
+        @DisplayName("Constructor properly initialises list")
+        void constructor() {
+            assertEquals(1, list.size());
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Constructor precondition: numBytes > 0")
+        void constructorPrecondition() {
+            assertThrows(IllegalArgumentException.class, () -> create(0));
+        }
+
+        @Test
+        @DisplayName("Allocate all free space at once")
+        void allFreeSpaceOnce() {
+            assertEquals(0, list.allocate(MEMORY_SIZE));
+            assertEquals(0, list.size());
+            assertEquals("Size: 0; Blocks: none", list.toString());
+        }
+
+        @Test
+        @DisplayName("Cannot allocate once out of space")
+        void noSpace() {
+            list.allocate(MEMORY_SIZE);
+            assertThrows(NoSuchElementException.class, () -> list.allocate(1));
+        }
+
+        @Test
+        @DisplayName("Allocate all free space separate times")
+        void allFreeSpaceMany() {
+            assertEquals(0, list.allocate(512));
+            assertEquals(1, list.size());
+            assertEquals("Size: 1; Blocks: (512, 512)", list.toString());
+
+            assertEquals(512, list.allocate(256));
+            assertEquals(1, list.size());
+            assertEquals("Size: 1; Blocks: (768, 256)", list.toString());
+
+            assertEquals(768, list.allocate(256));
+            assertEquals(0, list.size());
+            assertEquals("Size: 0; Blocks: none", list.toString());
+        }
+
+        @Test
+        @DisplayName("Cannot allocate non-positive sizes")
+        void allocateNonPositive() {
+            assertThrows(IllegalArgumentException.class, () -> list.allocate(-1));
+        }
+
+        @Test
+        @DisplayName("Cannot free non-positive sizes")
+        void freeNonPositiveSize() {
+            long start = list.allocate(100);
+            assertThrows(IllegalArgumentException.class, () -> list.free(start, 0));
+        }
+
+        @Test
+        @DisplayName("Cannot free negative addresses")
+        void freeNegativeAddress() {
+            list.allocate(100);
+            assertThrows(IllegalArgumentException.class, () -> list.free(-1, 100));
+        }
+
+        @Test
+        @DisplayName("Cannot free address outside range")
+        void freeAddressTooLarge() {
+            list.allocate(MEMORY_SIZE);
+            assertThrows(IllegalArgumentException.class, () -> list.free(MEMORY_SIZE + 1, MEMORY_SIZE));
+        }
+
+        @Test
+        @DisplayName("Cannot free outside address space")
+        void freeOutsideAddressSpace() {
+            long start = list.allocate(MEMORY_SIZE);
+            assertThrows(IllegalArgumentException.class, () -> list.free(start, MEMORY_SIZE + 1));
+        }
+
+        @Test
+        @DisplayName("Cannot free already free memory")
+        void freeAlreadyFreed() {
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, 100));
+        }
+
+        @Test
+        @DisplayName("Cannot free already free memory 2")
+        void freeAlreadyFreed2() {
+            long start = list.allocate(100);
+            assertThrows(IllegalArgumentException.class, () -> list.free(start, 101));
+        }
+
+        @Test
+        @DisplayName("Free all memory")
+        void freeAllMemory() {
+            long start = list.allocate(MEMORY_SIZE);
+            list.free(start, MEMORY_SIZE);
+            assertEquals(1, list.size());
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Free block in middle of list")
+        void freeMiddle() {
+            list.allocate(MEMORY_SIZE);
+            list.free(512, 256);
+            assertEquals(1, list.size());
+            assertEquals("Size: 1; Blocks: (512, 256)", list.toString());
+            assertThrows(IllegalArgumentException.class, () -> list.free(512, 256));
+        }
+
+        @Test
+        @DisplayName("Free multiple blocks")
+        void freeMultiple() {
+            list.allocate(MEMORY_SIZE);
+            list.free(0, 256);
+            list.free(768, 256);
+            assertEquals(2, list.size());
+            assertEquals("Size: 2; Blocks: (0, 256), (768, 256)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Free small blocks in loop")
+        void freeSmallLoop() {
+            list.allocate(MEMORY_SIZE);
+            for (int i = 0; i < MEMORY_SIZE; i++) {
+                list.free(i, 1);
+            }
+            assertEquals(MEMORY_SIZE, list.size());
+        }
+
+        @Test
+        @DisplayName("Allocate first block exactly when others remain")
+        void allocateFirstExact() {
+            list.allocate(MEMORY_SIZE);
+            list.free(0, 256);
+            list.free(768, 256);
+            assertEquals(0, list.allocate(256));
+            assertEquals(1, list.size());
+            assertEquals("Size: 1; Blocks: (768, 256)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Cannot free memory inside a free block")
+        void freeInsideFreeBlock() {
+            list.allocate(256);
+            assertThrows(IllegalArgumentException.class, () -> list.free(512, 16));
+            assertThrows(IllegalArgumentException.class, () -> list.free(200, 100));
+            assertEquals("Size: 1; Blocks: (256, 768)", list.toString());
+        }
+    }
+
+    public abstract static class CompactionTest {
+        private Subject list;
+        /**
+         * Each free list under test will control 1024 bytes in total.
+         */
+        private static final int MEMORY_SIZE = 1024;
+
+        /**
+         * Create the free list under test.
+         *
+         * @param numBytes The number of bytes of memory described by the list.
+         * @return A view of the new list.
+         */
+        protected abstract Subject create(long numBytes);
+
+        @BeforeEach
+        void setUp() {
+            list = create(MEMORY_SIZE);
+            list.allocate(MEMORY_SIZE);
+        }
+
+        @Test
+        @DisplayName("No free blocks in list")
+        void noFreeBlocks() {
+            list.compact();
+            assertEquals(0, list.size());
+            assertEquals("Size: 0; Blocks: none", list.toString());
+        }
+
+        @Test
+        @DisplayName("One free block")
+        void oneFreeBlock() {
+            list.free(0, MEMORY_SIZE);
+            list.compact();
+            assertEquals(1, list.size());
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Two non-contiguous free blocks")
+        void twoNonContiguousBlocks() {
+            list.free(0, 256);
+            list.free(768, 256);
+            list.compact();
+            assertEquals(2, list.size());
+            assertEquals("Size: 2; Blocks: (0, 256), (768, 256)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Merge two contiguous free blocks")
+        void twoContiguousBlocks() {
+            list.free(0, 512);
+            list.free(512, 512);
+            list.compact();
+            assertEquals(1, list.size());
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Merge two non-contiguous ranges")
+        void nonContiguousRanges() {
+            list.free(0, 128);
+            list.free(128, 256);
+            list.free(512, 128);
+            list.free(640, 384);
+            list.compact();
+            assertEquals(2, list.size());
+            assertEquals("Size: 2; Blocks: (0, 384), (512, 512)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Problem description example 1")
+        void descriptionExample1() {
+            list.free(240, 20);
+            list.free(270, 15);
+            list.free(285, 15);
+            list.free(350, 8);
+            list.free(360, 10);
+            list.free(370, 16);
+            list.compact();
+            assertEquals(4, list.size());
+            assertEquals("Size: 4; Blocks: (240, 20), (270, 30), (350, 8), (360, 26)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Problem description example 2")
+        void descriptionExample2() {
+            list.free(0, 84);
+            list.free(84, 16);
+            list.free(100, 20);
+            list.free(120, 80);
+            list.free(220, 16);
+            list.compact();
+            assertEquals(2, list.size());
+            assertEquals("Size: 2; Blocks: (0, 200), (220, 16)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Problem description example 3")
+        void descriptionExample3() {
+            list.free(0, 100);
+            list.free(100, 100);
+            list.free(200, 100);
+            list.free(300, 100);
+            list.compact();
+            assertEquals(1, list.size());
+            assertEquals("Size: 1; Blocks: (0, 400)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Compact single bytes")
+        void compactSingleBytes() {
+            for (int i = 0; i < MEMORY_SIZE; i++) {
+                list.free(i, 1);
+            }
+            list.compact();
+            assertEquals(1, list.size());
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+    }
+}
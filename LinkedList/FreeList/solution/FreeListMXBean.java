@@ -0,0 +1,73 @@
+/* FREE LIST MANAGEMENT INTERFACE
+ * Written: 18 October 2026
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+/**
+ * Allocation metrics of a free list, as exposed through JMX by <code>FreeList.registerMBean()</code> and captured by
+ * <code>FreeList.stats()</code>.
+ */
+public interface FreeListMXBean {
+    /**
+     * @return The number of successful allocations.
+     */
+    long getAllocationCount();
+
+    /**
+     * @return The number of allocations that failed for lack of a large enough free block.
+     */
+    long getFailedAllocationCount();
+
+    /**
+     * @return The number of successful frees.
+     */
+    long getFreeCount();
+
+    /**
+     * @return The number of free blocks in the list.
+     */
+    int getBlockCount();
+
+    /**
+     * @return The total length of all free blocks in bytes.
+     */
+    int getFreeBytes();
+
+    /**
+     * @return The length of the largest free block in bytes.
+     */
+    int getLargestFreeBlock();
+
+    /**
+     * @return The external fragmentation of the free space: 1 - (largest free block / total free bytes), ranging from 0
+     *         when all free space is in one block towards 1 as it is split into many small blocks.
+     */
+    double getFragmentation();
+
+    /**
+     * @return A histogram of the number of nodes examined per allocation.  Element 0 counts allocations examining no
+     *         nodes, and element <i>i</i> &gt; 0 those examining between 2<sup><i>i</i> - 1</sup> and
+     *         2<sup><i>i</i></sup> - 1 nodes inclusive.
+     */
+    long[] getAllocateVisitHistogram();
+
+    /**
+     * @return A histogram of the number of nodes examined per freed block, bucketed as for allocations: the address
+     *         index nodes descended through to locate the block's neighbours, or for a batch free, the list nodes
+     *         stepped over to reach the block.
+     */
+    long[] getFreeVisitHistogram();
+}
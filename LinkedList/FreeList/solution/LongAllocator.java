@@ -0,0 +1,51 @@
+/* 64-BIT FREE LIST ALLOCATOR CONTRACT
+ * Written: 18 October 2026
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A manager for a contiguous address space beginning at address 0 that may exceed 2<sup>31</sup> bytes.  This is the
+ * <code>long</code>-addressed counterpart of <code>Allocator</code>, specialised by hand rather than generified so
+ * that neither contract pays for boxing; implementations describe their free blocks in <code>toString()</code> using
+ * the same format.
+ *
+ * @see Allocator
+ * @see LongFreeList
+ */
+public interface LongAllocator {
+    /**
+     * Allocate the specified number of bytes of memory, removing them from the free space.
+     *
+     * @param numBytes The number of bytes to allocate.
+     * @return The starting address of the allocated block.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     * @throws NoSuchElementException   If there is not enough free space to allocate the requested memory.
+     */
+    long allocate(long numBytes);
+
+    /**
+     * Free the specified number of bytes of memory beginning at the specified starting address, returning them to the
+     * free space.  Already free regions of memory may not be freed.
+     *
+     * @param startAddress The address at which to begin freeing memory.
+     * @param numBytes     The number of bytes after the starting address to free.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0, the range lies outside the address space, or
+     *                                  the memory requested to be freed is already free.
+     */
+    void free(long startAddress, long numBytes);
+}
@@ -0,0 +1,371 @@
+/* FREE LIST WITH PRIMITIVE ARRAY STORAGE AND 64-BIT ADDRESSES
+ * Written: 18 October 2026
+ *
+ * A variant of ArrayFreeList whose addresses and lengths are longs, for address spaces larger than 2 GiB.  Block
+ * bounds are stored in parallel long arrays and links in an int array, so node slots remain ints and the list is still
+ * limited only by the number of blocks it holds, not by the size of the space it describes.  The code is specialised
+ * by hand from ArrayFreeList rather than shared through generics, so that neither version boxes its addresses.
+ *
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SuppressWarnings("Duplicates")
+public class LongArrayFreeList implements LongAllocator {
+    /** Index used in place of a null node reference. */
+    private static final int NIL = -1;
+    /** Number of node slots allocated by the constructor. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Starting address of the free block in each slot. */
+    private long[] startAddress;
+    /** Length in bytes of the free block in each slot. */
+    private long[] length;
+    /** Slot of the next free block in the list, or of the next unused slot for slots that are not in the list. */
+    private int[] next;
+
+    /** Slot of the first free block in this list. */
+    private int first;
+    /** Head of the chain of recycled slots, linked through <code>next</code>. */
+    private int unusedSlot;
+    /** Number of slots that have ever been used; slots at or beyond this index have never been handed out. */
+    private int slotsUsed;
+    /** The number of free blocks in this list. */
+    private int size;
+    /** The number of bytes controlled by this free list. */
+    private long sizeBytes;
+
+    /**
+     * LongArrayFreeList constructor.  Initialises the list with one free block occupying the entire designated space.
+     *
+     * @param numBytes The number of bytes of memory described by this list.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     */
+    public LongArrayFreeList(long numBytes) {
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("FreeList must control at least one byte of memory");
+        }
+        this.startAddress = new long[INITIAL_CAPACITY];
+        this.length = new long[INITIAL_CAPACITY];
+        this.next = new int[INITIAL_CAPACITY];
+        this.unusedSlot = NIL;
+        this.first = newNode(0, numBytes, NIL);
+        this.size = 1;
+        this.sizeBytes = numBytes;
+    }
+
+    /**
+     * Allocate the specified number of bytes of memory, removing them from the free list.  Allocation is performed
+     * according to the "first-fit" strategy, in which memory is allocated from the first free block that spans at least
+     * the requested amount of space.
+     *
+     * @param numBytes The number of bytes to allocate.
+     * @return The starting address of the allocated block.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     * @throws NoSuchElementException   If there is not enough free space to allocate the requested memory.
+     */
+    @Override
+    public long allocate(long numBytes) {
+        // Must allocate at least one byte
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must allocate at least one byte of memory");
+        }
+
+        // Traverse through the list until a free block of the proper size is found
+        int prevNode = NIL;
+        int freeNode = this.first;
+        while (freeNode != NIL && this.length[freeNode] < numBytes) {
+            prevNode = freeNode;
+            freeNode = this.next[freeNode];
+        }
+        // Ensure that a block was found
+        if (freeNode == NIL) {
+            throw new NoSuchElementException("Out of memory: The requested amount of memory could not be allocated");
+        }
+
+        long start = this.startAddress[freeNode];
+        if (this.length[freeNode] == numBytes) {
+            // If this node perfectly fits the free block, delete it from the free list
+            if (prevNode == NIL) {
+                this.first = this.next[freeNode];
+            } else {
+                this.next[prevNode] = this.next[freeNode];
+            }
+            releaseNode(freeNode);
+            this.size--;
+        } else {
+            // Otherwise, shrink the block
+            this.startAddress[freeNode] += numBytes;
+            this.length[freeNode] -= numBytes;
+        }
+        return start;
+    }
+
+    /**
+     * Free the specified number of bytes of memory beginning at the specified starting address, adding them back into
+     * the free list.  Already free regions of memory may not be freed.
+     *
+     * @param startAddress The address at which to begin freeing memory.  Must be within the address space controlled by
+     *                     this free list.
+     * @param numBytes     The number of bytes after the starting address to free.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0, the range encapsulated by
+     *                                  <code>startAddress + numBytes</code> exceeds the free list's address space, or
+     *                                  the memory requested to be freed is already free.
+     */
+    @Override
+    public void free(long startAddress, long numBytes) {
+        // Precondition checks
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must free a positive number of bytes");
+        }
+        if (startAddress < 0 || startAddress > this.sizeBytes - numBytes) {
+            throw new IllegalArgumentException("Cannot free memory outside this list's address space");
+        }
+
+        // Find the proper place to insert the new node
+        int prevNode = NIL;
+        int nextNode = this.first;
+        while (nextNode != NIL && this.startAddress[nextNode] < startAddress) {
+            prevNode = nextNode;
+            nextNode = this.next[nextNode];
+        }
+
+        if ((nextNode != NIL && this.startAddress[nextNode] - startAddress < numBytes)
+                || (prevNode != NIL && this.startAddress[prevNode] + this.length[prevNode] > startAddress)) {
+            // The freed block overlaps with already-free memory
+            throw new IllegalArgumentException("Cannot free memory that is already free");
+        }
+
+        int node = newNode(startAddress, numBytes, nextNode);
+        if (prevNode == NIL) {
+            // This block is the new first block in the list
+            this.first = node;
+        } else {
+            // This block is elsewhere in the list
+            this.next[prevNode] = node;
+        }
+        this.size++;
+    }
+
+    /**
+     * Compact contiguous free nodes in this list, merging each run of contiguous blocks into its first block and
+     * recycling the slots of the others.  This method has no preconditions.
+     */
+    private void compact() {
+        // If there are no free blocks, do nothing
+        if (this.first == NIL) {
+            return;
+        }
+
+        int blockStart = this.first;
+        int curNode = this.next[blockStart];
+        while (curNode != NIL) {
+            int nextNode = this.next[curNode];
+            if (this.startAddress[blockStart] + this.length[blockStart] == this.startAddress[curNode]) {
+                // Boundaries align, merge nodes
+                this.length[blockStart] += this.length[curNode];
+                releaseNode(curNode);
+                this.size--;
+            } else {
+                // Discrete boundaries, unlink contiguous block
+                this.next[blockStart] = curNode;
+                blockStart = curNode;
+            }
+            curNode = nextNode;
+        }
+
+        // Relink last starting block
+        this.next[blockStart] = NIL;
+    }
+
+    /**
+     * Obtain a slot for a new node, preferring recycled slots and growing the backing arrays only if there are none.
+     *
+     * @param address     The address at which the new free block should begin.
+     * @param blockLength The length of the new free block in bytes.
+     * @param nextNode    The slot of the free block following the new one, or <code>NIL</code>.
+     * @return The slot of the new node.
+     */
+    private int newNode(long address, long blockLength, int nextNode) {
+        int node;
+        if (this.unusedSlot != NIL) {
+            node = this.unusedSlot;
+            this.unusedSlot = this.next[node];
+        } else {
+            if (this.slotsUsed == this.startAddress.length) {
+                int capacity = this.slotsUsed * 2;
+                this.startAddress = Arrays.copyOf(this.startAddress, capacity);
+                this.length = Arrays.copyOf(this.length, capacity);
+                this.next = Arrays.copyOf(this.next, capacity);
+            }
+            node = this.slotsUsed++;
+        }
+
+        this.startAddress[node] = address;
+        this.length[node] = blockLength;
+        this.next[node] = nextNode;
+        return node;
+    }
+
+    /**
+     * Return the slot of a node that has been unlinked from the list to the chain of recycled slots.
+     *
+     * @param node The slot to recycle.
+     */
+    private void releaseNode(int node) {
+        this.next[node] = this.unusedSlot;
+        this.unusedSlot = node;
+    }
+
+    /**
+     * @return A string representation of the free blocks in this list.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Size: " + this.size + "; Blocks: ");
+        if (this.size == 0) {
+            sb.append("none");
+        } else {
+            for (int node = this.first; node != NIL; node = this.next[node]) {
+                if (node != this.first) {
+                    sb.append(", ");
+                }
+                sb.append(String.format("(%d, %d)", this.startAddress[node], this.length[node]));
+            }
+        }
+        return sb.toString();
+    }
+
+
+    /**
+     * @param list A free list.
+     * @return A view of the list for the shared tests in <code>FreeListHarness</code>.
+     */
+    private static FreeListHarness.Subject subject(LongArrayFreeList list) {
+        return new FreeListHarness.Subject() {
+            @Override
+            public long allocate(long numBytes) {
+                return list.allocate(numBytes);
+            }
+
+            @Override
+            public void free(long startAddress, long numBytes) {
+                list.free(startAddress, numBytes);
+            }
+
+            @Override
+            public void compact() {
+                list.compact();
+            }
+
+            @Override
+            public int size() {
+                return list.size;
+            }
+
+            @Override
+            public String toString() {
+                return list.toString();
+            }
+        };
+    }
+
+
+    @DisplayName("LongArrayFreeList harness tests (should all pass)")
+    @Tag("FreeListSolution")
+    public static class FreeListHarnessTest extends FreeListHarness.HarnessTest {
+        @Override
+        protected FreeListHarness.Subject create(long numBytes) {
+            return subject(new LongArrayFreeList(numBytes));
+        }
+    }
+
+    @DisplayName("LongArrayFreeList compaction tests")
+    @Tag("FreeListSolution")
+    public static class FreeListCompactionTest extends FreeListHarness.CompactionTest {
+        @Override
+        protected FreeListHarness.Subject create(long numBytes) {
+            return subject(new LongArrayFreeList(numBytes));
+        }
+    }
+
+    @DisplayName("LongArrayFreeList node slot tests")
+    @Tag("FreeListSolution")
+    public static class LongArrayFreeListSlotTest {
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @Test
+        @DisplayName("Node slots are recycled in steady state")
+        void slotsRecycled() {
+            LongArrayFreeList list = new LongArrayFreeList(MEMORY_SIZE);
+            list.allocate(MEMORY_SIZE);
+            for (int i = 0; i < MEMORY_SIZE; i++) {
+                list.free(i, 1);
+            }
+            int capacity = list.startAddress.length;
+            for (int round = 0; round < 4; round++) {
+                for (int i = 0; i < MEMORY_SIZE; i++) {
+                    list.allocate(1);
+                }
+                for (int i = 0; i < MEMORY_SIZE; i++) {
+                    list.free(i, 1);
+                }
+            }
+            assertEquals(capacity, list.startAddress.length);
+            assertEquals(MEMORY_SIZE, list.size);
+        }
+    }
+
+    @DisplayName("LongArrayFreeList 64-bit address tests")
+    @Tag("FreeListSolution")
+    public static class LongAddressTest {
+        /** Each free list under test will control 4 TiB in total. */
+        private static final long MEMORY_SIZE = 1L << 42;
+
+        @Test
+        @DisplayName("Allocate and free beyond 2 GiB")
+        void largeAddresses() {
+            LongArrayFreeList list = new LongArrayFreeList(MEMORY_SIZE);
+            assertEquals(0, list.allocate(3L << 40));
+            assertEquals(3L << 40, list.allocate(1L << 31));
+            assertEquals("Size: 1; Blocks: (3300682366976, 1097364144128)", list.toString());
+            list.free(1L << 40, 1L << 32);
+            list.free(0, 1L << 40);
+            list.compact();
+            assertEquals("Size: 2; Blocks: (0, 1103806595072), (3300682366976, 1097364144128)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Ranges that overflow are rejected")
+        void overflow() {
+            LongArrayFreeList list = new LongArrayFreeList(Long.MAX_VALUE);
+            list.allocate(Long.MAX_VALUE);
+            assertThrows(IllegalArgumentException.class, () -> list.free(Long.MAX_VALUE - 10, 20));
+            list.free(Long.MAX_VALUE - 10, 10);
+            assertThrows(IllegalArgumentException.class, () -> list.free(Long.MAX_VALUE - 20, Long.MAX_VALUE));
+            assertEquals("Size: 1; Blocks: (9223372036854775797, 10)", list.toString());
+        }
+    }
+}
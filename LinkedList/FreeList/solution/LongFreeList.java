@@ -0,0 +1,485 @@
+/* FREE LIST WITH 64-BIT ADDRESSES
+ * Written: 18 October 2026
+ *
+ * A variant of FreeList whose addresses and lengths are longs, for managing address spaces larger than 2 GiB such as
+ * storage extents.  It keeps the address-ordered chain of FLNodes and the first-fit allocation of the original list,
+ * and threads a treap ordered by starting address through the FLNodes, as FreeList does, so that a free finds its
+ * place in logarithmic time rather than by walking the list; the allocation policies and metrics of FreeList are
+ * specific to its 32-bit representation and are not duplicated here.  The code is specialised by hand from FreeList
+ * rather than shared through generics, so that neither version boxes its addresses and the 32-bit path is unchanged.
+ *
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SuppressWarnings("Duplicates")
+public class LongFreeList implements LongAllocator {
+    /** The first free block in this list. */
+    private FLNode first;
+    /** The number of free blocks in this list. */
+    private int size;
+    /** The number of bytes controlled by this free list. */
+    private long sizeBytes;
+    /** The root of the treap of free blocks ordered by starting address, threaded through each block's children. */
+    private FLNode addressRoot;
+    /** State of the xorshift generator from which treap priorities are drawn. */
+    private int prioritySeed = 314;
+
+    /**
+     * LongFreeList constructor.  Initialises the list with one free block occupying the entire designated space.
+     *
+     * @param numBytes The number of bytes of memory described by this list.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     */
+    public LongFreeList(long numBytes) {
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("FreeList must control at least one byte of memory");
+        }
+        this.first = new FLNode(0, numBytes, null);
+        this.addressRoot = this.first;
+        this.size = 1;
+        this.sizeBytes = numBytes;
+    }
+
+    /**
+     * Allocate the specified number of bytes of memory, removing them from the free list.  Allocation is performed
+     * according to the "first-fit" strategy, in which memory is allocated from the first free block that spans at least
+     * the requested amount of space.
+     *
+     * @param numBytes The number of bytes to allocate.
+     * @return The starting address of the allocated block.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     * @throws NoSuchElementException   If there is not enough free space to allocate the requested memory.
+     */
+    @Override
+    public long allocate(long numBytes) {
+        // Must allocate at least one byte
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must allocate at least one byte of memory");
+        }
+
+        // Traverse through the list until a free block of the proper size is found
+        FLNode prevNode = null;
+        FLNode freeNode = this.first;
+        while (freeNode != null && freeNode.length < numBytes) {
+            prevNode = freeNode;
+            freeNode = freeNode.next;
+        }
+        // Ensure that a block was found
+        if (freeNode == null) {
+            throw new NoSuchElementException("Out of memory: The requested amount of memory could not be allocated");
+        }
+
+        long start = freeNode.startAddress;
+        if (freeNode.length == numBytes) {
+            // If this node perfectly fits the free block, delete it from the free list
+            if (prevNode == null) {
+                this.first = freeNode.next;
+            } else {
+                prevNode.next = freeNode.next;
+            }
+            this.addressRoot = treapDelete(this.addressRoot, freeNode);
+            this.size--;
+        } else {
+            // Otherwise, shrink the block, which moves its start no further than the next block's and so keeps its
+            // place in the treap
+            freeNode.startAddress += numBytes;
+            freeNode.length -= numBytes;
+        }
+        return start;
+    }
+
+    /**
+     * Free the specified number of bytes of memory beginning at the specified starting address, adding them back into
+     * the free list.  Already free regions of memory may not be freed.
+     *
+     * @param startAddress The address at which to begin freeing memory.  Must be within the address space controlled by
+     *                     this free list.
+     * @param numBytes     The number of bytes after the starting address to free.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0, the range encapsulated by
+     *                                  <code>startAddress + numBytes</code> exceeds the free list's address space, or
+     *                                  the memory requested to be freed is already free.
+     */
+    @Override
+    public void free(long startAddress, long numBytes) {
+        // Precondition checks
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must free a positive number of bytes");
+        }
+        if (startAddress < 0 || startAddress > this.sizeBytes - numBytes) {
+            throw new IllegalArgumentException("Cannot free memory outside this list's address space");
+        }
+
+        // Find the proper place to insert the new node: after the last block starting before it
+        FLNode prevNode = lowerByAddress(startAddress);
+        FLNode nextNode = prevNode == null ? this.first : prevNode.next;
+
+        if ((nextNode != null && nextNode.startAddress - startAddress < numBytes)
+                || (prevNode != null && prevNode.startAddress + prevNode.length > startAddress)) {
+            // The freed block overlaps with already-free memory
+            throw new IllegalArgumentException("Cannot free memory that is already free");
+        }
+
+        FLNode freed = new FLNode(startAddress, numBytes, nextNode);
+        if (prevNode == null) {
+            // This block is the new first block in the list
+            this.first = freed;
+        } else {
+            // This block is elsewhere in the list
+            prevNode.next = freed;
+        }
+        this.prioritySeed ^= this.prioritySeed << 13;
+        this.prioritySeed ^= this.prioritySeed >>> 17;
+        this.prioritySeed ^= this.prioritySeed << 5;
+        freed.priority = this.prioritySeed;
+        this.addressRoot = treapInsert(this.addressRoot, freed);
+        this.size++;
+    }
+
+    /**
+     * Compact contiguous free nodes in this list, merging each run of contiguous blocks into its first block.  This
+     * method has no preconditions.
+     */
+    private void compact() {
+        // If there are no free blocks, do nothing
+        if (this.first == null) {
+            return;
+        }
+
+        FLNode blockStart = this.first;
+        for (FLNode curNode = this.first.next; curNode != null; curNode = curNode.next) {
+            if (blockStart.startAddress + blockStart.length == curNode.startAddress) {
+                // Boundaries align, merge nodes
+                blockStart.length += curNode.length;
+                this.addressRoot = treapDelete(this.addressRoot, curNode);
+                this.size--;
+            } else {
+                // Discrete boundaries, unlink contiguous block
+                blockStart.next = curNode;
+                blockStart = curNode;
+            }
+        }
+
+        // Relink last starting block
+        blockStart.next = null;
+    }
+
+    /**
+     * Find the free block with the highest starting address below the specified address, by a descent of the address
+     * treap.
+     *
+     * @param address An address.
+     * @return The last free block beginning before <code>address</code>, or <code>null</code> if there is none.
+     */
+    private FLNode lowerByAddress(long address) {
+        FLNode lower = null;
+        FLNode node = this.addressRoot;
+        while (node != null) {
+            if (node.startAddress < address) {
+                lower = node;
+                node = node.addressRight;
+            } else {
+                node = node.addressLeft;
+            }
+        }
+        return lower;
+    }
+
+    /**
+     * Insert a block into the address treap, rotating it up past any ancestors of lower priority.
+     *
+     * @param root The root of the treap, or <code>null</code> if it is empty.
+     * @param node The block to insert.  Must not currently be in the treap.
+     * @return The new root of the treap.
+     */
+    private static FLNode treapInsert(FLNode root, FLNode node) {
+        if (root == null) {
+            node.addressLeft = null;
+            node.addressRight = null;
+            return node;
+        }
+
+        if (node.startAddress < root.startAddress) {
+            FLNode left = treapInsert(root.addressLeft, node);
+            root.addressLeft = left;
+            if (left.priority > root.priority) {
+                // Rotate right
+                root.addressLeft = left.addressRight;
+                left.addressRight = root;
+                return left;
+            }
+        } else {
+            FLNode right = treapInsert(root.addressRight, node);
+            root.addressRight = right;
+            if (right.priority > root.priority) {
+                // Rotate left
+                root.addressRight = right.addressLeft;
+                right.addressLeft = root;
+                return right;
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Remove a block from the address treap, replacing it with the merge of its subtrees.
+     *
+     * @param root The root of the treap.
+     * @param node The block to remove.  Must currently be in the treap.
+     * @return The new root of the treap.
+     */
+    private static FLNode treapDelete(FLNode root, FLNode node) {
+        if (root == node) {
+            FLNode merged = treapMerge(node.addressLeft, node.addressRight);
+            node.addressLeft = null;
+            node.addressRight = null;
+            return merged;
+        }
+
+        if (node.startAddress < root.startAddress) {
+            root.addressLeft = treapDelete(root.addressLeft, node);
+        } else {
+            root.addressRight = treapDelete(root.addressRight, node);
+        }
+        return root;
+    }
+
+    /**
+     * Merge two treaps, every block of the first of which precedes every block of the second.
+     *
+     * @param left  The root of the first treap, or <code>null</code> if it is empty.
+     * @param right The root of the second treap, or <code>null</code> if it is empty.
+     * @return The root of the merged treap.
+     */
+    private static FLNode treapMerge(FLNode left, FLNode right) {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        } else if (left.priority > right.priority) {
+            left.addressRight = treapMerge(left.addressRight, right);
+            return left;
+        } else {
+            right.addressLeft = treapMerge(left, right.addressLeft);
+            return right;
+        }
+    }
+
+    /**
+     * @return The number of free blocks in this list.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return A string representation of the free blocks in this list.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Size: " + this.size + "; Blocks: ");
+        if (this.size == 0) {
+            sb.append("none");
+        } else {
+            sb.append(this.first);
+            for (FLNode node = this.first.next; node != null; node = node.next) {
+                sb.append(", ");
+                sb.append(node);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static class FLNode {
+        /** Starting address of this free block. */
+        public long startAddress;
+        /** Length of this free block in bytes. */
+        public long length;
+        /** Next free block in the list. */
+        public FLNode next;
+        /** Child of this block in the address treap holding blocks that begin before it. */
+        public FLNode addressLeft;
+        /** Child of this block in the address treap holding blocks that begin after it. */
+        public FLNode addressRight;
+        /** Priority of this block in the address treap, which is a max-heap on priorities. */
+        public int priority;
+
+        /**
+         * LongFreeList free block constructor.
+         *
+         * @param address     The address at which this free block should begin.
+         * @param blockLength The length of this free block in bytes.
+         * @param nextNode    The free block following this one.  May be null to signify the end of the list.
+         */
+        public FLNode(long address, long blockLength, FLNode nextNode) {
+            this.startAddress = address;
+            this.length = blockLength;
+            this.next = nextNode;
+        }
+
+        /**
+         * @return A representation of this free block as a 2-tuple: (startAddress, length).
+         */
+        public String toString() {
+            return String.format("(%d, %d)", this.startAddress, this.length);
+        }
+    }
+
+
+    /**
+     * @param list A free list.
+     * @return A view of the list for the shared tests in <code>FreeListHarness</code>.
+     */
+    private static FreeListHarness.Subject subject(LongFreeList list) {
+        return new FreeListHarness.Subject() {
+            @Override
+            public long allocate(long numBytes) {
+                return list.allocate(numBytes);
+            }
+
+            @Override
+            public void free(long startAddress, long numBytes) {
+                list.free(startAddress, numBytes);
+            }
+
+            @Override
+            public void compact() {
+                list.compact();
+            }
+
+            @Override
+            public int size() {
+                return list.size;
+            }
+
+            @Override
+            public String toString() {
+                return list.toString();
+            }
+        };
+    }
+
+
+    @DisplayName("LongFreeList harness tests (should all pass)")
+    @Tag("FreeListSolution")
+    public static class FreeListHarnessTest extends FreeListHarness.HarnessTest {
+        @Override
+        protected FreeListHarness.Subject create(long numBytes) {
+            return subject(new LongFreeList(numBytes));
+        }
+    }
+
+    @DisplayName("LongFreeList compaction tests")
+    @Tag("FreeListSolution")
+    public static class FreeListCompactionTest extends FreeListHarness.CompactionTest {
+        @Override
+        protected FreeListHarness.Subject create(long numBytes) {
+            return subject(new LongFreeList(numBytes));
+        }
+    }
+
+    @DisplayName("LongFreeList 64-bit address tests")
+    @Tag("FreeListSolution")
+    public static class LongAddressTest {
+        /** Each free list under test will control 4 TiB in total. */
+        private static final long MEMORY_SIZE = 1L << 42;
+
+        @Test
+        @DisplayName("Allocate and free beyond 2 GiB")
+        void largeAddresses() {
+            LongFreeList list = new LongFreeList(MEMORY_SIZE);
+            assertEquals(0, list.allocate(3L << 40));
+            assertEquals(3L << 40, list.allocate(1L << 31));
+            assertEquals("Size: 1; Blocks: (3300682366976, 1097364144128)", list.toString());
+            list.free(1L << 40, 1L << 32);
+            list.free(0, 1L << 40);
+            list.compact();
+            assertEquals("Size: 2; Blocks: (0, 1103806595072), (3300682366976, 1097364144128)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Ranges that overflow are rejected")
+        void overflow() {
+            LongFreeList list = new LongFreeList(Long.MAX_VALUE);
+            list.allocate(Long.MAX_VALUE);
+            assertThrows(IllegalArgumentException.class, () -> list.free(Long.MAX_VALUE - 10, 20));
+            list.free(Long.MAX_VALUE - 10, 10);
+            assertThrows(IllegalArgumentException.class, () -> list.free(Long.MAX_VALUE - 20, Long.MAX_VALUE));
+            assertEquals("Size: 1; Blocks: (9223372036854775797, 10)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Frees in random order are placed by address")
+        void randomOrderFrees() {
+            final int BLOCKS = 4096;
+            final long BLOCK_BYTES = 1L << 20;
+            LongFreeList list = new LongFreeList(BLOCKS * BLOCK_BYTES);
+            list.allocate(BLOCKS * BLOCK_BYTES);
+            long[] starts = new long[BLOCKS];
+            for (int i = 0; i < BLOCKS; i++) {
+                starts[i] = i * BLOCK_BYTES;
+            }
+            Random random = new Random(314);
+            for (int i = BLOCKS - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                long swap = starts[i];
+                starts[i] = starts[j];
+                starts[j] = swap;
+            }
+
+            // Free every other block first, so that each later free lands between two free blocks
+            for (int i = 0; i < BLOCKS; i++) {
+                if (starts[i] / BLOCK_BYTES % 2 == 0) {
+                    list.free(starts[i], BLOCK_BYTES);
+                }
+            }
+            for (int i = 0; i < BLOCKS; i++) {
+                long start = starts[i];
+                if (start / BLOCK_BYTES % 2 == 1) {
+                    assertThrows(IllegalArgumentException.class, () -> list.free(start - 1, 2));
+                    assertThrows(IllegalArgumentException.class, () -> list.free(start + BLOCK_BYTES - 1, 2));
+                    list.free(start, BLOCK_BYTES);
+                }
+                assertThrows(IllegalArgumentException.class, () -> list.free(start + 1, 1));
+            }
+            assertEquals(BLOCKS, list.size());
+
+            StringBuilder expected = new StringBuilder("Size: " + BLOCKS + "; Blocks: ");
+            for (int i = 0; i < BLOCKS; i++) {
+                expected.append(i == 0 ? "" : ", ").append("(" + i * BLOCK_BYTES + ", " + BLOCK_BYTES + ")");
+            }
+            assertEquals(expected.toString(), list.toString());
+
+            // Shrinking and removing blocks leaves the rest in place for the frees that follow
+            assertEquals(0, list.allocate(BLOCK_BYTES / 2));
+            assertEquals(BLOCK_BYTES / 2, list.allocate(BLOCK_BYTES / 2));
+            assertEquals(BLOCK_BYTES, list.allocate(BLOCK_BYTES / 2));
+            list.free(BLOCK_BYTES / 2, BLOCK_BYTES / 2);
+            assertThrows(IllegalArgumentException.class, () -> list.free(0, BLOCK_BYTES / 2 + 1));
+            list.free(0, BLOCK_BYTES / 2);
+            list.compact();
+            assertEquals("Size: 2; Blocks: (0, 1048576), (1572864, 4293394432)", list.toString());
+        }
+    }
+}
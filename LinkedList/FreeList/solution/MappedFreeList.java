@@ -0,0 +1,610 @@
+/* PERSISTENT FREE LIST
+ * Written: 18 October 2026
+ *
+ * A variant of ArrayFreeList whose state lives in a memory-mapped file rather than on the Java heap.  The file holds a
+ * fixed-width header followed by one twelve-byte record (start address, length, next slot) per node slot, all in the
+ * same layout that ArrayFreeList keeps in its parallel arrays; every operation reads and writes the mapped records
+ * directly.  Since nothing needs to be deserialised, reopening the file after a restart only maps it and checks its
+ * header, so a process resumes with its previous free-space map in constant time regardless of how many blocks it
+ * holds.
+ *
+ * The file is consistent whenever no operation is in progress, and its contents are durable once force() or close()
+ * has returned.  A crash during an operation may leave the file inconsistent.
+ *
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SuppressWarnings("Duplicates")
+public class MappedFreeList implements Allocator, Closeable {
+    /** The first four bytes of every free list file. */
+    static final int MAGIC = 0x464C5354;
+    /** The version of the file format written by this class. */
+    static final int VERSION = 1;
+    /** Index used in place of a null node reference. */
+    private static final int NIL = -1;
+    /** Number of node slots allocated when a file is created. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Offset of the magic number in the header. */
+    private static final int MAGIC_OFFSET = 0;
+    /** Offset of the format version in the header. */
+    private static final int VERSION_OFFSET = 4;
+    /** Offset of the number of bytes controlled by the list in the header. */
+    private static final int SIZE_BYTES_OFFSET = 8;
+    /** Offset of the slot of the first free block in the header. */
+    private static final int FIRST_OFFSET = 12;
+    /** Offset of the head of the chain of recycled slots in the header. */
+    private static final int UNUSED_SLOT_OFFSET = 16;
+    /** Offset of the number of slots that have ever been used in the header. */
+    private static final int SLOTS_USED_OFFSET = 20;
+    /** Offset of the number of free blocks in the header. */
+    private static final int SIZE_OFFSET = 24;
+    /** Offset of the number of slots that fit in the file in the header. */
+    private static final int CAPACITY_OFFSET = 28;
+    /** The number of bytes preceding the first record. */
+    static final int HEADER_BYTES = 32;
+
+    /** Offset of the starting address within a record. */
+    private static final int START_ADDRESS_OFFSET = 0;
+    /** Offset of the length within a record. */
+    private static final int LENGTH_OFFSET = 4;
+    /** Offset of the next slot within a record. */
+    private static final int NEXT_OFFSET = 8;
+    /** The number of bytes in each record. */
+    static final int RECORD_BYTES = 12;
+
+    /** The file in which the list is stored. */
+    private final FileChannel channel;
+    /** The mapped contents of the file. */
+    private MappedByteBuffer buffer;
+
+    /**
+     * MappedFreeList constructor.  Maps the specified file without examining its contents.
+     *
+     * @param channel  The file in which the list is stored, open for reading and writing.
+     * @param capacity The number of node slots the file holds.
+     * @throws IOException If the file cannot be mapped.
+     */
+    private MappedFreeList(FileChannel channel, int capacity) throws IOException {
+        this.channel = channel;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * RECORD_BYTES);
+    }
+
+    /**
+     * Create a list stored in the specified file, replacing any existing file, and initialise it with one free block
+     * occupying the entire designated space.
+     *
+     * @param path     The file in which to store the list.
+     * @param numBytes The number of bytes of memory described by this list.
+     * @return The new list.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     * @throws IOException              If the file cannot be created.
+     */
+    public static MappedFreeList create(Path path, int numBytes) throws IOException {
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("FreeList must control at least one byte of memory");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedFreeList list = new MappedFreeList(channel, INITIAL_CAPACITY);
+        list.buffer.putInt(MAGIC_OFFSET, MAGIC);
+        list.buffer.putInt(VERSION_OFFSET, VERSION);
+        list.buffer.putInt(SIZE_BYTES_OFFSET, numBytes);
+        list.buffer.putInt(UNUSED_SLOT_OFFSET, NIL);
+        list.buffer.putInt(SLOTS_USED_OFFSET, 0);
+        list.buffer.putInt(CAPACITY_OFFSET, INITIAL_CAPACITY);
+        list.buffer.putInt(FIRST_OFFSET, list.newNode(0, numBytes, NIL));
+        list.buffer.putInt(SIZE_OFFSET, 1);
+        return list;
+    }
+
+    /**
+     * Reopen a list previously stored in the specified file.  Only the header is examined, so this takes the same time
+     * regardless of the number of blocks in the list.
+     *
+     * @param path The file in which the list is stored.
+     * @return The list stored in the file.
+     * @throws IllegalArgumentException If the file does not contain a free list.
+     * @throws IOException              If the file cannot be opened.
+     */
+    public static MappedFreeList open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IllegalArgumentException("Not a free list file: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            int capacity = header.getInt(CAPACITY_OFFSET);
+            if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION || capacity <= 0
+                    || channel.size() < HEADER_BYTES + (long) capacity * RECORD_BYTES) {
+                throw new IllegalArgumentException("Not a free list file: " + path);
+            }
+            return new MappedFreeList(channel, capacity);
+        } catch (IllegalArgumentException | IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Allocate the specified number of bytes of memory, removing them from the free list.  Allocation is performed
+     * according to the "first-fit" strategy, in which memory is allocated from the first free block that spans at least
+     * the requested amount of space.
+     *
+     * @param numBytes The number of bytes to allocate.
+     * @return The starting address of the allocated block.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     * @throws NoSuchElementException   If there is not enough free space to allocate the requested memory.
+     */
+    @Override
+    public int allocate(int numBytes) {
+        // Must allocate at least one byte
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must allocate at least one byte of memory");
+        }
+
+        // Traverse through the list until a free block of the proper size is found
+        int prevNode = NIL;
+        int freeNode = first();
+        while (freeNode != NIL && length(freeNode) < numBytes) {
+            prevNode = freeNode;
+            freeNode = next(freeNode);
+        }
+        // Ensure that a block was found
+        if (freeNode == NIL) {
+            throw new NoSuchElementException("Out of memory: The requested amount of memory could not be allocated");
+        }
+
+        int start = startAddress(freeNode);
+        if (length(freeNode) == numBytes) {
+            // If this node perfectly fits the free block, delete it from the free list
+            if (prevNode == NIL) {
+                this.buffer.putInt(FIRST_OFFSET, next(freeNode));
+            } else {
+                setNext(prevNode, next(freeNode));
+            }
+            releaseNode(freeNode);
+            this.buffer.putInt(SIZE_OFFSET, size() - 1);
+        } else {
+            // Otherwise, shrink the block
+            setStartAddress(freeNode, start + numBytes);
+            setLength(freeNode, length(freeNode) - numBytes);
+        }
+        return start;
+    }
+
+    /**
+     * Free the specified number of bytes of memory beginning at the specified starting address, adding them back into
+     * the free list.  Already free regions of memory may not be freed.
+     *
+     * @param startAddress The address at which to begin freeing memory.  Must be within the address space controlled by
+     *                     this free list.
+     * @param numBytes     The number of bytes after the starting address to free.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0, the range encapsulated by
+     *                                  <code>startAddress + numBytes</code> exceeds the free list's address space, or
+     *                                  the memory requested to be freed is already free.
+     */
+    @Override
+    public void free(int startAddress, int numBytes) {
+        // Precondition checks
+        if (numBytes <= 0) {
+            throw new IllegalArgumentException("Must free a positive number of bytes");
+        }
+        if (startAddress < 0 || startAddress > this.buffer.getInt(SIZE_BYTES_OFFSET) - numBytes) {
+            throw new IllegalArgumentException("Cannot free memory outside this list's address space");
+        }
+
+        // Find the proper place to insert the new node
+        int prevNode = NIL;
+        int nextNode = first();
+        while (nextNode != NIL && startAddress(nextNode) < startAddress) {
+            prevNode = nextNode;
+            nextNode = next(nextNode);
+        }
+
+        if ((nextNode != NIL && startAddress + numBytes > startAddress(nextNode))
+                || (prevNode != NIL && startAddress(prevNode) + length(prevNode) > startAddress)) {
+            // The freed block overlaps with already-free memory
+            throw new IllegalArgumentException("Cannot free memory that is already free");
+        }
+
+        int node = newNode(startAddress, numBytes, nextNode);
+        if (prevNode == NIL) {
+            // This block is the new first block in the list
+            this.buffer.putInt(FIRST_OFFSET, node);
+        } else {
+            // This block is elsewhere in the list
+            setNext(prevNode, node);
+        }
+        this.buffer.putInt(SIZE_OFFSET, size() + 1);
+    }
+
+    /**
+     * Compact contiguous free nodes in this list, merging each run of contiguous blocks into its first block and
+     * recycling the slots of the others.  This method has no preconditions.
+     */
+    private void compact() {
+        // If there are no free blocks, do nothing
+        if (first() == NIL) {
+            return;
+        }
+
+        int blockStart = first();
+        int curNode = next(blockStart);
+        int size = size();
+        while (curNode != NIL) {
+            int nextNode = next(curNode);
+            if (startAddress(blockStart) + length(blockStart) == startAddress(curNode)) {
+                // Boundaries align, merge nodes
+                setLength(blockStart, length(blockStart) + length(curNode));
+                releaseNode(curNode);
+                size--;
+            } else {
+                // Discrete boundaries, unlink contiguous block
+                setNext(blockStart, curNode);
+                blockStart = curNode;
+            }
+            curNode = nextNode;
+        }
+
+        // Relink last starting block
+        setNext(blockStart, NIL);
+        this.buffer.putInt(SIZE_OFFSET, size);
+    }
+
+    /**
+     * Write any changes to the list through to the storage device containing its file.
+     */
+    public void force() {
+        this.buffer.force();
+    }
+
+    /**
+     * Write any changes to the list through to storage and close its file.  The list may not be used afterwards.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        this.channel.close();
+    }
+
+    /**
+     * @return The number of free blocks in this list.
+     */
+    public int size() {
+        return this.buffer.getInt(SIZE_OFFSET);
+    }
+
+    /**
+     * Obtain a slot for a new node, preferring recycled slots and growing the file only if there are none.
+     *
+     * @param address     The address at which the new free block should begin.
+     * @param blockLength The length of the new free block in bytes.
+     * @param nextNode    The slot of the free block following the new one, or <code>NIL</code>.
+     * @return The slot of the new node.
+     */
+    private int newNode(int address, int blockLength, int nextNode) {
+        int node = this.buffer.getInt(UNUSED_SLOT_OFFSET);
+        if (node != NIL) {
+            this.buffer.putInt(UNUSED_SLOT_OFFSET, next(node));
+        } else {
+            node = this.buffer.getInt(SLOTS_USED_OFFSET);
+            if (node == this.buffer.getInt(CAPACITY_OFFSET)) {
+                grow(node * 2);
+            }
+            this.buffer.putInt(SLOTS_USED_OFFSET, node + 1);
+        }
+
+        setStartAddress(node, address);
+        setLength(node, blockLength);
+        setNext(node, nextNode);
+        return node;
+    }
+
+    /**
+     * Return the slot of a node that has been unlinked from the list to the chain of recycled slots.
+     *
+     * @param node The slot to recycle.
+     */
+    private void releaseNode(int node) {
+        setNext(node, this.buffer.getInt(UNUSED_SLOT_OFFSET));
+        this.buffer.putInt(UNUSED_SLOT_OFFSET, node);
+    }
+
+    /**
+     * Extend the file and remap it so that it holds the specified number of node slots.
+     *
+     * @param capacity The new number of slots.
+     * @throws IllegalStateException If the file cannot be extended.
+     */
+    private void grow(int capacity) {
+        try {
+            // Mapping beyond the end of the file extends it
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) capacity * RECORD_BYTES);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not extend free list file", e);
+        }
+        this.buffer.putInt(CAPACITY_OFFSET, capacity);
+    }
+
+    /**
+     * @return The slot of the first free block in this list.
+     */
+    private int first() {
+        return this.buffer.getInt(FIRST_OFFSET);
+    }
+
+    /**
+     * @param node The slot of a node.
+     * @return The starting address of the free block in the slot.
+     */
+    private int startAddress(int node) {
+        return this.buffer.getInt(HEADER_BYTES + node * RECORD_BYTES + START_ADDRESS_OFFSET);
+    }
+
+    /**
+     * @param node The slot of a node.
+     * @return The length in bytes of the free block in the slot.
+     */
+    private int length(int node) {
+        return this.buffer.getInt(HEADER_BYTES + node * RECORD_BYTES + LENGTH_OFFSET);
+    }
+
+    /**
+     * @param node The slot of a node.
+     * @return The slot of the next free block in the list, or of the next recycled slot.
+     */
+    private int next(int node) {
+        return this.buffer.getInt(HEADER_BYTES + node * RECORD_BYTES + NEXT_OFFSET);
+    }
+
+    /**
+     * @param node    The slot of a node.
+     * @param address The new starting address of the free block in the slot.
+     */
+    private void setStartAddress(int node, int address) {
+        this.buffer.putInt(HEADER_BYTES + node * RECORD_BYTES + START_ADDRESS_OFFSET, address);
+    }
+
+    /**
+     * @param node        The slot of a node.
+     * @param blockLength The new length in bytes of the free block in the slot.
+     */
+    private void setLength(int node, int blockLength) {
+        this.buffer.putInt(HEADER_BYTES + node * RECORD_BYTES + LENGTH_OFFSET, blockLength);
+    }
+
+    /**
+     * @param node     The slot of a node.
+     * @param nextNode The new slot of the following node.
+     */
+    private void setNext(int node, int nextNode) {
+        this.buffer.putInt(HEADER_BYTES + node * RECORD_BYTES + NEXT_OFFSET, nextNode);
+    }
+
+    @Override
+    public void forEachFreeBlock(BlockVisitor visitor) {
+        for (int node = first(); node != NIL; node = next(node)) {
+            visitor.visit(startAddress(node), length(node));
+        }
+    }
+
+    /**
+     * @return A string representation of the free blocks in this list.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Size: " + size() + "; Blocks: ");
+        if (size() == 0) {
+            sb.append("none");
+        } else {
+            int first = first();
+            for (int node = first; node != NIL; node = next(node)) {
+                if (node != first) {
+                    sb.append(", ");
+                }
+                sb.append(String.format("(%d, %d)", startAddress(node), length(node)));
+            }
+        }
+        return sb.toString();
+    }
+
+
+    /**
+     * @param list A free list.
+     * @return A view of the list for the shared tests in <code>FreeListHarness</code>.
+     */
+    private static FreeListHarness.Subject subject(MappedFreeList list) {
+        return new FreeListHarness.Subject() {
+            @Override
+            public long allocate(long numBytes) {
+                return list.allocate(Math.toIntExact(numBytes));
+            }
+
+            @Override
+            public void free(long startAddress, long numBytes) {
+                list.free(Math.toIntExact(startAddress), Math.toIntExact(numBytes));
+            }
+
+            @Override
+            public void compact() {
+                list.compact();
+            }
+
+            @Override
+            public int size() {
+                return list.size();
+            }
+
+            @Override
+            public String toString() {
+                return list.toString();
+            }
+        };
+    }
+
+    /**
+     * Create a list in a new file of the specified directory, recording it so that it can be closed after the test.
+     *
+     * @param directory The directory in which to create the file.
+     * @param lists     The lists created so far by the current test, to which the new list is added.
+     * @param numBytes  The number of bytes of memory described by the list.
+     * @return The new list.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     */
+    private static MappedFreeList createIn(Path directory, List<MappedFreeList> lists, long numBytes) {
+        try {
+            MappedFreeList list = create(directory.resolve("list" + lists.size() + ".bin"), Math.toIntExact(numBytes));
+            lists.add(list);
+            return list;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param lists The lists created by a test, all of which are closed.
+     * @throws IOException If any list cannot be closed.
+     */
+    private static void closeAll(List<MappedFreeList> lists) throws IOException {
+        for (MappedFreeList list : lists) {
+            list.close();
+        }
+        lists.clear();
+    }
+
+
+    @DisplayName("MappedFreeList harness tests (should all pass)")
+    @Tag("FreeListSolution")
+    public static class FreeListHarnessTest extends FreeListHarness.HarnessTest {
+        private final List<MappedFreeList> lists = new ArrayList<>();
+
+        @TempDir
+        Path directory;
+
+        @Override
+        protected FreeListHarness.Subject create(long numBytes) {
+            return subject(createIn(directory, lists, numBytes));
+        }
+
+        @AfterEach
+        void tearDown() throws IOException {
+            closeAll(lists);
+        }
+    }
+
+    @DisplayName("MappedFreeList compaction tests")
+    @Tag("FreeListSolution")
+    public static class FreeListCompactionTest extends FreeListHarness.CompactionTest {
+        private final List<MappedFreeList> lists = new ArrayList<>();
+
+        @TempDir
+        Path directory;
+
+        @Override
+        protected FreeListHarness.Subject create(long numBytes) {
+            return subject(createIn(directory, lists, numBytes));
+        }
+
+        @AfterEach
+        void tearDown() throws IOException {
+            closeAll(lists);
+        }
+    }
+
+    @DisplayName("MappedFreeList persistence tests")
+    @Tag("FreeListSolution")
+    public static class MappedFreeListPersistenceTest {
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @TempDir
+        Path directory;
+
+        @Test
+        @DisplayName("Reopened list resumes where it left off")
+        void reopen() throws IOException {
+            Path path = directory.resolve("list.bin");
+            String before;
+            try (MappedFreeList list = MappedFreeList.create(path, MEMORY_SIZE)) {
+                list.allocate(MEMORY_SIZE);
+                for (int i = 0; i < 64; i++) {
+                    list.free(i * 16, 8);
+                }
+                list.allocate(8);
+                before = list.toString();
+            }
+
+            try (MappedFreeList list = MappedFreeList.open(path)) {
+                assertEquals(before, list.toString());
+                assertEquals(63, list.size());
+                // Recycled slots survive the restart as well
+                list.free(0, 8);
+                assertEquals(64, list.size());
+                assertEquals(0, list.allocate(8));
+                assertThrows(IllegalArgumentException.class, () -> list.free(MEMORY_SIZE, 1));
+                assertThrows(IllegalArgumentException.class, () -> list.free(1, Integer.MAX_VALUE));
+            }
+        }
+
+        @Test
+        @DisplayName("File grows to hold many blocks")
+        void growFile() throws IOException {
+            Path path = directory.resolve("list.bin");
+            try (MappedFreeList list = MappedFreeList.create(path, MEMORY_SIZE)) {
+                list.allocate(MEMORY_SIZE);
+                for (int i = 0; i < MEMORY_SIZE; i++) {
+                    list.free(i, 1);
+                }
+                assertEquals(MEMORY_SIZE, list.size());
+            }
+            assertEquals(HEADER_BYTES + (long) MEMORY_SIZE * RECORD_BYTES, Files.size(path));
+        }
+
+        @Test
+        @DisplayName("Open rejects files that are not free lists")
+        void openInvalid() throws IOException {
+            Path path = directory.resolve("list.bin");
+            Files.write(path, new byte[HEADER_BYTES]);
+            assertThrows(IllegalArgumentException.class, () -> MappedFreeList.open(path));
+            Files.write(path, new byte[3]);
+            assertThrows(IllegalArgumentException.class, () -> MappedFreeList.open(path));
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/* OFF-HEAP FREE LIST
+ * Written: 18 October 2026
+ *
+ * A FreeList that manages a real region of memory rather than an abstract address space.  The region is a direct
+ * ByteBuffer allocated outside the Java heap when the list is constructed; the addresses returned by allocate() are
+ * offsets into it, and slice() exposes an allocated block as a ByteBuffer of its own that can be read and written
+ * without copying.  Since the arena is allocated once and reused for the lifetime of the list, it can serve as a slab
+ * allocator for buffers that would otherwise put pressure on the garbage collector.
+ *
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package LinkedList.FreeList.solution;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OffHeapFreeList implements Allocator {
+    /** Bookkeeping for the free regions of the arena. */
+    private final FreeList freeList;
+    /** The off-heap memory managed by this list. */
+    private final ByteBuffer arena;
+
+    /**
+     * OffHeapFreeList constructor.  Allocates a direct buffer of the designated size and initialises the list with one
+     * free block spanning all of it.
+     *
+     * @param numBytes The number of bytes of off-heap memory to manage.
+     * @param policy   The strategy used to choose a free block when allocating memory.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0 or <code>policy</code> is <code>null</code>.
+     */
+    public OffHeapFreeList(int numBytes, FreeList.AllocationPolicy policy) {
+        this.freeList = new FreeList(numBytes, policy);
+        this.arena = ByteBuffer.allocateDirect(numBytes);
+    }
+
+    /**
+     * OffHeapFreeList constructor.  Allocates a direct buffer of the designated size, from which memory will be
+     * allocated according to the "first-fit" strategy.
+     *
+     * @param numBytes The number of bytes of off-heap memory to manage.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     */
+    public OffHeapFreeList(int numBytes) {
+        this(numBytes, FreeList.AllocationPolicy.FIRST_FIT);
+    }
+
+    /**
+     * Allocate the specified number of bytes of the arena.  Use <code>slice()</code> to access the allocated memory.
+     *
+     * @param numBytes The number of bytes to allocate.
+     * @return The offset into the arena at which the allocated block begins.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0.
+     * @throws NoSuchElementException   If there is not enough free space to allocate the requested memory.
+     */
+    @Override
+    public int allocate(int numBytes) {
+        return this.freeList.allocate(numBytes);
+    }
+
+    /**
+     * Return the specified range of the arena to the free list.  Any slices of the range remain usable but must not be
+     * accessed, since the memory they view may be handed out again by a later allocation.
+     *
+     * @param startAddress The offset into the arena at which to begin freeing memory.
+     * @param numBytes     The number of bytes after the starting offset to free.
+     * @throws IllegalArgumentException If <code>numBytes</code> &le; 0, the range lies outside the arena, or the memory
+     *                                  requested to be freed is already free.
+     */
+    @Override
+    public void free(int startAddress, int numBytes) {
+        this.freeList.free(startAddress, numBytes);
+    }
+
+    /**
+     * Create a view of the specified range of the arena.  The view shares its contents with the arena, has position 0
+     * and a limit and capacity of <code>numBytes</code>, and is independent of any other view.  No bytes are copied.
+     * The range must be allocated; it is checked against the free list in the same way as a range passed to
+     * <code>free()</code>.
+     *
+     * @param startAddress The offset into the arena at which the view begins.
+     * @param numBytes     The length of the view in bytes.
+     * @return A direct buffer viewing the specified range of the arena.
+     * @throws IllegalArgumentException If <code>numBytes</code> &lt; 0, the range lies outside the arena, or any of
+     *                                  the range is free.
+     */
+    public ByteBuffer slice(int startAddress, int numBytes) {
+        if (numBytes < 0 || startAddress < 0 || startAddress > this.arena.capacity() - numBytes) {
+            throw new IllegalArgumentException("Cannot slice memory outside this list's arena");
+        }
+        if (numBytes > 0 && this.freeList.overlapsFree(startAddress, numBytes)) {
+            throw new IllegalArgumentException("Cannot slice memory that is free");
+        }
+        return this.arena.slice(startAddress, numBytes);
+    }
+
+    /**
+     * @return The number of bytes of off-heap memory managed by this list.
+     */
+    public int capacity() {
+        return this.arena.capacity();
+    }
+
+    @Override
+    public void forEachFreeBlock(BlockVisitor visitor) {
+        this.freeList.forEachFreeBlock(visitor);
+    }
+
+    @Override
+    public int freeBytes() {
+        return this.freeList.freeBytes();
+    }
+
+    @Override
+    public int largestFreeBlock() {
+        return this.freeList.largestFreeBlock();
+    }
+
+    /**
+     * @return A string representation of the free blocks in this list.
+     */
+    public String toString() {
+        return this.freeList.toString();
+    }
+
+
+    @DisplayName("OffHeapFreeList tests")
+    @Tag("FreeListSolution")
+    public static class OffHeapFreeListTest {
+        private OffHeapFreeList list;
+        /** Each free list under test will control 1024 bytes in total. */
+        private static final int MEMORY_SIZE = 1024;
+
+        @BeforeEach
+        void setUp() {
+            list = new OffHeapFreeList(MEMORY_SIZE);
+        }
+
+        @Test
+        @DisplayName("Constructor allocates direct arena")
+        void constructor() {
+            assertEquals(MEMORY_SIZE, list.capacity());
+            assertTrue(list.arena.isDirect());
+            assertEquals("Size: 1; Blocks: (0, 1024)", list.toString());
+        }
+
+        @Test
+        @DisplayName("Constructor precondition: numBytes > 0")
+        void constructorPrecondition() {
+            assertThrows(IllegalArgumentException.class, () -> new OffHeapFreeList(0));
+        }
+
+        @Test
+        @DisplayName("Slices view disjoint regions of the arena")
+        void disjointSlices() {
+            int a = list.allocate(16);
+            int b = list.allocate(16);
+            ByteBuffer sliceA = list.slice(a, 16);
+            ByteBuffer sliceB = list.slice(b, 16);
+            assertEquals(16, sliceA.capacity());
+            assertTrue(sliceA.isDirect());
+
+            sliceA.putLong(0, 0x0123456789ABCDEFL);
+            sliceB.putLong(0, -1L);
+            assertEquals(0x0123456789ABCDEFL, sliceA.getLong(0));
+            assertEquals(0x0123456789ABCDEFL, list.arena.getLong(a));
+            assertEquals(-1L, list.arena.getLong(b));
+        }
+
+        @Test
+        @DisplayName("Slices are bounded by their block")
+        void sliceBounds() {
+            ByteBuffer slice = list.slice(list.allocate(8), 8);
+            assertThrows(IndexOutOfBoundsException.class, () -> slice.putLong(1, 0L));
+        }
+
+        @Test
+        @DisplayName("Freed memory is reused")
+        void reuseFreed() {
+            int a = list.allocate(MEMORY_SIZE);
+            list.slice(a, MEMORY_SIZE).put(100, (byte) 42);
+            list.free(100, 10);
+            assertEquals("Size: 1; Blocks: (100, 10)", list.toString());
+            int b = list.allocate(10);
+            assertEquals(100, b);
+            assertEquals(42, list.slice(b, 10).get(0));
+            assertThrows(NoSuchElementException.class, () -> list.allocate(1));
+        }
+
+        @Test
+        @DisplayName("Cannot slice outside the arena")
+        void slicePrecondition() {
+            assertThrows(IllegalArgumentException.class, () -> list.slice(-1, 1));
+            assertThrows(IllegalArgumentException.class, () -> list.slice(MEMORY_SIZE - 1, 2));
+            assertThrows(IllegalArgumentException.class, () -> list.slice(0, -1));
+        }
+
+        @Test
+        @DisplayName("Cannot slice free memory")
+        void sliceFree() {
+            int a = list.allocate(16);
+            assertThrows(IllegalArgumentException.class, () -> list.slice(a, 17));
+            assertThrows(IllegalArgumentException.class, () -> list.slice(512, 8));
+            list.free(a, 8);
+            assertThrows(IllegalArgumentException.class, () -> list.slice(a, 16));
+            assertEquals(8, list.slice(a + 8, 8).capacity());
+        }
+    }
+}
@@ -57,8 +57,31 @@ import common.MorseMap;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SuppressWarnings("Duplicates")
 public class MorseCode {
@@ -109,6 +132,353 @@ public class MorseCode {
         }
     }
 
+    /** Number of characters read from a <code>Reader</code> at a time by the streaming decoder. */
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    /**
+     * Translate the specified Morse transcript as <code>translateMorse(String, MorseMap)</code> would, appending the
+     * result to the specified destination.  Patterns are decoded by walking the translation tree one blip at a time,
+     * and invalid patterns are copied directly from the source, so no objects are allocated per Morse letter.  Since
+     * <code>CharBuffer</code> implements <code>CharSequence</code>, buffers may be decoded in place.
+     * @param morseMessage The Morse code transcript to translate.
+     * @param english The destination to which to append the translation.
+     * @param translator The Morse translator used to translate Morse letters into Latin alphabet characters.
+     * @throws IOException If appending to <code>english</code> fails.
+     */
+    public static void translateMorse(CharSequence morseMessage, Appendable english, MorseMap translator)
+            throws IOException {
+        int characterStart = 0;
+        int treeIndex = MorseMap.ROOT;
+        for (int idx = 0; idx < morseMessage.length(); idx++) {
+            char currentSymbol = morseMessage.charAt(idx);
+            if (currentSymbol == ' ') {
+                appendLetter(treeIndex, morseMessage, characterStart, idx, english);
+                characterStart = idx + 1;
+                treeIndex = MorseMap.ROOT;
+            } else {
+                treeIndex = translator.step(treeIndex, currentSymbol);
+            }
+        }
+
+        // Flush final letter
+        appendLetter(treeIndex, morseMessage, characterStart, morseMessage.length(), english);
+    }
+
+    /**
+     * Translate the Morse transcript read from the specified source as <code>translateMorse(String, MorseMap)</code>
+     * would, appending the result to the specified destination.  The source is read in fixed-size blocks and is not
+     * closed.  The characters of the current Morse letter are retained in a single reusable buffer so that invalid
+     * patterns straddling block boundaries can be re-inserted verbatim.
+     * @param morseMessage The source of the Morse code transcript to translate.
+     * @param english The destination to which to append the translation.
+     * @param translator The Morse translator used to translate Morse letters into Latin alphabet characters.
+     * @throws IOException If reading from <code>morseMessage</code> or appending to <code>english</code> fails.
+     */
+    public static void translateMorse(Reader morseMessage, Appendable english, MorseMap translator)
+            throws IOException {
+        translateMorse(morseMessage, english, translator, STREAM_BUFFER_SIZE);
+    }
+
+    /** Implementation of <code>translateMorse(Reader, Appendable, MorseMap)</code> with a configurable block size. */
+    static void translateMorse(Reader morseMessage, Appendable english, MorseMap translator, int bufferSize)
+            throws IOException {
+        char[] block = new char[bufferSize];
+        CharBuffer blockView = CharBuffer.wrap(block);
+        StringBuilder carried = new StringBuilder();
+        int treeIndex = MorseMap.ROOT;
+
+        int read;
+        while ((read = morseMessage.read(block, 0, block.length)) != -1) {
+            int characterStart = 0;
+            for (int idx = 0; idx < read; idx++) {
+                char currentSymbol = block[idx];
+                if (currentSymbol == ' ') {
+                    if (carried.length() == 0) {
+                        appendLetter(treeIndex, blockView, characterStart, idx, english);
+                    } else {
+                        // Letter began in an earlier block
+                        carried.append(block, characterStart, idx - characterStart);
+                        appendLetter(treeIndex, carried, 0, carried.length(), english);
+                        carried.setLength(0);
+                    }
+                    characterStart = idx + 1;
+                    treeIndex = MorseMap.ROOT;
+                } else {
+                    treeIndex = translator.step(treeIndex, currentSymbol);
+                }
+            }
+
+            // Retain the unfinished letter, which may continue into the next block
+            carried.append(block, characterStart, read - characterStart);
+        }
+
+        // Flush final letter
+        appendLetter(treeIndex, carried, 0, carried.length(), english);
+    }
+
+    /**
+     * Append a translation of the Morse letter reached by an incremental tree traversal to the English message.
+     * @param treeIndex The tree index reached by stepping through the letter.
+     * @param source The sequence containing the letter, re-inserted if it has no translation.
+     * @param start The index of the first character of the letter in <code>source</code>.
+     * @param end The index following the last character of the letter in <code>source</code>.
+     * @param english The English message to which to append the translation.
+     * @throws IOException If appending to <code>english</code> fails.
+     */
+    private static void appendLetter(int treeIndex, CharSequence source, int start, int end, Appendable english)
+            throws IOException {
+        char translation = MorseMap.translationAt(treeIndex);
+        if (translation != MorseMap.NO_TRANSLATION) {
+            english.append(translation);
+        } else {
+            // Copy one character at a time, as Appendable implementations may copy a range through subSequence()
+            for (int i = start; i < end; i++) {
+                english.append(source.charAt(i));
+            }
+        }
+    }
+
+    /** Default number of bytes of input decoded by each parallel task in <code>translateFile</code>. */
+    private static final int FILE_CHUNK_SIZE = 1 << 20;
+    /** Byte used to separate Morse letters in files. */
+    private static final byte SPACE_BYTE = ' ';
+
+    // Masks used to compare the eight bytes of a long at once
+    private static final long LANE_ONES = 0x0101010101010101L;
+    private static final long LANE_LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long LANE_GATHER = 0x0102040810204080L;
+
+    /**
+     * Translate the Morse transcript in the specified file as <code>translateMorse(String, MorseMap)</code> would,
+     * writing the result to another file.  Chunks of the input are memory-mapped and decoded in parallel on the common
+     * fork-join pool.
+     * @param input The file containing the Morse code transcript to translate.
+     * @param output The file to which to write the translation, created or truncated as necessary.
+     * @param translator The Morse translator used to translate Morse letters into Latin alphabet characters.
+     * @throws IOException If reading or writing either file fails.
+     * @see #translateFile(Path, Path, MorseMap, ForkJoinPool, int)
+     */
+    public static void translateFile(Path input, Path output, MorseMap translator) throws IOException {
+        translateFile(input, output, translator, ForkJoinPool.commonPool(), FILE_CHUNK_SIZE);
+    }
+
+    /**
+     * Translate the Morse transcript in the specified file as <code>translateMorse(String, MorseMap)</code> would,
+     * writing the result to another file.  The input is split into chunks of roughly <code>chunkSize</code> bytes, each
+     * extended to end just after a space so that no Morse letter spans two chunks.  Each chunk is memory-mapped and
+     * decoded by a separate task on <code>pool</code>, and results are written in input order.  At most twice the
+     * pool's parallelism in chunks are in flight at once, so heap use depends only on the chunk size and not on the
+     * size of the file.
+     * <p>
+     * Files are processed as single-byte text: each byte is compared against the dit and dah of
+     * <code>translator</code> as an ISO-8859-1 character, and the bytes of invalid patterns are copied unchanged, so
+     * UTF-8 text outside of Morse letters is preserved.
+     * @param input The file containing the Morse code transcript to translate.
+     * @param output The file to which to write the translation, created or truncated as necessary.
+     * @param translator The Morse translator used to translate Morse letters into Latin alphabet characters.
+     * @param pool The pool on which to decode chunks.
+     * @param chunkSize The approximate number of bytes of input decoded by each task.
+     * @throws IllegalArgumentException If <code>chunkSize</code> is not positive.
+     * @throws IOException If reading or writing either file fails, or if a single Morse letter is too long to map.
+     */
+    public static void translateFile(Path input, Path output, MorseMap translator, ForkJoinPool pool, int chunkSize)
+            throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            int maxInFlight = Math.max(2, 2 * pool.getParallelism());
+            ArrayDeque<ForkJoinTask<ByteBuffer>> inFlight = new ArrayDeque<>();
+            ByteBuffer probe = ByteBuffer.allocate(4096);
+
+            long chunkStart = 0;
+            while (chunkStart < size || !inFlight.isEmpty()) {
+                // Keep the pool busy, then retire the oldest chunk so that output remains in order
+                if (chunkStart < size && inFlight.size() < maxInFlight) {
+                    long chunkEnd = chunkEnd(in, chunkStart, chunkSize, probe);
+                    ByteBuffer chunk = in.map(FileChannel.MapMode.READ_ONLY, chunkStart, chunkEnd - chunkStart);
+                    inFlight.add(pool.submit(() -> translateChunk(chunk, translator)));
+                    chunkStart = chunkEnd;
+                } else {
+                    ByteBuffer english = inFlight.remove().join();
+                    while (english.hasRemaining()) {
+                        out.write(english);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the end of the chunk beginning at the specified offset: the first offset at least <code>chunkSize</code>
+     * bytes later that immediately follows a space, or the end of the file.
+     * @throws IOException If reading fails, or if the chunk would be too long to map.
+     */
+    private static long chunkEnd(FileChannel in, long chunkStart, int chunkSize, ByteBuffer probe) throws IOException {
+        long size = in.size();
+        long position = chunkStart + chunkSize - 1;
+        while (position < size) {
+            if (position - chunkStart >= Integer.MAX_VALUE) {
+                throw new IOException("Morse letter at offset " + chunkStart + " is too long to map");
+            }
+
+            probe.clear();
+            int read = in.read(probe, position);
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == SPACE_BYTE) {
+                    return position + i + 1;
+                }
+            }
+            position += Math.max(read, 0);
+        }
+        return size;
+    }
+
+    /**
+     * Translate a chunk of a Morse file, treating its end as the end of a letter.  The chunk is classified eight bytes
+     * at a time: each <code>long</code> read from the chunk is compared against spaces, dits, and dahs in all of its
+     * bytes at once, and the results are gathered into one bit per byte.  Every letter within a word is then packed as
+     * by <code>MorseMap.pack</code> directly from those bits, so the per-byte work is limited to the bytes of invalid
+     * patterns, which must be copied.  The final bytes of the chunk, and maps whose dit or dah cannot be represented in
+     * a byte, use the scalar decoder.  Only <code>translateFile</code> decodes through this method; the
+     * <code>translateMorse</code> overloads for strings, character sequences, and readers walk the tree one blip at a
+     * time.
+     * @param morse The bytes of the chunk.  Its byte order is changed by this method.
+     * @param translator The Morse translator used to translate Morse letters into Latin alphabet characters.
+     * @return A buffer, ready to be written, containing the translated chunk.
+     */
+    static ByteBuffer translateChunk(ByteBuffer morse, MorseMap translator) {
+        char dit = translator.getDit();
+        char dah = translator.getDah();
+        if (dit > 0xFF || dah > 0xFF) {
+            return translateChunkScalar(morse, translator);
+        }
+
+        // Translation never lengthens the input
+        ByteBuffer english = ByteBuffer.allocate(morse.limit());
+        morse.order(ByteOrder.LITTLE_ENDIAN);
+        long spaceLanes = LANE_ONES * ' ';
+        long ditLanes = LANE_ONES * dit;
+        long dahLanes = LANE_ONES * dah;
+
+        int characterStart = 0;
+        int packed = 1;
+        int idx = 0;
+        for (; idx <= morse.limit() - Long.BYTES; idx += Long.BYTES) {
+            long word = morse.getLong(idx);
+            int spaces = laneBits(lanesEqual(word, spaceLanes));
+            int dahs = laneBits(lanesEqual(word, dahLanes));
+            int blips = laneBits(lanesEqual(word, ditLanes)) | dahs;
+
+            int lane = 0;
+            while (true) {
+                // Extend the current letter by the blips before the next space in this word
+                int letterEnd = spaces == 0 ? Long.BYTES : Integer.numberOfTrailingZeros(spaces);
+                int length = letterEnd - lane;
+                if (length > 0 && packed != 0) {
+                    int letterLanes = ((1 << length) - 1) << lane;
+                    if ((blips & letterLanes) != letterLanes) {
+                        packed = 0;
+                    } else {
+                        // Reverse so that the first blip is the most significant bit
+                        packed = (packed << length) | (Integer.reverse(dahs & letterLanes) >>> (32 - letterEnd));
+                        packed = packed > MorseMap.MAX_PACKED_PATTERN ? 0 : packed;
+                    }
+                }
+                if (spaces == 0) {
+                    break;
+                }
+
+                appendLetter(MorseMap.translatePacked(packed), morse, characterStart, idx + letterEnd, english);
+                characterStart = idx + letterEnd + 1;
+                packed = 1;
+                lane = letterEnd + 1;
+                spaces &= spaces - 1;
+            }
+        }
+
+        // Finish the chunk one byte at a time
+        for (; idx < morse.limit(); idx++) {
+            byte currentSymbol = morse.get(idx);
+            if (currentSymbol == SPACE_BYTE) {
+                appendLetter(MorseMap.translatePacked(packed), morse, characterStart, idx, english);
+                characterStart = idx + 1;
+                packed = 1;
+            } else if (packed != 0) {
+                char blip = (char) (currentSymbol & 0xFF);
+                packed = blip == dit ? packed << 1 : blip == dah ? (packed << 1) | 1 : 0;
+                packed = packed > MorseMap.MAX_PACKED_PATTERN ? 0 : packed;
+            }
+        }
+
+        // Flush final letter
+        appendLetter(MorseMap.translatePacked(packed), morse, characterStart, morse.limit(), english);
+        return english.flip();
+    }
+
+    /**
+     * Translate a chunk of a Morse file one byte at a time, treating its end as the end of a letter.
+     * @param morse The bytes of the chunk.
+     * @param translator The Morse translator used to translate Morse letters into Latin alphabet characters.
+     * @return A buffer, ready to be written, containing the translated chunk.
+     */
+    static ByteBuffer translateChunkScalar(ByteBuffer morse, MorseMap translator) {
+        // Translation never lengthens the input
+        ByteBuffer english = ByteBuffer.allocate(morse.limit());
+        int characterStart = 0;
+        int treeIndex = MorseMap.ROOT;
+        for (int idx = 0; idx < morse.limit(); idx++) {
+            byte currentSymbol = morse.get(idx);
+            if (currentSymbol == SPACE_BYTE) {
+                appendLetter(MorseMap.translationAt(treeIndex), morse, characterStart, idx, english);
+                characterStart = idx + 1;
+                treeIndex = MorseMap.ROOT;
+            } else {
+                treeIndex = translator.step(treeIndex, (char) (currentSymbol & 0xFF));
+            }
+        }
+
+        // Flush final letter
+        appendLetter(MorseMap.translationAt(treeIndex), morse, characterStart, morse.limit(), english);
+        return english.flip();
+    }
+
+    /**
+     * Compare each byte of a word against the corresponding byte of another.
+     * @param word The word to classify.
+     * @param lanes The bytes against which to compare, usually a single byte repeated eight times.
+     * @return A word with the high bit of each byte set if and only if the corresponding bytes are equal.
+     */
+    private static long lanesEqual(long word, long lanes) {
+        long difference = word ^ lanes;
+        // The high bit survives only in bytes that were zero, without borrowing between bytes
+        return ~(((difference & LANE_LOW_BITS) + LANE_LOW_BITS) | difference | LANE_LOW_BITS);
+    }
+
+    /**
+     * Gather the high bit of each byte of a word into a single byte.
+     * @param lanes A word in which only the high bit of each byte may be set.
+     * @return The gathered bits, with the least significant byte of <code>lanes</code> in bit 0.
+     */
+    static int laneBits(long lanes) {
+        return (int) (((lanes >>> 7) * LANE_GATHER) >>> 56);
+    }
+
+    /** Byte-oriented equivalent of <code>appendLetter(int, CharSequence, int, int, Appendable)</code>. */
+    private static void appendLetter(char translation, ByteBuffer source, int start, int end, ByteBuffer english) {
+        if (translation != MorseMap.NO_TRANSLATION) {
+            // All translations are ASCII
+            english.put((byte) translation);
+        } else {
+            for (int i = start; i < end; i++) {
+                english.put(source.get(i));
+            }
+        }
+    }
 
     @DisplayName("MorseCode solution tests")
     @Tag("MorseCodeSolution")
@@ -215,4 +585,360 @@ public class MorseCode {
             assertEquals("ABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890.,?'!/()&:;=+-_\"@", translateMorse(pangram, translator));
         }
     }
+
+    @DisplayName("MorseCode streaming decoder tests")
+    @Tag("MorseCodeSolution")
+    public static class MorseCodeStreamingTest {
+        static final String[] MESSAGES = {
+            "", ".", "X", "... --- ...", "..- - -.-. ...", "... ..-.-. ...", ".... . .-.. .-.- ---",
+            ".... . L .-.. O", "...---...", " ... ", "  ", "-----.-. .......",
+            ".- -... -.-. -.. . ..-. --. .... .. .--- -.- .-.. -- -. --- .--. --.- .-. ... - ..- ...- .-- -..- -.-- "
+                    + "--.. .---- ..--- ...-- ....- ..... -.... --... ---.. ----. ----- .-.-.- --..-- ..--.. .----. "
+                    + "-.-.-- -..-. -.--. -.--.- .-... ---... -.-.-. -...- .-.-. -....- ..--.- .-..-. .--.-. ~"
+        };
+
+        MorseMap translator = new MorseMap();
+
+        static String streamSequence(CharSequence message, MorseMap translator) throws IOException {
+            StringBuilder english = new StringBuilder();
+            translateMorse(message, english, translator);
+            return english.toString();
+        }
+
+        static String streamReader(String message, MorseMap translator, int bufferSize) throws IOException {
+            StringWriter english = new StringWriter();
+            translateMorse(new StringReader(message), english, translator, bufferSize);
+            return english.toString();
+        }
+
+        @Test
+        @DisplayName("Incremental tree traversal matches map lookup")
+        void stepMatchesGet() {
+            for (Entry<String, Character> entry : translator.entrySet()) {
+                int treeIndex = MorseMap.ROOT;
+                for (char blip : entry.getKey().toCharArray()) {
+                    treeIndex = translator.step(treeIndex, blip);
+                }
+                assertEquals((char) entry.getValue(), MorseMap.translationAt(treeIndex));
+            }
+            assertEquals(MorseMap.NO_TRANSLATION, MorseMap.translationAt(MorseMap.ROOT));
+            assertEquals(MorseMap.NO_NODE, translator.step(MorseMap.ROOT, 'X'));
+            assertEquals(MorseMap.NO_NODE, translator.step(MorseMap.NO_NODE, '.'));
+        }
+
+        @Test
+        @DisplayName("Patterns longer than the tree leave it")
+        void overlongPattern() throws IOException {
+            int treeIndex = MorseMap.ROOT;
+            for (int i = 0; i < 6; i++) {
+                treeIndex = translator.step(treeIndex, '.');
+                assertNotEquals(MorseMap.NO_NODE, treeIndex);
+            }
+            assertEquals(MorseMap.NO_NODE, translator.step(treeIndex, '.'));
+            assertEquals(".......", streamSequence(".......", translator));
+        }
+
+        @Test
+        @DisplayName("CharSequence decoding matches String translation")
+        void charSequenceMatches() throws IOException {
+            for (String message : MESSAGES) {
+                assertEquals(translateMorse(message, translator), streamSequence(message, translator));
+                assertEquals(translateMorse(message, translator), streamSequence(CharBuffer.wrap(message), translator));
+            }
+        }
+
+        @Test
+        @DisplayName("Reader decoding matches String translation across block boundaries")
+        void readerMatches() throws IOException {
+            for (String message : MESSAGES) {
+                String expected = translateMorse(message, translator);
+                for (int bufferSize = 1; bufferSize <= 9; bufferSize++) {
+                    assertEquals(expected, streamReader(message, translator, bufferSize));
+                }
+                StringBuilder english = new StringBuilder();
+                translateMorse(new StringReader(message), english, translator);
+                assertEquals(expected, english.toString());
+            }
+        }
+
+        @Test
+        @DisplayName("Decoded buffer is consumed in place")
+        void decodeBufferSlice() throws IOException {
+            CharBuffer buffer = CharBuffer.wrap("XX... --- ...XX", 2, 13);
+            assertEquals("SOS", streamSequence(buffer, translator));
+        }
+
+        @Test
+        @DisplayName("Alternative Morse characters")
+        void alternativeCharacters() throws IOException {
+            MorseMap alternative = new MorseMap('@', '_');
+            assertEquals("UTCS", streamSequence("@@_ _ _@_@ @@@", alternative));
+            assertEquals("UTCS", streamReader("@@_ _ _@_@ @@@", alternative, 2));
+            assertEquals("...S", streamSequence("... @@@", alternative));
+        }
+    }
+
+    @DisplayName("MorseCode file translation tests")
+    @Tag("MorseCodeSolution")
+    public static class MorseCodeFileTest {
+        MorseMap translator = new MorseMap();
+
+        @TempDir
+        Path directory;
+
+        String translate(String message, MorseMap translator, ForkJoinPool pool, int chunkSize) throws IOException {
+            Path input = directory.resolve("input.txt");
+            Path output = directory.resolve("output.txt");
+            Files.writeString(input, message, StandardCharsets.UTF_8);
+            translateFile(input, output, translator, pool, chunkSize);
+            return Files.readString(output, StandardCharsets.UTF_8);
+        }
+
+        @Test
+        @DisplayName("Chunked translation matches String translation")
+        void chunksMatch() throws IOException {
+            ForkJoinPool pool = new ForkJoinPool(3);
+            try {
+                for (String message : MorseCodeStreamingTest.MESSAGES) {
+                    String expected = translateMorse(message, translator);
+                    for (int chunkSize = 1; chunkSize <= 8; chunkSize++) {
+                        assertEquals(expected, translate(message, translator, pool, chunkSize));
+                    }
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        @Test
+        @DisplayName("Large file with many chunks in flight")
+        void largeFile() throws IOException {
+            StringBuilder morse = new StringBuilder();
+            StringBuilder expected = new StringBuilder();
+            for (int i = 0; i < 20000; i++) {
+                morse.append(i % 3 == 0 ? "... " : i % 3 == 1 ? "--- " : "..-.-. ");
+                expected.append(i % 3 == 0 ? "S" : i % 3 == 1 ? "O" : "..-.-.");
+            }
+
+            Path input = directory.resolve("large.txt");
+            Path output = directory.resolve("large.out");
+            Files.writeString(input, morse);
+            translateFile(input, output, translator);
+            assertEquals(expected.toString(), Files.readString(output));
+
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                translateFile(input, output, translator, pool, 100);
+                assertEquals(expected.toString(), Files.readString(output));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        @Test
+        @DisplayName("Empty file and existing output")
+        void emptyFile() throws IOException {
+            Files.writeString(directory.resolve("output.txt"), "stale contents");
+            assertEquals("", translate("", translator, ForkJoinPool.commonPool(), 16));
+        }
+
+        @Test
+        @DisplayName("Non-Morse UTF-8 text is preserved")
+        void utf8Passthrough() throws IOException {
+            assertEquals("SΣOS", translate("... Σ --- ...", translator, ForkJoinPool.commonPool(), 2));
+            assertEquals("UTCS", translate("@@_ _ _@_@ @@@", new MorseMap('@', '_'), ForkJoinPool.commonPool(), 3));
+        }
+
+        @Test
+        @DisplayName("Precondition: chunkSize > 0")
+        void chunkSizePrecondition() {
+            assertThrows(IllegalArgumentException.class,
+                    () -> translate("...", translator, ForkJoinPool.commonPool(), 0));
+        }
+    }
+
+    @DisplayName("MorseCode packed pattern tests")
+    @Tag("MorseCodeSolution")
+    public static class MorseCodePackedTest {
+        MorseMap translator = new MorseMap();
+
+        /** Pack a pattern of dits and dahs given as a String. */
+        static int packString(String pattern) {
+            int bits = 0;
+            for (char blip : pattern.toCharArray()) {
+                bits = (bits << 1) | (blip == '-' ? 1 : 0);
+            }
+            return MorseMap.pack(pattern.length(), bits);
+        }
+
+        @Test
+        @DisplayName("Packed lookup matches map lookup")
+        void packedMatchesGet() {
+            for (Entry<String, Character> entry : translator.entrySet()) {
+                assertEquals((char) entry.getValue(), MorseMap.translatePacked(packString(entry.getKey())));
+            }
+        }
+
+        @Test
+        @DisplayName("Packed lookup examples")
+        void packedExamples() {
+            assertEquals('E', MorseMap.translatePacked(MorseMap.pack(1, 0b0)));
+            assertEquals('T', MorseMap.translatePacked(MorseMap.pack(1, 0b1)));
+            assertEquals('Q', MorseMap.translatePacked(MorseMap.pack(4, 0b1101)));
+            assertEquals('?', MorseMap.translatePacked(MorseMap.pack(6, 0b001100)));
+            assertEquals(MorseMap.NO_TRANSLATION, MorseMap.translatePacked(MorseMap.pack(4, 0b0101)));
+            assertEquals(MorseMap.NO_TRANSLATION, MorseMap.translatePacked(MorseMap.pack(0, 0)));
+        }
+
+        @Test
+        @DisplayName("Every packed value is distinct and in range")
+        void packedRange() {
+            boolean[] seen = new boolean[128];
+            for (int length = 0; length <= 6; length++) {
+                for (int bits = 0; bits < 1 << length; bits++) {
+                    int packed = MorseMap.pack(length, bits);
+                    assertFalse(seen[packed]);
+                    seen[packed] = true;
+                }
+            }
+            assertEquals(MorseMap.NO_TRANSLATION, MorseMap.translatePacked(0));
+            assertEquals(MorseMap.NO_TRANSLATION, MorseMap.translatePacked(128));
+            assertEquals(MorseMap.NO_TRANSLATION, MorseMap.translatePacked(-1));
+        }
+
+        @Test
+        @DisplayName("Pack preconditions")
+        void packPreconditions() {
+            assertThrows(IllegalArgumentException.class, () -> MorseMap.pack(-1, 0));
+            assertThrows(IllegalArgumentException.class, () -> MorseMap.pack(7, 0));
+            assertThrows(IllegalArgumentException.class, () -> MorseMap.pack(2, 0b100));
+        }
+
+        @Test
+        @DisplayName("Map lookups with alternative characters")
+        void alternativeCharacters() {
+            MorseMap alternative = new MorseMap('@', '_');
+            assertEquals('Q', (char) alternative.get("__@_"));
+            assertNull(alternative.get("--.-"));
+            assertFalse(alternative.containsKey("......."));
+        }
+    }
+
+    @DisplayName("MorseCode encoder tests")
+    @Tag("MorseCodeSolution")
+    public static class MorseCodeEncodeTest {
+        MorseMap translator = new MorseMap();
+
+        @Test
+        @DisplayName("Encode problem description examples")
+        void encodeExamples() {
+            assertEquals("", translator.encode(""));
+            assertEquals("... --- ...", translator.encode("SOS"));
+            assertEquals("..- - -.-. ...", translator.encode("UTCS"));
+            assertEquals("... --- ...", translator.encode("sos"));
+        }
+
+        @Test
+        @DisplayName("Every map entry encodes to its key")
+        void encodeEntries() {
+            for (Entry<String, Character> entry : translator.entrySet()) {
+                assertEquals(entry.getKey(), translator.encode(String.valueOf(entry.getValue())));
+                assertEquals(MorseCodePackedTest.packString(entry.getKey()),
+                        MorseMap.packedPattern(entry.getValue()));
+            }
+        }
+
+        @Test
+        @DisplayName("Characters without patterns are copied")
+        void encodeUnknown() {
+            assertEquals(".... ~ ..", translator.encode("H~I"));
+            assertEquals("...   ...", translator.encode("S S"));
+            assertEquals("Σ", translator.encode("Σ"));
+            assertEquals(0, MorseMap.packedPattern('~'));
+            assertEquals(0, MorseMap.packedPattern('Σ'));
+        }
+
+        @Test
+        @DisplayName("Encoding round-trips through translation up to case and spaces")
+        void roundTrip() throws IOException {
+            String english = "ABCDEFGHIJKLMNOPQRSTUVWXYZ1234567890.,?'!/()&:;=+-_\"@~";
+            assertEquals(english, translateMorse(translator.encode(english), translator));
+            assertEquals("SS", translateMorse(translator.encode("S s"), translator));
+
+            StringWriter morse = new StringWriter();
+            translator.encode(CharBuffer.wrap("Hello, world!"), morse);
+            assertEquals("HELLO,WORLD!", translateMorse(morse.toString(), translator));
+        }
+
+        @Test
+        @DisplayName("Alternative Morse characters")
+        void alternativeCharacters() {
+            MorseMap alternative = new MorseMap('@', '_');
+            assertEquals("@@_ _ _@_@ @@@", alternative.encode("UTCS"));
+            assertEquals("UTCS", translateMorse(alternative.encode("UTCS"), alternative));
+        }
+    }
+
+    @DisplayName("MorseCode bulk classification tests")
+    @Tag("MorseCodeSolution")
+    public static class MorseCodeBulkTest {
+        MorseMap translator = new MorseMap();
+
+        static String decode(String message, MorseMap translator, boolean bulk) {
+            ByteBuffer morse = ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer english = bulk ? translateChunk(morse, translator) : translateChunkScalar(morse, translator);
+            return StandardCharsets.UTF_8.decode(english).toString();
+        }
+
+        @Test
+        @DisplayName("Lane bits are gathered in order")
+        void gatherLanes() {
+            for (int bits = 0; bits < 256; bits++) {
+                long lanes = 0;
+                for (int lane = 0; lane < 8; lane++) {
+                    if ((bits & (1 << lane)) != 0) {
+                        lanes |= 0x80L << (8 * lane);
+                    }
+                }
+                assertEquals(bits, laneBits(lanes));
+            }
+        }
+
+        @Test
+        @DisplayName("Bulk and scalar decoding match String translation")
+        void bulkMatches() {
+            for (String message : MorseCodeStreamingTest.MESSAGES) {
+                String expected = translateMorse(message, translator);
+                assertEquals(expected, decode(message, translator, true));
+                assertEquals(expected, decode(message, translator, false));
+            }
+        }
+
+        @Test
+        @DisplayName("Letters spanning words and every alignment")
+        void alignments() {
+            String[] letters = {".", "-", "......", "-----", "...---", ".......", "..-.-.", "~", "", "Σ", "X.", ".X"};
+            Random random = new Random(314);
+            for (int trial = 0; trial < 2000; trial++) {
+                StringBuilder message = new StringBuilder();
+                int count = random.nextInt(12);
+                for (int i = 0; i < count; i++) {
+                    if (i > 0) {
+                        message.append(' ');
+                    }
+                    message.append(letters[random.nextInt(letters.length)]);
+                }
+                String expected = translateMorse(message.toString(), translator);
+                assertEquals(expected, decode(message.toString(), translator, true), message.toString());
+            }
+        }
+
+        @Test
+        @DisplayName("Alternative and wide Morse characters")
+        void alternativeCharacters() {
+            assertEquals("UTCSUTCS", decode("@@_ _ _@_@ @@@ @@_ _ _@_@ @@@", new MorseMap('@', '_'), true));
+            assertEquals("UTCSUTCS", decode("@@. . .@.@ @@@ @@. . .@.@ @@@", new MorseMap('@', '.'), true));
+            assertEquals("ΣΣΣ———ΣΣΣ", decode("ΣΣΣ ——— ΣΣΣ", new MorseMap('Σ', '—'), true));
+        }
+    }
 }
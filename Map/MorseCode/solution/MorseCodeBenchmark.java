@@ -0,0 +1,240 @@
+/* MORSE CODE BENCHMARKS
+ * Written: 18 October 2026
+ *
+ * A self-contained benchmark harness comparing the Morse decoders in this package on randomly generated transcripts.
+ * Each transcript consists mostly of valid Morse letters with a small proportion of invalid patterns, which must be
+ * copied to the output.  Every decoder is run on the same transcript, and each measurement is preceded by warm-up runs
+ * so that the JIT has compiled the code under test, then repeated to report the median of several runs.
+ *
+ * The bulk decoder, which classifies eight bytes at a time, is only used by MorseCode.translateFile, so its speedup is
+ * reported against the scalar byte decoder it replaced there.  The String and streaming decoders are listed for
+ * reference; they walk the translation tree per blip and do not use the bulk path.
+ *
+ * Run the main method to print a table of results, optionally passing the transcript sizes to test in MiB as arguments.
+ *
+ *
+ * LICENSE:
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+
+package Map.MorseCode.solution;
+
+import common.MorseMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MorseCodeBenchmark {
+    /** Transcript sizes, in MiB, measured when none are given on the command line. */
+    private static final int[] DEFAULT_SIZES = {4, 32};
+    /** Number of unmeasured runs of each decoder before the measured runs. */
+    private static final int WARMUP_RUNS = 5;
+    /** Number of measured runs of each decoder, of which the median is reported. */
+    static final int MEASURED_RUNS = 7;
+    /** Seed for the random number generator, so that every decoder sees the same transcript. */
+    private static final long SEED = 314;
+    /** Probability that a generated letter is an invalid pattern. */
+    private static final double INVALID_FRACTION = 0.05;
+    /** Receives the result of every decode, so that the JIT cannot discard the work being measured. */
+    static volatile long blackhole;
+
+    /**
+     * The decoders under comparison.  Each decodes an ASCII transcript held in a byte buffer and returns the number of
+     * characters it produced, so that no decoder is charged for converting its input or output.
+     */
+    enum Subject {
+        /** <code>MorseCode.translateMorse(String, MorseMap)</code>, the reference solution. */
+        STRING("String translateMorse") {
+            @Override
+            int decode(ByteBuffer morse, String message, MorseMap translator) {
+                return MorseCode.translateMorse(message, translator).length();
+            }
+        },
+        /** <code>MorseCode.translateMorse(CharSequence, Appendable, MorseMap)</code>, walking the tree per blip. */
+        STREAMING("Streaming CharSequence") {
+            @Override
+            int decode(ByteBuffer morse, String message, MorseMap translator) {
+                StringBuilder english = new StringBuilder(message.length());
+                try {
+                    MorseCode.translateMorse(message, english, translator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return english.length();
+            }
+        },
+        /** The scalar byte decoder, used for file translation with wide dit or dah characters; the baseline. */
+        SCALAR_BYTES("Scalar bytes") {
+            @Override
+            int decode(ByteBuffer morse, String message, MorseMap translator) {
+                return MorseCode.translateChunkScalar(morse, translator).remaining();
+            }
+        },
+        /** The byte decoder classifying eight bytes at a time, used for file translation. */
+        BULK_BYTES("Bulk bytes") {
+            @Override
+            int decode(ByteBuffer morse, String message, MorseMap translator) {
+                return MorseCode.translateChunk(morse, translator).remaining();
+            }
+        };
+
+        /** Human-readable name of this decoder. */
+        final String label;
+
+        Subject(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Decode the specified transcript.
+         * @param morse The transcript as ASCII bytes.
+         * @param message The transcript as a String.
+         * @param translator The Morse translator used to translate Morse letters into Latin alphabet characters.
+         * @return The number of characters in the translation.
+         */
+        abstract int decode(ByteBuffer morse, String message, MorseMap translator);
+    }
+
+    /**
+     * Generate a random Morse transcript.
+     * @param length The approximate length of the transcript in characters.
+     * @param translator The map from which to draw valid letters.
+     * @param random The source of randomness.
+     * @return A transcript of letters separated by single spaces.
+     */
+    static String transcript(int length, MorseMap translator, Random random) {
+        String[] letters = translator.keySet().toArray(new String[0]);
+        Arrays.sort(letters);
+        StringBuilder morse = new StringBuilder(length + 8);
+        while (morse.length() < length) {
+            if (morse.length() > 0) {
+                morse.append(' ');
+            }
+
+            if (random.nextDouble() < INVALID_FRACTION) {
+                // Patterns of seven blips are never valid
+                for (int i = 0; i < 7; i++) {
+                    morse.append(random.nextBoolean() ? '.' : '-');
+                }
+            } else {
+                morse.append(letters[random.nextInt(letters.length)]);
+            }
+        }
+        return morse.toString();
+    }
+
+    /**
+     * Measure the throughput of a decoder on the specified transcript.
+     * @param subject The decoder to measure.
+     * @param message The transcript to decode.
+     * @param translator The Morse translator used to translate Morse letters into Latin alphabet characters.
+     * @return The throughput of each measured run, in MiB of transcript per second, in ascending order.
+     */
+    static double[] measure(Subject subject, String message, MorseMap translator) {
+        ByteBuffer morse = ByteBuffer.wrap(message.getBytes(StandardCharsets.US_ASCII));
+        for (int run = 0; run < WARMUP_RUNS; run++) {
+            blackhole += subject.decode(morse, message, translator);
+        }
+
+        double[] throughputs = new double[MEASURED_RUNS];
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            long start = System.nanoTime();
+            blackhole += subject.decode(morse, message, translator);
+            long elapsed = System.nanoTime() - start;
+            throughputs[run] = message.length() / (1024.0 * 1024.0) / (elapsed / 1e9);
+        }
+        Arrays.sort(throughputs);
+        return throughputs;
+    }
+
+    /**
+     * @param throughputs Throughputs in ascending order, as returned by <code>measure</code>.
+     * @return The median throughput.
+     */
+    static double median(double[] throughputs) {
+        int middle = throughputs.length / 2;
+        return throughputs.length % 2 == 1 ? throughputs[middle] : (throughputs[middle - 1] + throughputs[middle]) / 2;
+    }
+
+    /**
+     * Run every decoder on a transcript of each size, printing a table of the median, minimum, and maximum throughput
+     * of each, and the speedup of its median over that of the scalar byte decoder.
+     * @param args The transcript sizes in MiB.  If none are given, a default set is used.
+     */
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? DEFAULT_SIZES : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        MorseMap translator = new MorseMap();
+
+        System.out.printf("%-8s %-24s %10s %10s %10s %10s%n", "MiB", "Decoder", "Median/s", "Min/s", "Max/s",
+                "vs scalar");
+        for (int size : sizes) {
+            String message = transcript(size << 20, translator, new Random(SEED));
+            double[][] results = new double[Subject.values().length][];
+            for (Subject subject : Subject.values()) {
+                results[subject.ordinal()] = measure(subject, message, translator);
+            }
+
+            double baseline = median(results[Subject.SCALAR_BYTES.ordinal()]);
+            for (Subject subject : Subject.values()) {
+                double[] throughputs = results[subject.ordinal()];
+                System.out.printf("%-8d %-24s %10.1f %10.1f %10.1f %9.2fx%n", size, subject.label, median(throughputs),
+                        throughputs[0], throughputs[throughputs.length - 1], median(throughputs) / baseline);
+            }
+        }
+    }
+
+    @DisplayName("MorseCode benchmark harness tests")
+    @Tag("MorseCodeSolution")
+    public static class MorseCodeBenchmarkTest {
+        @Test
+        @DisplayName("Every decoder produces the same translation")
+        void decodersAgree() {
+            MorseMap translator = new MorseMap();
+            String message = transcript(1 << 14, translator, new Random(SEED));
+            int expected = MorseCode.translateMorse(message, translator).length();
+            for (Subject subject : Subject.values()) {
+                ByteBuffer morse = ByteBuffer.wrap(message.getBytes(StandardCharsets.US_ASCII));
+                assertEquals(expected, subject.decode(morse, message, translator), subject.label);
+            }
+
+            ByteBuffer morse = ByteBuffer.wrap(message.getBytes(StandardCharsets.US_ASCII));
+            String english = StandardCharsets.US_ASCII.decode(MorseCode.translateChunk(morse, translator)).toString();
+            assertEquals(MorseCode.translateMorse(message, translator), english);
+        }
+
+        @Test
+        @DisplayName("Measurements report every run in ascending order")
+        void measureRuns() {
+            MorseMap translator = new MorseMap();
+            String message = transcript(1 << 12, translator, new Random(SEED));
+            double[] throughputs = measure(Subject.BULK_BYTES, message, translator);
+            assertEquals(MEASURED_RUNS, throughputs.length);
+            for (int run = 1; run < throughputs.length; run++) {
+                assertTrue(throughputs[run - 1] <= throughputs[run]);
+            }
+            assertTrue(throughputs[0] > 0);
+
+            assertEquals(2.0, median(new double[] {1, 2, 3}));
+            assertEquals(2.5, median(new double[] {1, 2, 3, 4}));
+        }
+    }
+}
@@ -17,6 +17,8 @@
 
 package common;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.AbstractMap;
 import java.util.Collections;
 import java.util.HashSet;
@@ -41,6 +43,18 @@ public class MorseMap extends AbstractMap<String, Character> {
     /** Representation of an invalid Morse code pattern.  Signifies a translation error. */
     private static final char INV = 0;
 
+    /**
+     * Largest packed pattern, as produced by <code>pack</code>, that may have a translation.  Every larger value packs
+     * a pattern too long to decode, so <code>translatePacked</code> returns <code>NO_TRANSLATION</code> for it.
+     */
+    public static final int MAX_PACKED_PATTERN = (2 << MAX_MORSE_LENGTH) - 1;
+    /** Tree index at which every incremental traversal via <code>step</code> begins. */
+    public static final int ROOT = 63;
+    /** Tree index signifying that an incremental traversal has left the translation tree. */
+    public static final int NO_NODE = -1;
+    /** Character returned by <code>translationAt</code> for tree indices without a translation. */
+    public static final char NO_TRANSLATION = INV;
+
     /**
      * Level-order traversal of the Morse code translation tree described in the class documentation.  Invalid patterns
      * are represented by an <code>INV</code> value.
@@ -56,6 +70,40 @@ public class MorseMap extends AbstractMap<String, Character> {
         ':',  '8',  INV,  INV,  INV,  INV,  INV,  'O',  INV,  '9',  INV,  INV,  INV,  '0',  INV
     };
 
+    /**
+     * Translations of packed Morse patterns, as produced by <code>pack</code>, indexed by the packed pattern itself.
+     * Index 0 corresponds to no pattern and is therefore always <code>INV</code>.
+     */
+    private static final char[] PACKED_TABLE = new char[MAX_PACKED_PATTERN + 1];
+
+    /**
+     * Packed Morse patterns, as produced by <code>pack</code>, indexed by the character that they encode.  Characters
+     * without a Morse pattern map to 0.  Lower-case letters share the patterns of their upper-case counterparts.
+     */
+    private static final int[] ENCODING_TABLE = new int[128];
+
+    static {
+        fillPackedTable(ROOT, 1, (ROOT + 1) / 2);
+        for (int packed = 1; packed < PACKED_TABLE.length; packed++) {
+            char translation = PACKED_TABLE[packed];
+            if (translation != INV) {
+                ENCODING_TABLE[translation] = packed;
+                if (translation >= 'A' && translation <= 'Z') {
+                    ENCODING_TABLE[Character.toLowerCase(translation)] = packed;
+                }
+            }
+        }
+    }
+
+    /** Helper method to populate <code>PACKED_TABLE</code> from <code>MORSE_TREE</code>. */
+    private static void fillPackedTable(int treeIndex, int packed, int adjustment) {
+        PACKED_TABLE[packed] = MORSE_TREE[treeIndex];
+        if (adjustment != 0) {
+            fillPackedTable(treeIndex - adjustment, packed << 1, adjustment / 2);
+            fillPackedTable(treeIndex + adjustment, (packed << 1) | 1, adjustment / 2);
+        }
+    }
+
     /**
      * Translate the Morse code pattern in the specified String to a single character.
      * @param morsePattern The Morse pattern to decode.
@@ -68,27 +116,165 @@ public class MorseMap extends AbstractMap<String, Character> {
             return INV;
         }
 
-        // Traverse through the flattened tree
-        int treeIndex = MORSE_TREE.length / 2;
-        int adjustment = (treeIndex + 1) / 2;
+        // Pack the pattern, then translate it with a single table lookup
+        int packed = 1;
         for (int i = 0; i < morsePattern.length(); i++) {
             char blip = morsePattern.charAt(i);
             if (blip == this.dit) {
-                // Move left on dits
-                treeIndex -= adjustment;
+                packed <<= 1;
             } else if (blip == this.dah) {
-                // Move right on dahs
-                treeIndex += adjustment;
+                packed = (packed << 1) | 1;
             } else {
                 // Neither a dit nor a dah
                 return INV;
             }
+        }
+        return PACKED_TABLE[packed];
+    }
 
-            // Halve adjustment to move to next subtree
-            adjustment /= 2;
+    /**
+     * Pack a Morse pattern into a single integer suitable for <code>translatePacked</code>.  The packed form is the
+     * pattern's bits preceded by a single set bit marking its length, so every pattern of up to six blips has a
+     * distinct packed value between 1 and <code>MAX_PACKED_PATTERN</code>, 127.
+     * @param length The number of blips in the pattern.
+     * @param bits The blips of the pattern, with the first blip in the most significant of the low <code>length</code>
+     *             bits; a 0 bit is a <i>dit</i> and a 1 bit is a <i>dah</i>.  For example, <code>Q</code>
+     *             (&ndash;&nbsp;&ndash;&nbsp;•&nbsp;&ndash;) is length 4 with bits <code>0b1101</code>.
+     * @return The packed pattern.
+     * @throws IllegalArgumentException If <code>length</code> is negative or longer than any decodable pattern, or if
+     *                                  <code>bits</code> does not fit in <code>length</code> bits.
+     */
+    public static int pack(int length, int bits) {
+        if (length < 0 || length > MAX_MORSE_LENGTH) {
+            throw new IllegalArgumentException("Morse patterns may contain between 0 and " + MAX_MORSE_LENGTH
+                    + " blips");
+        } else if (bits >>> length != 0) {
+            throw new IllegalArgumentException("Pattern bits must fit in the pattern length");
         }
+        return (1 << length) | bits;
+    }
 
-        return MORSE_TREE[treeIndex];
+    /**
+     * Translate a packed Morse pattern with a single table lookup.  Unlike the <code>Map</code> methods, this does not
+     * depend on the dit and dah characters of this map.
+     * @param packed The pattern, packed as by <code>pack</code>.
+     * @return The Latin alphabet character corresponding to the pattern, or <code>NO_TRANSLATION</code> if the pattern
+     *         is not valid Morse code or <code>packed</code> is not a packed pattern.
+     */
+    public static char translatePacked(int packed) {
+        return packed <= 0 || packed > MAX_PACKED_PATTERN ? INV : PACKED_TABLE[packed];
+    }
+
+    /**
+     * Advance an incremental traversal of the translation tree by a single blip.  Starting from <code>ROOT</code> and
+     * stepping once per character of a Morse pattern reaches the same tree index that a lookup of the whole pattern
+     * would, without requiring the pattern to be materialised as a String.
+     * @param treeIndex The current position in the tree, as returned by a previous call to this method or
+     *                  <code>ROOT</code>.
+     * @param blip The next character of the Morse pattern.
+     * @return The tree index reached by following <code>blip</code>, or <code>NO_NODE</code> if <code>blip</code> is
+     *         neither a dit nor a dah, if the pattern has grown longer than any decodable pattern, or if
+     *         <code>treeIndex</code> is already <code>NO_NODE</code>.
+     */
+    public int step(int treeIndex, char blip) {
+        if (treeIndex < 0 || treeIndex >= MORSE_TREE.length) {
+            return NO_NODE;
+        }
+
+        // In the flattened tree, the distance to a node's children is half the lowest set bit of its 1-based index
+        int adjustment = Integer.lowestOneBit(treeIndex + 1) / 2;
+        if (adjustment == 0) {
+            return NO_NODE;
+        } else if (blip == this.dit) {
+            // Move left on dits
+            return treeIndex - adjustment;
+        } else if (blip == this.dah) {
+            // Move right on dahs
+            return treeIndex + adjustment;
+        }
+        return NO_NODE;
+    }
+
+    /**
+     * Retrieve the translation of the pattern that led an incremental traversal to the specified tree index.
+     * @param treeIndex The tree index reached via <code>step</code>.
+     * @return The Latin alphabet character at the specified index, or <code>NO_TRANSLATION</code> if the index is
+     *         <code>NO_NODE</code> or the pattern leading to it is not valid Morse code.
+     */
+    public static char translationAt(int treeIndex) {
+        return treeIndex < 0 || treeIndex >= MORSE_TREE.length ? INV : MORSE_TREE[treeIndex];
+    }
+
+    /**
+     * Retrieve the packed Morse pattern encoding the specified character.
+     * @param letter The character to encode.  Lower-case letters are encoded as their upper-case counterparts.
+     * @return The pattern encoding <code>letter</code>, packed as by <code>pack</code>, or 0 if the character has no
+     *         Morse pattern.
+     */
+    public static int packedPattern(char letter) {
+        return letter < ENCODING_TABLE.length ? ENCODING_TABLE[letter] : 0;
+    }
+
+    /**
+     * Encode the specified text into Morse code using this map's dit and dah characters.  Letters are separated by
+     * single spaces, and lower-case letters are encoded as their upper-case counterparts; characters without a Morse
+     * pattern are copied unchanged as letters of their own.  Decoding the result therefore yields the text upper-cased
+     * and with its spaces removed, since a copied space merges with the separators around it: <code>"S s"</code>
+     * encodes to <code>"...   ..."</code>, which decodes to <code>"SS"</code>.  Patterns are read from a precomputed
+     * table, so no objects are allocated per character.
+     * @param english The text to encode.
+     * @param morse The destination to which to append the Morse code transcript.
+     * @throws IOException If appending to <code>morse</code> fails.
+     */
+    public void encode(CharSequence english, Appendable morse) throws IOException {
+        for (int i = 0; i < english.length(); i++) {
+            if (i > 0) {
+                morse.append(' ');
+            }
+
+            char letter = english.charAt(i);
+            int packed = packedPattern(letter);
+            if (packed == 0) {
+                morse.append(letter);
+            } else {
+                // Emit blips from the most significant bit below the length marker
+                for (int bit = Integer.highestOneBit(packed) >>> 1; bit != 0; bit >>>= 1) {
+                    morse.append((packed & bit) == 0 ? this.dit : this.dah);
+                }
+            }
+        }
+    }
+
+    /**
+     * Encode the specified text into Morse code as described by <code>encode(CharSequence, Appendable)</code>.
+     * @param english The text to encode.
+     * @return The Morse code transcript of <code>english</code>.
+     */
+    public String encode(CharSequence english) {
+        StringBuilder morse = new StringBuilder(english.length() * 5);
+        try {
+            encode(english, morse);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return morse.toString();
+    }
+
+    /**
+     * Retrieve the character used by this map to represent a <i>dit</i>.
+     * @return The <i>dit</i> character.
+     */
+    public char getDit() {
+        return this.dit;
+    }
+
+    /**
+     * Retrieve the character used by this map to represent a <i>dah</i>.
+     * @return The <i>dah</i> character.
+     */
+    public char getDah() {
+        return this.dah;
     }
 
     /**
@@ -120,7 +306,7 @@ public class MorseMap extends AbstractMap<String, Character> {
         // Only generate entry set if it has not already been created
         if (this.cachedEntries == null) {
             HashSet<Entry<String, Character>> entries = new HashSet<>();
-            getEntries(entries, "", MORSE_TREE.length / 2, (MORSE_TREE.length + 1) / 4);
+            getEntries(entries, "", ROOT, (ROOT + 1) / 2);
             this.cachedEntries = Collections.unmodifiableSet(entries);
         }
         return this.cachedEntries;